@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Compares the cold start time of Duker with and without the class data sharing archive and the
+# startup snapshot. Run from the project root after "./gradlew shadowJar". Each mode starts the
+# headless console, loads data/duker.txt and exits on "bye".
+# Usage: scripts/startup-benchmark.sh [runs]
+
+RUNS=${1:-5}
+JAR=build/libs/duker.jar
+ARCHIVE=build/duker-cli.jsa
+
+if [ ! -f "$JAR" ]; then
+    echo "Build the jar first with ./gradlew shadowJar"
+    exit 1
+fi
+
+# train the archive on the headless startup path, which does not load JavaFX
+echo bye | java -XX:ArchiveClassesAtExit="$ARCHIVE" -Dduker.watch=false -jar "$JAR" --cli > /dev/null 2>&1
+
+# write the snapshot once so that the snapshot modes can load it
+echo bye | java -Dduker.snapshot=true -Dduker.watch=false -jar "$JAR" --cli > /dev/null
+
+time_mode() {
+    local name=$1
+    shift
+    local total=0
+    for ((i = 0; i < RUNS; i++)); do
+        local start=$(date +%s%N)
+        echo bye | java "$@" -Dduker.watch=false -jar "$JAR" --cli > /dev/null
+        local end=$(date +%s%N)
+        total=$((total + (end - start) / 1000000))
+    done
+    printf "%-16s %6d ms\n" "$name" $((total / RUNS))
+}
+
+time_mode "default" -Xshare:auto
+time_mode "cds" -XX:SharedArchiveFile="$ARCHIVE"
+time_mode "snapshot" -Dduker.snapshot=true
+time_mode "cds+snapshot" -XX:SharedArchiveFile="$ARCHIVE" -Dduker.snapshot=true
@@ -0,0 +1,65 @@
+package duker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The default TaskStore, which keeps every task as an object in an ArrayList.
+ */
+public class ArrayTaskStore implements TaskStore {
+
+    private ArrayList<Task> tasks;
+
+    /**
+     * Constructs an empty ArrayTaskStore.
+     */
+    public ArrayTaskStore() {
+        this.tasks = new ArrayList<Task>();
+    }
+
+    @Override
+    public int size() {
+        return this.tasks.size();
+    }
+
+    @Override
+    public Task get(int index) {
+        return this.tasks.get(index);
+    }
+
+    @Override
+    public void add(Task task) {
+        this.tasks.add(task);
+    }
+
+    @Override
+    public Task remove(int index) {
+        return this.tasks.remove(index);
+    }
+
+    @Override
+    public void set(int index, Task task) {
+        this.tasks.set(index, task);
+    }
+
+    /**
+     * Returns the live backing list, so changes to it are seen by the store.
+     *
+     * @return the backing ArrayList
+     */
+    @Override
+    public ArrayList<Task> toArrayList() {
+        return this.tasks;
+    }
+
+    /**
+     * Returns a read-only live view of the backing list.
+     *
+     * @return a read-only view of the tasks
+     */
+    @Override
+    public List<Task> snapshot() {
+        return Collections.unmodifiableList(this.tasks);
+    }
+}
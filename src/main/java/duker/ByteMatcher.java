@@ -0,0 +1,123 @@
+package duker;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * The ByteMatcher class finds a byte sequence within a range of a byte array, such as a description
+ * in the UTF-8 heap of a ColumnarTaskStore.
+ * It compares eight bytes at a time: one 64-bit word is read at every candidate start and one at the
+ * matching candidate end, and only positions where both the first and the last byte of the needle
+ * match are checked in full. Since UTF-8 never starts a character in the middle of another one,
+ * a byte match is a match of the strings.
+ * The word-at-a-time search can be turned off with -Dduker.find.swar=false, which leaves a plain
+ * byte-by-byte search.
+ */
+public final class ByteMatcher {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long ONES = 0x0101010101010101L;
+
+    private static final boolean IS_SWAR_ENABLED = !"false".equals(System.getProperty("duker.find.swar"));
+
+    private final byte[] needle;
+    private final long firstBytes;
+    private final long lastBytes;
+
+    /**
+     * Constructs a ByteMatcher for the given needle.
+     *
+     * @param needle the bytes to search for, which must not be empty
+     */
+    public ByteMatcher(byte[] needle) {
+        assert needle != null && needle.length > 0 : "Needle should not be null or empty";
+
+        this.needle = needle.clone();
+        this.firstBytes = (needle[0] & 0xFFL) * ONES;
+        this.lastBytes = (needle[needle.length - 1] & 0xFFL) * ONES;
+    }
+
+    /**
+     * Returns the number of bytes in the needle.
+     *
+     * @return the length of the needle
+     */
+    public int getLength() {
+        return this.needle.length;
+    }
+
+    /**
+     * Returns whether the word-at-a-time search is used.
+     *
+     * @return true unless it was turned off with -Dduker.find.swar=false
+     */
+    public static boolean isSwarEnabled() {
+        return IS_SWAR_ENABLED;
+    }
+
+    /**
+     * Returns the position of the first occurrence of the needle in the given range of the haystack.
+     *
+     * @param haystack the bytes to search
+     * @param from     the start of the range, inclusive
+     * @param to       the end of the range, exclusive
+     * @return the position of the first occurrence, or -1 if there is none
+     */
+    public int indexOf(byte[] haystack, int from, int to) {
+        assert haystack != null : "Haystack should not be null";
+        assert from >= 0 && from <= to && to <= haystack.length : "Range should be within the haystack";
+
+        int length = this.needle.length;
+        int lastStart = to - length;
+        int start = from;
+        if (IS_SWAR_ENABLED) {
+            for (; start + Long.BYTES - 1 <= lastStart; start += Long.BYTES) {
+                long firstWord = (long) LONGS.get(haystack, start) ^ this.firstBytes;
+                long lastWord = (long) LONGS.get(haystack, start + length - 1) ^ this.lastBytes;
+                long candidates = findZeroBytes(firstWord | lastWord);
+                while (candidates != 0) {
+                    int candidate = start + (Long.numberOfTrailingZeros(candidates) >>> 3);
+                    if (matchesMiddle(haystack, candidate)) {
+                        return candidate;
+                    }
+                    candidates &= candidates - 1;
+                }
+            }
+        }
+        for (; start <= lastStart; start++) {
+            if (haystack[start] == this.needle[0] && haystack[start + length - 1] == this.needle[length - 1] &&
+                    matchesMiddle(haystack, start)) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether the needle occurs in the given range of the haystack.
+     *
+     * @param haystack the bytes to search
+     * @param from     the start of the range, inclusive
+     * @param to       the end of the range, exclusive
+     * @return true if the needle occurs in the range, false otherwise
+     */
+    public boolean isFoundIn(byte[] haystack, int from, int to) {
+        return indexOf(haystack, from, to) >= 0;
+    }
+
+    private boolean matchesMiddle(byte[] haystack, int start) {
+        int length = this.needle.length;
+        return length <= 2 || Arrays.equals(haystack, start + 1, start + length - 1, this.needle, 1, length - 1);
+    }
+
+    /**
+     * Returns a word with the high bit set in exactly the bytes of the given word that are zero.
+     */
+    private static long findZeroBytes(long word) {
+        return ~(((word & LOW_BITS) + LOW_BITS) | word | LOW_BITS);
+    }
+}
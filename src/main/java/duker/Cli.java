@@ -0,0 +1,80 @@
+package duker;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The Cli class runs Duker in the console without JavaFX, reading one command per line.
+ * Commands are read through a large buffer, and all output goes through a single buffered stream
+ * that is only flushed once no more input is waiting, after the last command and before a command
+ * blocks for input. An interactive user therefore sees each response at once, while a piped script
+ * is answered in large writes. Reminders are written and flushed as soon as they are due.
+ */
+public class Cli {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private Duker duker;
+    private BufferedReader reader;
+    private PrintStream writer;
+
+    /**
+     * Constructs a Cli that reads commands from the given input and writes responses to the given output.
+     *
+     * @param duker  the Duker instance to run commands on
+     * @param input  the stream of commands, one per line
+     * @param output the stream the responses are written to
+     */
+    public Cli(Duker duker, InputStream input, OutputStream output) {
+        assert duker != null : "Duker instance should not be null";
+        assert input != null && output != null : "Streams should not be null";
+
+        this.duker = duker;
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.writer = new PrintStream(new BufferedOutputStream(output, BUFFER_SIZE), false, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs Duker on the default task list, reading commands from standard input until "bye" or EOF.
+     *
+     * @param args the command-line arguments, which are ignored
+     * @throws IOException if standard input cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        try (Duker duker = new Duker()) {
+            new Cli(duker, System.in, System.out).run();
+        }
+    }
+
+    /**
+     * Greets the user, then runs commands until "bye" or the end of the input.
+     * The responses are printed to the buffered output, and System.out is left to the rest of the process.
+     *
+     * @throws IOException if the input cannot be read
+     */
+    public void run() throws IOException {
+        this.duker.setReminderDelivery(message -> {
+            this.writer.println(message);
+            this.writer.flush();
+        });
+        try {
+            this.writer.println(this.duker.getGreeting());
+            String command;
+            while (this.duker.isOnline() && (command = this.reader.readLine()) != null) {
+                this.duker.execute(command, this.writer);
+                if (!this.reader.ready()) {
+                    this.writer.flush();
+                }
+            }
+        } finally {
+            this.duker.setReminderDelivery(message -> { });
+            this.writer.flush();
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package duker;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A TaskStore that keeps tasks in primitive columns instead of Task objects.
+ * Types, flags, times and sequence numbers are stored in parallel arrays, with times as epoch minutes,
+ * and all descriptions share a single UTF-8 byte heap.
+ * Task objects are only created as views when a task is read.
+ * Tasks that cannot be encoded in columns, such as recurring tasks, are kept as objects
+ * in a side column that is only allocated once such a task is added.
+ */
+public class ColumnarTaskStore implements TaskStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_HEAP_CAPACITY = 256;
+    private static final int SCAN_RUN_LENGTH = 1 << 16;
+
+    private static final byte TYPE_TODO = 0;
+    private static final byte TYPE_DEADLINE = 1;
+    private static final byte TYPE_EVENT = 2;
+    private static final byte TYPE_BOXED = 3;
+
+    private static final byte FLAG_DONE = 1;
+    private static final byte FLAG_HIGH_PRIORITY = 2;
+
+    private byte[] types;
+    private byte[] flags;
+    private int[] startMinutes;
+    private int[] endMinutes;
+    private int[] descriptionOffsets;
+    private int[] descriptionLengths;
+    private long[] sequences;
+    private Task[] boxed;
+    private byte[] heap;
+    private int heapUsed;
+    private int heapGarbage;
+    private boolean isHeapInRowOrder;
+    private int size;
+
+    /**
+     * Constructs an empty ColumnarTaskStore.
+     */
+    public ColumnarTaskStore() {
+        this.types = new byte[INITIAL_CAPACITY];
+        this.flags = new byte[INITIAL_CAPACITY];
+        this.startMinutes = new int[INITIAL_CAPACITY];
+        this.endMinutes = new int[INITIAL_CAPACITY];
+        this.descriptionOffsets = new int[INITIAL_CAPACITY];
+        this.descriptionLengths = new int[INITIAL_CAPACITY];
+        this.sequences = new long[INITIAL_CAPACITY];
+        this.heap = new byte[INITIAL_HEAP_CAPACITY];
+        this.heapUsed = 0;
+        this.heapGarbage = 0;
+        this.isHeapInRowOrder = true;
+        this.size = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns a new Task view of the row at the specified index.
+     * Changes to the view are only kept once it is written back with set.
+     *
+     * @param index the index of the task
+     * @return a Task view of the row
+     */
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        if (this.types[index] == TYPE_BOXED) {
+            return this.boxed[index];
+        }
+
+        String description = new String(this.heap, this.descriptionOffsets[index],
+                this.descriptionLengths[index], StandardCharsets.UTF_8);
+        Task task;
+        if (this.types[index] == TYPE_TODO) {
+            task = new Todo(description);
+        } else if (this.types[index] == TYPE_DEADLINE) {
+            task = new Deadline(description, toDateTime(this.startMinutes[index]));
+        } else {
+            task = new Event(description, toDateTime(this.startMinutes[index]),
+                    toDateTime(this.endMinutes[index]));
+        }
+        if ((this.flags[index] & FLAG_DONE) != 0) {
+            task.markAsDone();
+        }
+        if ((this.flags[index] & FLAG_HIGH_PRIORITY) != 0) {
+            task.markAsHighPriority();
+        }
+        task.setSequence(this.sequences[index]);
+        return task;
+    }
+
+    @Override
+    public void add(Task task) {
+        assert task != null : "Task to add should not be null";
+
+        ensureCapacity(this.size + 1);
+        writeRow(this.size, task);
+        writeDescription(this.size, task.getDescription());
+        this.size += 1;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task task = get(index);
+        int tail = this.size - index - 1;
+
+        this.heapGarbage += this.descriptionLengths[index];
+        System.arraycopy(this.types, index + 1, this.types, index, tail);
+        System.arraycopy(this.flags, index + 1, this.flags, index, tail);
+        System.arraycopy(this.startMinutes, index + 1, this.startMinutes, index, tail);
+        System.arraycopy(this.endMinutes, index + 1, this.endMinutes, index, tail);
+        System.arraycopy(this.descriptionOffsets, index + 1, this.descriptionOffsets, index, tail);
+        System.arraycopy(this.descriptionLengths, index + 1, this.descriptionLengths, index, tail);
+        System.arraycopy(this.sequences, index + 1, this.sequences, index, tail);
+        if (this.boxed != null) {
+            System.arraycopy(this.boxed, index + 1, this.boxed, index, tail);
+            this.boxed[this.size - 1] = null;
+        }
+        this.size -= 1;
+
+        if (this.heapGarbage > this.heapUsed / 2) {
+            compactHeap();
+        }
+        return task;
+    }
+
+    @Override
+    public void set(int index, Task task) {
+        assert task != null : "Task to set should not be null";
+        checkIndex(index);
+
+        writeRow(index, task);
+        byte[] bytes = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        int offset = this.descriptionOffsets[index];
+        int length = this.descriptionLengths[index];
+        if (!Arrays.equals(this.heap, offset, offset + length, bytes, 0, bytes.length)) {
+            this.heapGarbage += length;
+            appendDescription(index, bytes);
+            this.isHeapInRowOrder &= index == this.size - 1;
+        }
+    }
+
+    /**
+     * Returns a copy of the tasks as an ArrayList of views.
+     *
+     * @return an ArrayList containing a view of every task
+     */
+    @Override
+    public ArrayList<Task> toArrayList() {
+        ArrayList<Task> tasks = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            tasks.add(get(i));
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns a read-only live view that creates a Task view for each element as it is read.
+     *
+     * @return a read-only view of the tasks
+     */
+    @Override
+    public List<Task> snapshot() {
+        return new ColumnView();
+    }
+
+    /**
+     * Returns the tasks whose description contains the keyword, in list order.
+     * The keyword is matched against the UTF-8 bytes in the description heap, so a Task view is only
+     * created for the tasks that match. While descriptions lie in the heap in row order, each run of
+     * rows is searched as one stretch of the heap and each match is mapped to the row that holds it.
+     * Long lists are split into runs that are searched in parallel.
+     *
+     * @param keyword the text to search for
+     * @return views of the matching tasks
+     */
+    @Override
+    public ArrayList<Task> findContaining(String keyword) {
+        assert keyword != null && !keyword.isEmpty() : "Keyword should not be null or empty";
+
+        ByteMatcher matcher = new ByteMatcher(keyword.getBytes(StandardCharsets.UTF_8));
+        if (!ParallelScan.isParallel(this.size)) {
+            ArrayList<Task> tasks = new ArrayList<>();
+            findRows(matcher, 0, this.size, tasks);
+            return tasks;
+        }
+        Metrics.increment("scan.parallel");
+        int runCount = (this.size + SCAN_RUN_LENGTH - 1) / SCAN_RUN_LENGTH;
+        return IntStream.range(0, runCount).parallel()
+                .mapToObj(run -> {
+                    ArrayList<Task> tasks = new ArrayList<>();
+                    findRows(matcher, run * SCAN_RUN_LENGTH, Math.min(this.size, (run + 1) * SCAN_RUN_LENGTH),
+                            tasks);
+                    return tasks;
+                })
+                .flatMap(List::stream)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private void findRows(ByteMatcher matcher, int fromRow, int toRow, ArrayList<Task> tasks) {
+        if (!this.isHeapInRowOrder) {
+            for (int row = fromRow; row < toRow; row++) {
+                int offset = this.descriptionOffsets[row];
+                if (matcher.isFoundIn(this.heap, offset, offset + this.descriptionLengths[row])) {
+                    tasks.add(get(row));
+                }
+            }
+            return;
+        }
+        if (fromRow >= toRow) {
+            return;
+        }
+
+        int heapEnd = this.descriptionOffsets[toRow - 1] + this.descriptionLengths[toRow - 1];
+        int row = fromRow;
+        int position = matcher.indexOf(this.heap, this.descriptionOffsets[fromRow], heapEnd);
+        while (position >= 0) {
+            while (this.descriptionOffsets[row] + this.descriptionLengths[row] <= position) {
+                row += 1;
+            }
+            int rowEnd = this.descriptionOffsets[row] + this.descriptionLengths[row];
+            int next = position + 1;
+            if (position >= this.descriptionOffsets[row] && position + matcher.getLength() <= rowEnd) {
+                tasks.add(get(row));
+                next = rowEnd;
+            }
+            if (next >= heapEnd) {
+                return;
+            }
+            position = matcher.indexOf(this.heap, next, heapEnd);
+        }
+    }
+
+    /**
+     * Returns false, since a new Task view is created on every read.
+     *
+     * @return false
+     */
+    @Override
+    public boolean keepsTaskIdentity() {
+        return false;
+    }
+
+    /**
+     * Returns an estimate of the bytes held by the columns and the description heap,
+     * excluding array headers.
+     *
+     * @return the estimated footprint in bytes
+     */
+    public long getFootprintBytes() {
+        long perRow = 2 * Byte.BYTES + 4 * Integer.BYTES + Long.BYTES;
+        long boxedBytes = this.boxed == null ? 0 : (long) Integer.BYTES * this.boxed.length;
+        return perRow * this.types.length + boxedBytes + this.heap.length;
+    }
+
+    private void writeRow(int index, Task task) {
+        this.sequences[index] = task.getSequence();
+        if (task instanceof Recurring) {
+            if (this.boxed == null) {
+                this.boxed = new Task[this.types.length];
+            }
+            this.types[index] = TYPE_BOXED;
+            this.flags[index] = 0;
+            this.boxed[index] = task;
+            return;
+        }
+        if (this.boxed != null) {
+            this.boxed[index] = null;
+        }
+
+        byte flag = 0;
+        if (task.isDone()) {
+            flag |= FLAG_DONE;
+        }
+        if (task.getPriority() == 1) {
+            flag |= FLAG_HIGH_PRIORITY;
+        }
+        this.flags[index] = flag;
+
+        if (task instanceof Deadline) {
+            this.types[index] = TYPE_DEADLINE;
+            this.startMinutes[index] = toEpochMinutes(((Deadline) task).getBy());
+            this.endMinutes[index] = 0;
+        } else if (task instanceof Event) {
+            this.types[index] = TYPE_EVENT;
+            this.startMinutes[index] = toEpochMinutes(((Event) task).getStart());
+            this.endMinutes[index] = toEpochMinutes(((Event) task).getEnd());
+        } else {
+            this.types[index] = TYPE_TODO;
+            this.startMinutes[index] = 0;
+            this.endMinutes[index] = 0;
+        }
+    }
+
+    private void writeDescription(int index, String description) {
+        appendDescription(index, description.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void appendDescription(int index, byte[] bytes) {
+        if (this.heapUsed + bytes.length > this.heap.length) {
+            int newCapacity = Math.max(this.heap.length + (this.heap.length >> 1), this.heapUsed + bytes.length);
+            this.heap = Arrays.copyOf(this.heap, newCapacity);
+        }
+        System.arraycopy(bytes, 0, this.heap, this.heapUsed, bytes.length);
+        this.descriptionOffsets[index] = this.heapUsed;
+        this.descriptionLengths[index] = bytes.length;
+        this.heapUsed += bytes.length;
+    }
+
+    private void compactHeap() {
+        IndexRebuildEvent event = new IndexRebuildEvent();
+        event.begin();
+        byte[] compacted = new byte[Math.max(INITIAL_HEAP_CAPACITY, this.heapUsed - this.heapGarbage)];
+        int used = 0;
+        for (int i = 0; i < this.size; i++) {
+            int length = this.descriptionLengths[i];
+            System.arraycopy(this.heap, this.descriptionOffsets[i], compacted, used, length);
+            this.descriptionOffsets[i] = used;
+            used += length;
+        }
+        this.heap = compacted;
+        this.heapUsed = used;
+        this.heapGarbage = 0;
+        this.isHeapInRowOrder = true;
+        event.end();
+        if (event.shouldCommit()) {
+            event.index = "columnar.descriptions";
+            event.taskCount = this.size;
+            event.commit();
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= this.types.length) {
+            return;
+        }
+        int newCapacity = Math.max(this.types.length + (this.types.length >> 1), required);
+        this.types = Arrays.copyOf(this.types, newCapacity);
+        this.flags = Arrays.copyOf(this.flags, newCapacity);
+        this.startMinutes = Arrays.copyOf(this.startMinutes, newCapacity);
+        this.endMinutes = Arrays.copyOf(this.endMinutes, newCapacity);
+        this.descriptionOffsets = Arrays.copyOf(this.descriptionOffsets, newCapacity);
+        this.descriptionLengths = Arrays.copyOf(this.descriptionLengths, newCapacity);
+        this.sequences = Arrays.copyOf(this.sequences, newCapacity);
+        if (this.boxed != null) {
+            this.boxed = Arrays.copyOf(this.boxed, newCapacity);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + this.size);
+        }
+    }
+
+    private static int toEpochMinutes(LocalDateTime dateTime) {
+        long minutes = dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+        assert minutes >= Integer.MIN_VALUE && minutes <= Integer.MAX_VALUE : "Date-time out of range";
+        return (int) minutes;
+    }
+
+    private static LocalDateTime toDateTime(int epochMinutes) {
+        return LocalDateTime.ofEpochSecond(epochMinutes * 60L, 0, ZoneOffset.UTC);
+    }
+
+    private class ColumnView extends AbstractList<Task> implements RandomAccess {
+
+        @Override
+        public Task get(int index) {
+            return ColumnarTaskStore.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return ColumnarTaskStore.this.size;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package duker;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event emitted for every command handled by Duker.getResponse.
+ */
+@Name("duker.Command")
+@Label("Duker Command")
+@Category("Duker")
+@Description("A command processed by Duker, from parsing to the captured response")
+public class CommandEvent extends Event {
+
+    @Label("Command")
+    @Description("The first word of the command")
+    String command;
+
+    @Label("Task Count")
+    @Description("The number of tasks in the list after the command")
+    int taskCount;
+}
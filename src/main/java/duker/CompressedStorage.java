@@ -0,0 +1,524 @@
+package duker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A Storage that keeps tasks in Deflate-compressed blocks of up to 256 tasks instead of one line per task.
+ * Each block holds the same lines as the text format. The blocks are appended to a data file and
+ * listed in order by a small index file, which is replaced atomically after every change.
+ * Changing a task rewrites only its block: a new version of the block is appended and the old one
+ * becomes garbage, which is reclaimed by copying the live blocks to a new data file once it makes up
+ * more than half of the data file.
+ * Blocks are decompressed and parsed in parallel when the file is loaded.
+ * If there is no index yet, the tasks are imported from the text file with the same name.
+ */
+public class CompressedStorage extends Storage {
+
+    private static final int BLOCK_TASKS = 256;
+    private static final int INDEX_MAGIC = 0x444b5a31;
+
+    private String dataDir;
+    private String filePath;
+    private File indexFile;
+    private long generation;
+    private ArrayList<Block> blocks;
+    private long garbageBytes;
+
+    /**
+     * Constructs a new CompressedStorage for the specified data directory and file name.
+     * The index is stored as the file name followed by ".index", and the blocks in a file named
+     * after it that changes whenever the blocks are compacted.
+     *
+     * @param dataDir  the directory where the data files are stored
+     * @param filePath the name of the text data file the compressed files are named after
+     */
+    public CompressedStorage(String dataDir, String filePath) {
+        super(dataDir, filePath);
+        this.dataDir = dataDir;
+        this.filePath = filePath;
+        this.indexFile = new File(dataDir + filePath + ".index");
+        this.generation = 0;
+        this.blocks = new ArrayList<>();
+        this.garbageBytes = 0;
+    }
+
+    /**
+     * Loads tasks from the compressed blocks into the given TaskList, decompressing the blocks in parallel.
+     * If there is no index yet, the tasks are loaded from the text file and written as blocks.
+     *
+     * @param taskList the TaskList to populate with tasks
+     * @param parser   the Parser to use for converting strings to tasks
+     */
+    @Override
+    public void loadFile(TaskList taskList, Parser parser) {
+        assert taskList != null : "TaskList should not be null";
+        assert parser != null : "Parser should not be null";
+
+        if (!this.indexFile.exists()) {
+            importTextFile(taskList, parser);
+            return;
+        }
+
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
+        long bytesRead = 0;
+        try {
+            readIndex();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(getDataFile(this.generation).toPath())) {
+            List<List<Task>> decoded = this.blocks.parallelStream()
+                    .map(block -> parseBlock(channel, block, parser))
+                    .collect(Collectors.toList());
+            for (List<Task> tasks : decoded) {
+                for (Task task : tasks) {
+                    taskList.load(task);
+                }
+            }
+            bytesRead = channel.size() + this.indexFile.length();
+            this.garbageBytes = channel.size() - getLiveBytes();
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println(e.getMessage());
+        }
+        recordOperation(event, "load", bytesRead, 0, startTime);
+    }
+
+    /**
+     * Does nothing, since other programs are not expected to append to compressed blocks.
+     *
+     * @param taskList the TaskList that would receive the appended tasks
+     * @param parser   the Parser that would convert strings to tasks
+     */
+    @Override
+    public void loadAppended(TaskList taskList, Parser parser) {
+    }
+
+    /**
+     * Adds a task to the last block, or to a new block if the last one is full.
+     *
+     * @param task the Task to write to the file
+     */
+    @Override
+    public void writeToFile(Task task) {
+        assert task != null : "Task should not be null";
+
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
+        long bytesWritten = 0;
+        try {
+            int last = this.blocks.size() - 1;
+            if (last < 0 || this.blocks.get(last).taskCount >= BLOCK_TASKS) {
+                this.blocks.add(appendBlock(List.of(convertTaskToString(task))));
+                bytesWritten = this.blocks.get(last + 1).compressedLength;
+            } else {
+                List<String> lines = readLines(this.blocks.get(last));
+                lines.add(convertTaskToString(task));
+                bytesWritten = replaceBlock(last, lines);
+            }
+            bytesWritten += writeIndex();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        recordOperation(event, "append", 0, bytesWritten, startTime);
+        compactIfNeeded();
+    }
+
+    /**
+     * Rewrites the block holding the task at the given index.
+     *
+     * @param taskList the TaskList containing tasks
+     * @param index    the index of the task to replace in the file
+     */
+    @Override
+    public void replaceLineInFile(TaskList taskList, int index) {
+        assert taskList != null : "TaskList should not be null";
+        assert index >= 0 && index < taskList.getSize() : "Index out of bounds";
+
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
+        long bytesRead = 0;
+        long bytesWritten = 0;
+        try {
+            int[] position = findBlock(index);
+            Block block = this.blocks.get(position[0]);
+            List<String> lines = readLines(block);
+            lines.set(position[1], convertTaskToString(taskList.getTask(index)));
+            bytesRead = block.compressedLength;
+            bytesWritten = replaceBlock(position[0], lines) + writeIndex();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        Metrics.increment("storage.blocks.rewritten");
+        recordOperation(event, "block", bytesRead, bytesWritten, startTime);
+        compactIfNeeded();
+    }
+
+    /**
+     * Rewrites the block holding the task at the given index without it,
+     * or drops the block if it held only that task.
+     *
+     * @param index the index of the task to delete from the file
+     */
+    @Override
+    public void deleteLineFromFile(int index) {
+        assert index >= 0 : "Index should be greater than or equal to zero";
+
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
+        long bytesRead = 0;
+        long bytesWritten = 0;
+        try {
+            int[] position = findBlock(index);
+            Block block = this.blocks.get(position[0]);
+            List<String> lines = readLines(block);
+            lines.remove(position[1]);
+            bytesRead = block.compressedLength;
+            if (lines.isEmpty()) {
+                this.blocks.remove(position[0]);
+                this.garbageBytes += block.compressedLength;
+            } else {
+                bytesWritten = replaceBlock(position[0], lines);
+            }
+            bytesWritten += writeIndex();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        Metrics.increment("storage.blocks.rewritten");
+        recordOperation(event, "block", bytesRead, bytesWritten, startTime);
+        compactIfNeeded();
+    }
+
+    /**
+     * Does nothing, as loading the compressed file never reads a snapshot and already parses its
+     * blocks in parallel.
+     *
+     * @param taskList the TaskList containing tasks
+     */
+    @Override
+    public void writeSnapshot(TaskList taskList) {
+    }
+
+    /**
+     * Writes every task in the task list to the data file of the next generation as full blocks,
+     * then switches the index to it and deletes the old data file.
+     *
+     * @param taskList the TaskList containing tasks
+     */
+    @Override
+    public void rewriteFile(TaskList taskList) {
+        assert taskList != null : "TaskList should not be null";
+
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
+        long bytesWritten = 0;
+        long oldGeneration = this.generation;
+        ArrayList<Block> oldBlocks = this.blocks;
+        long oldGarbageBytes = this.garbageBytes;
+        try {
+            this.generation = oldGeneration + 1;
+            bytesWritten = writeBlocks(taskList.snapshot()) + writeIndex();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            this.generation = oldGeneration;
+            this.blocks = oldBlocks;
+            this.garbageBytes = oldGarbageBytes;
+            return;
+        }
+        boolean isDeleted = getDataFile(oldGeneration).delete();
+        recordOperation(event, "rewrite", 0, bytesWritten, startTime);
+    }
+
+    private void importTextFile(TaskList taskList, Parser parser) {
+        File textFile = new File(this.dataDir + this.filePath);
+        if (textFile.exists()) {
+            super.loadFile(taskList, parser);
+        } else {
+            boolean isDirCreated = new File(this.dataDir).mkdirs();
+        }
+
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
+        long bytesWritten = 0;
+        try {
+            bytesWritten = writeBlocks(taskList.snapshot()) + writeIndex();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        recordOperation(event, "import", 0, bytesWritten, startTime);
+    }
+
+    /**
+     * Writes the tasks as full blocks to a new data file for the current generation,
+     * and returns the bytes written.
+     */
+    private long writeBlocks(List<Task> tasks) throws IOException {
+        File dataFile = getDataFile(this.generation);
+        boolean isStaleDeleted = dataFile.delete();
+        boolean isDataFileCreated = dataFile.createNewFile();
+        this.blocks = new ArrayList<>();
+        for (int start = 0; start < tasks.size(); start += BLOCK_TASKS) {
+            List<String> lines = new ArrayList<>();
+            for (Task task : tasks.subList(start, Math.min(start + BLOCK_TASKS, tasks.size()))) {
+                lines.add(convertTaskToString(task));
+            }
+            this.blocks.add(appendBlock(lines));
+        }
+        this.garbageBytes = 0;
+        return getLiveBytes();
+    }
+
+    private File getDataFile(long generation) {
+        return new File(this.dataDir + this.filePath + "." + generation + ".blocks");
+    }
+
+    private long getLiveBytes() {
+        long liveBytes = 0;
+        for (Block block : this.blocks) {
+            liveBytes += block.compressedLength;
+        }
+        return liveBytes;
+    }
+
+    /**
+     * Returns the position of the block holding the task at the given index,
+     * and the index of the task within that block.
+     */
+    private int[] findBlock(int index) {
+        int remaining = index;
+        for (int i = 0; i < this.blocks.size(); i++) {
+            int taskCount = this.blocks.get(i).taskCount;
+            if (remaining < taskCount) {
+                return new int[] {i, remaining};
+            }
+            remaining -= taskCount;
+        }
+        throw new IndexOutOfBoundsException("Index " + index + " is past the last block");
+    }
+
+    /**
+     * Appends a new version of the block at the given position and returns the bytes written.
+     */
+    private long replaceBlock(int position, List<String> lines) throws IOException {
+        Block block = appendBlock(lines);
+        this.garbageBytes += this.blocks.get(position).compressedLength;
+        this.blocks.set(position, block);
+        return block.compressedLength;
+    }
+
+    private Block appendBlock(List<String> lines) throws IOException {
+        byte[] raw = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = compress(raw);
+        try (FileChannel channel = FileChannel.open(getDataFile(this.generation).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long offset = channel.size();
+            ByteBuffer buffer = ByteBuffer.wrap(compressed);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, offset + buffer.position());
+            }
+            force(channel);
+            return new Block(offset, compressed.length, raw.length, lines.size());
+        }
+    }
+
+    private List<String> readLines(Block block) throws IOException {
+        try (FileChannel channel = FileChannel.open(getDataFile(this.generation).toPath())) {
+            return readLines(channel, block);
+        }
+    }
+
+    private static List<String> readLines(FileChannel channel, Block block) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(block.compressedLength);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, block.offset + buffer.position()) < 0) {
+                throw new IOException("Block at " + block.offset + " is past the end of the data file");
+            }
+        }
+        String text = new String(decompress(buffer.array(), block.rawLength), StandardCharsets.UTF_8);
+        return new ArrayList<>(Arrays.asList(text.split("\n", -1)));
+    }
+
+    private static List<Task> parseBlock(FileChannel channel, Block block, Parser parser) {
+        try {
+            List<String> lines = readLines(channel, block);
+            List<Task> tasks = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                tasks.add(parser.convertStringToTask(line));
+            }
+            return tasks;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readIndex() throws IOException {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(this.indexFile)))) {
+            if (input.readInt() != INDEX_MAGIC) {
+                throw new IOException("Not a Duker index file: " + this.indexFile);
+            }
+            this.generation = input.readLong();
+            int blockCount = input.readInt();
+            this.blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                this.blocks.add(new Block(input.readLong(), input.readInt(), input.readInt(), input.readInt()));
+            }
+        }
+    }
+
+    /**
+     * Replaces the index file with one listing the current blocks, and returns the bytes written.
+     */
+    private long writeIndex() throws IOException {
+        File tempFile = new File(this.dataDir + this.filePath + ".index.tmp");
+        try (FileOutputStream file = new FileOutputStream(tempFile);
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(file))) {
+            output.writeInt(INDEX_MAGIC);
+            output.writeLong(this.generation);
+            output.writeInt(this.blocks.size());
+            for (Block block : this.blocks) {
+                output.writeLong(block.offset);
+                output.writeInt(block.compressedLength);
+                output.writeInt(block.rawLength);
+                output.writeInt(block.taskCount);
+            }
+            output.flush();
+            force(file.getChannel());
+        }
+        Files.move(tempFile.toPath(), this.indexFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return this.indexFile.length();
+    }
+
+    /**
+     * Copies the live blocks to the data file of the next generation once old versions of blocks
+     * make up more than half of the current one. The index is switched to the new file before
+     * the old file is deleted, so the blocks can be read at every point in between.
+     */
+    private void compactIfNeeded() {
+        if (this.garbageBytes <= getLiveBytes()) {
+            return;
+        }
+
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
+        long bytesRead = 0;
+        long bytesWritten = 0;
+        long oldGeneration = this.generation;
+        ArrayList<Block> oldBlocks = this.blocks;
+        try (FileChannel source = FileChannel.open(getDataFile(oldGeneration).toPath());
+             FileChannel target = FileChannel.open(getDataFile(oldGeneration + 1).toPath(),
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ArrayList<Block> compacted = new ArrayList<>(oldBlocks.size());
+            long offset = 0;
+            for (Block block : oldBlocks) {
+                long copied = 0;
+                while (copied < block.compressedLength) {
+                    copied += source.transferTo(block.offset + copied, block.compressedLength - copied, target);
+                }
+                compacted.add(new Block(offset, block.compressedLength, block.rawLength, block.taskCount));
+                offset += block.compressedLength;
+            }
+            force(target);
+            bytesRead = source.size();
+            bytesWritten = offset;
+            this.generation = oldGeneration + 1;
+            this.blocks = compacted;
+            bytesWritten += writeIndex();
+            this.garbageBytes = 0;
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            this.generation = oldGeneration;
+            this.blocks = oldBlocks;
+            return;
+        }
+        boolean isDeleted = getDataFile(oldGeneration).delete();
+        Metrics.increment("storage.compactions");
+        recordOperation(event, "compact", bytesRead, bytesWritten, startTime);
+    }
+
+    private static byte[] compress(byte[] raw) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(raw.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                output.write(buffer, 0, count);
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int inflated = 0;
+            while (inflated < rawLength) {
+                int count = inflater.inflate(raw, inflated, rawLength - inflated);
+                if (count == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("Compressed block is shorter than expected");
+                }
+                inflated += count;
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Compressed block is corrupted: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * The location and size of one compressed block in the data file.
+     */
+    private static class Block {
+        private final long offset;
+        private final int compressedLength;
+        private final int rawLength;
+        private final int taskCount;
+
+        private Block(long offset, int compressedLength, int rawLength, int taskCount) {
+            this.offset = offset;
+            this.compressedLength = compressedLength;
+            this.rawLength = rawLength;
+            this.taskCount = taskCount;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package duker;
+
+import java.util.HashMap;
+
+/**
+ * The DescriptionPool class deduplicates task descriptions so that tasks with the
+ * same description share a single String instance.
+ * The pool is bounded; once it is full, new descriptions are returned as they are.
+ */
+public class DescriptionPool {
+
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int STRING_HEADER_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private HashMap<String, String> pool;
+    private int capacity;
+    private long lookups;
+    private long hits;
+    private long bytesSaved;
+
+    /**
+     * Constructs a DescriptionPool with the default capacity.
+     */
+    public DescriptionPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a DescriptionPool that holds at most the given number of distinct descriptions.
+     *
+     * @param capacity the maximum number of distinct descriptions to keep
+     */
+    public DescriptionPool(int capacity) {
+        assert capacity > 0 : "Capacity should be positive";
+
+        this.pool = new HashMap<>();
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the pooled instance of the description, adding it to the pool if there is room.
+     *
+     * @param description the description to deduplicate
+     * @return a String equal to the description, shared with earlier equal descriptions
+     */
+    public synchronized String intern(String description) {
+        assert description != null : "Description should not be null";
+
+        this.lookups += 1;
+        String pooled = this.pool.get(description);
+        if (pooled != null) {
+            this.hits += 1;
+            this.bytesSaved += estimateBytes(description);
+            return pooled;
+        }
+        if (this.pool.size() < this.capacity) {
+            this.pool.put(description, description);
+        }
+        return description;
+    }
+
+    /**
+     * Returns the number of distinct descriptions in the pool.
+     *
+     * @return the number of pooled descriptions
+     */
+    public synchronized int getSize() {
+        return this.pool.size();
+    }
+
+    /**
+     * Returns the estimated number of bytes saved by sharing descriptions.
+     *
+     * @return the estimated bytes saved
+     */
+    public synchronized long getBytesSaved() {
+        return this.bytesSaved;
+    }
+
+    /**
+     * Returns a report of how many descriptions were shared and the bytes saved.
+     *
+     * @return the report of the pool's effectiveness
+     */
+    public synchronized String getReport() {
+        return "Description pool: " + this.pool.size() + " distinct, " +
+                this.hits + "/" + this.lookups + " shared, ~" +
+                this.bytesSaved + " bytes saved";
+    }
+
+    private static long estimateBytes(String description) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < description.length(); i++) {
+            if (description.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        long arrayBytes = ARRAY_HEADER_BYTES + (long) description.length() * bytesPerChar;
+        return STRING_HEADER_BYTES + ((arrayBytes + 7) & ~7L);
+    }
+}
@@ -2,54 +2,226 @@ package duker;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * The Duker class represents the main entry point for the Duker application.
  * It initializes the necessary components and handles the main interaction loop.
+ * Tasks are kept in named workspaces, each with its own data file in the data directory, and commands
+ * run on the current workspace, which is changed with the "use" command. A workspace is only loaded
+ * when it is first used, and the least recently used workspaces are closed once more than
+ * "duker.workspaces.max" (4 by default) are loaded, so memory stays bounded however many there are.
  */
-public class Duker {
+public class Duker implements AutoCloseable {
+
+    private static final int DEFAULT_MAX_WORKSPACES = 4;
 
     private Ui ui;
-    private Storage storage;
     private Parser parser;
-    private TaskList taskList;
+    private String dataDir;
+    private int maxWorkspaces;
+    private LinkedHashMap<String, Workspace> workspaces;
+    private volatile Workspace current;
+    private ReentrantLock commandLock;
+    private volatile Consumer<String> reminderDelivery;
     private Boolean isOnline;
 
     /**
-     * Constructs a new Duker instance.
+     * Constructs a new Duker instance backed by data/duker.txt.
      * Initializes the user interface, storage, parser, and task list.
      */
     public Duker() {
+        this("data/", "duker.txt");
+    }
+
+    /**
+     * Constructs a new Duker instance whose first workspace is backed by the given data file.
+     * The workspace is named after the file without its ".txt" extension, and other workspaces are
+     * kept next to it in the same directory. See Workspace for the properties that configure them.
+     * The metrics are published over JMX when "duker.jmx" is set to true.
+     *
+     * @param dataDir  the directory where the data file is stored
+     * @param filePath the name of the data file
+     */
+    public Duker(String dataDir, String filePath) {
         this.ui = new Ui(this);
-        this.storage = new Storage("data/", "duker.txt");
         this.parser = new Parser();
-        this.taskList = new TaskList();
-        this.storage.loadFile(this.taskList, this.parser);
+        this.dataDir = dataDir;
+        this.maxWorkspaces = Math.max(1, Integer.getInteger("duker.workspaces.max", DEFAULT_MAX_WORKSPACES));
+        this.workspaces = new LinkedHashMap<>(16, 0.75f, true);
+        this.commandLock = new ReentrantLock();
+        this.reminderDelivery = message -> { };
+        String name = filePath.endsWith(".txt") ? filePath.substring(0, filePath.length() - 4) : filePath;
+        this.current = new Workspace(name, dataDir, filePath, this.parser, this::deliverReminder);
+        this.workspaces.put(name, this.current);
+        Metrics.registerGauges("tasks", () -> this.current.getTaskList().getStatistics().toMap());
+        Metrics.registerGauges("workspaces", () -> Map.of("loaded", (long) this.workspaces.size()));
         this.isOnline = true;
+        if (Boolean.getBoolean("duker.jmx")) {
+            Metrics.registerMBean();
+        }
+    }
+
+    /**
+     * Makes the named workspace the current one, loading it from its data file if it is not loaded,
+     * and creating the file if there is none. If more workspaces are then loaded than allowed, the
+     * least recently used ones are closed, which saves them and frees their tasks.
+     *
+     * @param name the name of the workspace
+     * @return the workspace, now the current one
+     * @throws DukerException if the name is not a valid workspace name
+     */
+    public Workspace useWorkspace(String name) throws DukerException {
+        if (!Workspace.isValidName(name)) {
+            throw new DukerException("A workspace name should be 1 to 64 letters, digits, '-' or '_'.");
+        }
+
+        this.commandLock.lock();
+        try {
+            Workspace workspace = this.workspaces.get(name);
+            if (workspace == null) {
+                workspace = new Workspace(name, this.dataDir, Workspace.getFileName(name), this.parser,
+                        this::deliverReminder);
+                this.workspaces.put(name, workspace);
+            }
+            this.current = workspace;
+            evictIdleWorkspaces();
+            return workspace;
+        } finally {
+            this.commandLock.unlock();
+        }
+    }
+
+    /**
+     * Closes the least recently used workspaces until no more are loaded than allowed.
+     * The current workspace is the most recently used, so it is never closed. Neither is a workspace whose
+     * task list this thread has locked, since closing it waits for its watcher, which may be waiting for
+     * that lock; it is closed by a later eviction instead.
+     */
+    private void evictIdleWorkspaces() {
+        Iterator<Workspace> leastRecentFirst = this.workspaces.values().iterator();
+        while (this.workspaces.size() > this.maxWorkspaces && leastRecentFirst.hasNext()) {
+            Workspace workspace = leastRecentFirst.next();
+            if (workspace == this.current || workspace.getTaskList().isLockedByCurrentThread()) {
+                continue;
+            }
+            leastRecentFirst.remove();
+            workspace.close();
+            Metrics.increment("workspace.evicted");
+        }
+    }
+
+    /**
+     * Returns the workspace that commands run on.
+     *
+     * @return the current workspace
+     */
+    public Workspace getCurrentWorkspace() {
+        return this.current;
+    }
+
+    /**
+     * Returns the names of the loaded workspaces, from the least to the most recently used.
+     *
+     * @return the names of the loaded workspaces
+     */
+    public List<String> getLoadedWorkspaces() {
+        this.commandLock.lock();
+        try {
+            return new ArrayList<>(this.workspaces.keySet());
+        } finally {
+            this.commandLock.unlock();
+        }
+    }
+
+    private void deliverReminder(String message) {
+        this.reminderDelivery.accept(message);
     }
 
     /**
      * Processes a command by parsing it and executing the appropriate actions.
-     * Captures and returns the output produced during the command execution.
+     * Captures and returns the output of the command, which is printed to a stream of its own, so that
+     * other requests and background threads printing to System.out meanwhile do not end up in it.
      *
      * @param command The command to be processed.
      * @return The output produced during the execution of the command.
      */
     public String getResponse(String command) {
-        PrintStream originalOut = System.out;
-
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         PrintStream ps = new PrintStream(outputStream);
 
-        System.setOut(ps);
+        execute(command, ps);
+        ps.flush();
+
+        return outputStream.toString();
+    }
+
+    /**
+     * Processes a command by parsing it and executing the appropriate actions,
+     * printing its output to System.out.
+     *
+     * @param command The command to be processed.
+     */
+    public void execute(String command) {
+        execute(command, System.out);
+    }
+
+    /**
+     * Processes a command by parsing it and executing the appropriate actions,
+     * printing its output to the given stream.
+     * Commands run while no other change can be made to the current task list, except "use", which
+     * may close the workspace it leaves and so must not hold its lock, and commands that only read a list
+     * that can be read while it is being changed, which run without waiting for other commands.
+     *
+     * @param command The command to be processed.
+     * @param out     The stream the output of the command is printed to.
+     */
+    public void execute(String command, PrintStream out) {
+        assert out != null : "Output stream should not be null";
+
+        Ui commandUi = new Ui(this, out);
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        Workspace workspace = this.current;
+        if (Parser.isReadOnly(command) && workspace.getTaskList().isReadableDuringChanges()) {
+            this.parser.parseCommand(command, workspace.getTaskList(), workspace.getStorage(), commandUi);
+        } else {
+            workspace = executeLocked(command, commandUi);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.command = command.split(" ", 2)[0];
+            event.taskCount = workspace.getTaskList().getSize();
+            event.commit();
+        }
+    }
 
+    /**
+     * Runs a command on the current workspace while no other command runs, and while no other change can
+     * be made to its task list unless the command is "use".
+     *
+     * @return the workspace the command ran on
+     */
+    private Workspace executeLocked(String command, Ui commandUi) {
+        this.commandLock.lock();
+        Workspace workspace = this.current;
         try {
-            this.parser.parseCommand(command, this.taskList, this.storage, this.ui);
+            TaskList taskList = workspace.getTaskList();
+            if (command.split(" ", 2)[0].equals("use")) {
+                this.parser.parseCommand(command, taskList, workspace.getStorage(), commandUi);
+            } else {
+                taskList.runWrite(() -> this.parser.parseCommand(command, taskList, workspace.getStorage(), commandUi));
+            }
+            return workspace;
         } finally {
-            System.setOut(originalOut);
+            this.commandLock.unlock();
         }
-
-        return outputStream.toString();
     }
 
     /**
@@ -61,6 +233,18 @@ public class Duker {
         return isOnline;
     }
 
+    /**
+     * Sets where reminders of upcoming deadlines and events are shown.
+     * The delivery is called on the reminder thread, not on the thread that runs commands.
+     *
+     * @param delivery the action that shows a reminder to the user
+     */
+    public void setReminderDelivery(Consumer<String> delivery) {
+        assert delivery != null : "Delivery should not be null";
+
+        this.reminderDelivery = delivery;
+    }
+
     /**
      * Gets the greeting message from the user interface.
      *
@@ -77,4 +261,21 @@ public class Duker {
         this.isOnline = false;
     }
 
-}
\ No newline at end of file
+    /**
+     * Closes every loaded workspace, which stops picking up changes made to their data files by other
+     * programs and sending reminders, then saves snapshots of them for the next start if snapshots are turned on.
+     */
+    @Override
+    public void close() {
+        this.commandLock.lock();
+        try {
+            for (Workspace workspace : this.workspaces.values()) {
+                workspace.close();
+            }
+            this.workspaces.clear();
+        } finally {
+            this.commandLock.unlock();
+        }
+    }
+
+}
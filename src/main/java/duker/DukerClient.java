@@ -0,0 +1,74 @@
+package duker;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The DukerClient class sends commands to a DukerServer and reads back the responses.
+ */
+public class DukerClient implements Closeable {
+
+    private SocketChannel channel;
+    private BufferedReader reader;
+    private BufferedWriter writer;
+
+    /**
+     * Connects to a DukerServer at the given address.
+     *
+     * @param address the address the server is listening on
+     * @throws IOException if the connection cannot be opened
+     */
+    public DukerClient(SocketAddress address) throws IOException {
+        assert address != null : "Address should not be null";
+
+        this.channel = SocketChannel.open(address);
+        if (!(address instanceof UnixDomainSocketAddress)) {
+            this.channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        }
+        this.reader = new BufferedReader(Channels.newReader(this.channel, StandardCharsets.UTF_8));
+        this.writer = new BufferedWriter(Channels.newWriter(this.channel, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends a command and waits for its response.
+     *
+     * @param command the command to send, without a line break
+     * @return the response lines, each ending with a line break
+     * @throws IOException if the server closes the connection or cannot be reached
+     */
+    public String send(String command) throws IOException {
+        assert command != null && !command.contains("\n") : "Command should be a single line";
+
+        this.writer.write(command);
+        this.writer.write('\n');
+        this.writer.flush();
+
+        StringBuilder response = new StringBuilder();
+        String line;
+        while ((line = this.reader.readLine()) != null && !line.isEmpty()) {
+            response.append(line).append('\n');
+        }
+        if (line == null) {
+            throw new IOException("Connection closed by server");
+        }
+        return response.toString();
+    }
+
+    /**
+     * Closes the connection to the server.
+     *
+     * @throws IOException if the connection cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
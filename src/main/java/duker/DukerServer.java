@@ -0,0 +1,389 @@
+package duker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The DukerServer class serves a Duker instance to many clients over a local socket.
+ * Each client sends one command per line and receives the response of Duker.getResponse,
+ * followed by an empty line. The I/O of all connections is handled by a single NIO selector thread,
+ * while the commands run on a pool of worker threads, so a slow command does not hold up other clients.
+ * A connection has at most one command running at a time and stops being read meanwhile, so its
+ * responses come back in order. The worker posts the response back to the selector thread, which
+ * writes it. "bye" is answered on the selector thread and only closes the connection it came on;
+ * Duker stays online for the other clients.
+ */
+public class DukerServer implements Closeable {
+
+    private static final int DEFAULT_PORT = 7878;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_LINE_BYTES = 1 << 20;
+    // commands mostly wait for locks rather than use the processor, so there are workers to spare
+    private static final int MIN_WORKERS = 4;
+
+    private Duker duker;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private ExecutorService workers;
+    private ConcurrentLinkedQueue<Completion> completions;
+    private volatile boolean isRunning;
+    private volatile Thread servingThread;
+
+    /**
+     * Constructs a DukerServer that listens on the given address.
+     * Use an InetSocketAddress on the loopback interface for TCP, or a UnixDomainSocketAddress.
+     *
+     * @param duker   the Duker instance whose task list is shared by every client
+     * @param address the local address to listen on
+     * @throws IOException if the server socket cannot be opened
+     */
+    public DukerServer(Duker duker, SocketAddress address) throws IOException {
+        assert duker != null : "Duker instance should not be null";
+        assert address != null : "Address should not be null";
+
+        this.duker = duker;
+        this.selector = Selector.open();
+        if (address instanceof UnixDomainSocketAddress) {
+            Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+            this.serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            this.serverChannel = ServerSocketChannel.open();
+        }
+        this.serverChannel.bind(address);
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+        int workerCount = Math.max(MIN_WORKERS, Runtime.getRuntime().availableProcessors());
+        this.workers = Executors.newFixedThreadPool(workerCount, action -> {
+            Thread thread = new Thread(action, "duker-server-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.completions = new ConcurrentLinkedQueue<>();
+        this.isRunning = true;
+    }
+
+    /**
+     * Starts a server for the default task list and serves clients until the process is stopped.
+     * The optional argument is a TCP port on the loopback interface, or "unix:" followed by a socket path.
+     *
+     * @param args the command-line arguments
+     * @throws IOException if the server socket cannot be opened
+     */
+    public static void main(String[] args) throws IOException {
+        SocketAddress address = parseAddress(args.length > 0 ? args[0] : String.valueOf(DEFAULT_PORT));
+        try (Duker duker = new Duker(); DukerServer server = new DukerServer(duker, address)) {
+            System.out.println("Duker server listening on " + server.getAddress());
+            server.run();
+        }
+    }
+
+    /**
+     * Parses a server address given as a TCP port or as "unix:" followed by a socket path.
+     *
+     * @param address the address to parse
+     * @return the socket address to listen on
+     */
+    public static SocketAddress parseAddress(String address) {
+        if (address.startsWith("unix:")) {
+            return UnixDomainSocketAddress.of(Path.of(address.substring(5)));
+        }
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+    }
+
+    /**
+     * Returns the address the server is listening on, including the chosen port if port 0 was given.
+     *
+     * @return the bound address of the server
+     * @throws IOException if the address cannot be read
+     */
+    public SocketAddress getAddress() throws IOException {
+        return this.serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Starts serving clients on a new thread.
+     *
+     * @return the thread serving clients
+     */
+    public Thread start() {
+        Thread thread = new Thread(this::run, "duker-server");
+        thread.setDaemon(true);
+        this.servingThread = thread;
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Serves clients on the current thread until the server is closed.
+     */
+    public void run() {
+        this.servingThread = Thread.currentThread();
+        try {
+            while (this.isRunning) {
+                this.selector.select();
+                deliverCompletions();
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            closeChannels();
+        }
+    }
+
+    /**
+     * Stops serving clients and closes every connection.
+     * If clients are being served on another thread, waits for that thread to finish.
+     *
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.isRunning = false;
+        this.selector.wakeup();
+        Thread thread = this.servingThread;
+        if (thread == null) {
+            closeChannels();
+        } else if (thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void closeChannels() {
+        this.workers.shutdown();
+        try {
+            if (this.selector.isOpen()) {
+                for (SelectionKey key : this.selector.keys()) {
+                    key.channel().close();
+                }
+                this.selector.close();
+            }
+            this.serverChannel.close();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        try {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isAcceptable()) {
+                accept();
+            }
+            if (key.isValid() && key.isReadable()) {
+                read(key);
+            }
+            if (key.isValid() && key.isWritable()) {
+                write(key);
+            }
+        } catch (IOException e) {
+            closeConnection(key);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = this.serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.register(this.selector, SelectionKey.OP_READ, new Connection());
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        int count = channel.read(connection.input);
+        if (count < 0) {
+            closeConnection(key);
+            return;
+        }
+        readCommands(key);
+    }
+
+    /**
+     * Takes the next complete command from the bytes read so far and hands it to a worker, unless the
+     * connection already has a command running or is closing. The bytes after it stay in the input
+     * buffer until the response comes back, and the connection is not read while the buffer is full.
+     */
+    private void readCommands(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        connection.input.flip();
+        while (connection.input.hasRemaining() && !connection.isRunning && !connection.isClosing) {
+            byte b = connection.input.get();
+            if (b != '\n') {
+                connection.line.write(b);
+                if (connection.line.size() > MAX_LINE_BYTES) {
+                    throw new IOException("Command too long");
+                }
+                continue;
+            }
+            String command = connection.line.toString(StandardCharsets.UTF_8).replace("\r", "");
+            connection.line.reset();
+            submit(key, command);
+        }
+        connection.input.compact();
+        updateInterest(key);
+    }
+
+    private void submit(SelectionKey key, String command) {
+        Connection connection = (Connection) key.attachment();
+        if (command.trim().equals("bye")) {
+            connection.isClosing = true;
+            connection.output.add(encode(getGoodbye()));
+            return;
+        }
+        connection.isRunning = true;
+        this.workers.execute(() -> {
+            String response;
+            try {
+                response = this.duker.getResponse(command);
+            } catch (RuntimeException e) {
+                response = e.getMessage() + System.lineSeparator();
+            }
+            this.completions.add(new Completion(key, response));
+            this.selector.wakeup();
+        });
+    }
+
+    /**
+     * Returns the goodbye message, without taking Duker offline, since other clients still use it.
+     */
+    private String getGoodbye() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(outputStream);
+        new Ui(this.duker, ps).printGoodbye();
+        ps.flush();
+        return outputStream.toString();
+    }
+
+    private static ByteBuffer encode(String response) {
+        String text = response.replace(System.lineSeparator(), "\n") + "\n";
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Queues the responses posted by the workers for writing, and reads the next command of each
+     * connection that got a response.
+     */
+    private void deliverCompletions() {
+        Completion completion;
+        while ((completion = this.completions.poll()) != null) {
+            SelectionKey key = completion.key;
+            if (!key.isValid()) {
+                continue;
+            }
+            Connection connection = (Connection) key.attachment();
+            connection.output.add(encode(completion.response));
+            connection.isRunning = false;
+            try {
+                readCommands(key);
+                write(key);
+            } catch (IOException e) {
+                closeConnection(key);
+            }
+        }
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        while (!connection.output.isEmpty()) {
+            ByteBuffer buffer = connection.output.peek();
+            channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                updateInterest(key);
+                return;
+            }
+            connection.output.poll();
+        }
+        if (connection.isClosing && !connection.isRunning) {
+            closeConnection(key);
+        } else {
+            updateInterest(key);
+        }
+    }
+
+    /**
+     * Reads from a connection only while it has no command running and room for more input,
+     * and writes to it while it has responses waiting.
+     */
+    private void updateInterest(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        int ops = 0;
+        if (!connection.isRunning && !connection.isClosing && connection.input.hasRemaining()) {
+            ops |= SelectionKey.OP_READ;
+        }
+        if (!connection.output.isEmpty()) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        key.interestOps(ops);
+    }
+
+    private void closeConnection(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * The buffers of a single client connection.
+     */
+    private static class Connection {
+        private ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+        private ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private ArrayDeque<ByteBuffer> output = new ArrayDeque<>();
+        private boolean isRunning = false;
+        private boolean isClosing = false;
+    }
+
+    /**
+     * The response to a command of a connection, posted by a worker for the selector thread to write.
+     */
+    private static class Completion {
+        private final SelectionKey key;
+        private final String response;
+
+        private Completion(SelectionKey key, String response) {
+            this.key = key;
+            this.response = response;
+        }
+    }
+}
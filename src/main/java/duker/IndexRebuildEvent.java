@@ -0,0 +1,25 @@
+package duker;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event emitted whenever an in-memory index over the tasks is rebuilt.
+ */
+@Name("duker.IndexRebuild")
+@Label("Duker Index Rebuild")
+@Category("Duker")
+@Description("A full rebuild of an in-memory index over the tasks")
+public class IndexRebuildEvent extends Event {
+
+    @Label("Index")
+    @Description("The name of the rebuilt index")
+    String index;
+
+    @Label("Task Count")
+    @Description("The number of tasks covered by the rebuilt index")
+    int taskCount;
+}
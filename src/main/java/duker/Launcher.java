@@ -1,5 +1,8 @@
 package duker;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 import javafx.application.Application;
 
 /**
@@ -9,10 +12,21 @@ public class Launcher {
 
     /**
      * Enters the application.
+     * Starts the headless server when the first argument is "--server", the console when it is "--cli",
+     * and the JavaFX window otherwise.
      *
      * @param args The command-line arguments passed to the application.
+     * @throws IOException if the server socket cannot be opened or standard input cannot be read
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--server")) {
+            DukerServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--cli")) {
+            Cli.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         Application.launch(Main.class, args);
     }
 
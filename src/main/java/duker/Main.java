@@ -3,6 +3,7 @@ package duker;
 import java.io.IOException;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.layout.AnchorPane;
@@ -35,8 +36,21 @@ public class Main extends Application {
             fxmlLoader.<MainWindow>getController().setStage(stage);
             fxmlLoader.<MainWindow>getController().sendGreeting();
             stage.show();
+            if (Boolean.getBoolean("duker.exitAfterStartup")) {
+                Platform.exit();
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Closes Duker when the application exits, which saves the startup snapshot if it is turned on.
+     * Setting -Dduker.exitAfterStartup=true exits as soon as the window is shown, which is used to
+     * record the classes loaded at startup into a class data sharing archive.
+     */
+    @Override
+    public void stop() {
+        duker.close();
+    }
 }
@@ -60,12 +60,15 @@ public class MainWindow extends AnchorPane {
 
     /**
      * Sets the Duker instance for this window.
-     * This allows the window to interact with the Duker application logic.
+     * This allows the window to interact with the Duker application logic,
+     * and shows its reminders in the dialog as they come.
      *
      * @param d The Duker instance to set.
      */
     public void setDuker(Duker d) {
         duker = d;
+        duker.setReminderDelivery(message -> Platform.runLater(() ->
+                dialogContainer.getChildren().add(DialogBox.getDukerDialog(message, dukerImage))));
     }
 
     @FXML
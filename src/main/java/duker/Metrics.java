@@ -0,0 +1,219 @@
+package duker;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The Metrics class collects counters and latency histograms from the hot paths of Duker.
+ * Collection is off unless Duker is started with -Dduker.metrics=true or it is turned on at runtime;
+ * while it is off, every recording method returns after a single field read.
+ */
+public final class Metrics {
+
+    private static final String OBJECT_NAME = "duker:type=Metrics";
+
+    private static final ConcurrentHashMap<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, LatencyHistogram> LATENCIES = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Supplier<Map<String, Long>>> GAUGES = new ConcurrentHashMap<>();
+
+    private static volatile boolean isEnabled = Boolean.getBoolean("duker.metrics");
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns whether metrics are being collected.
+     *
+     * @return true if metrics are enabled, false otherwise
+     */
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Turns metrics collection on or off.
+     *
+     * @param enabled whether metrics should be collected
+     */
+    public static void setEnabled(boolean enabled) {
+        isEnabled = enabled;
+    }
+
+    /**
+     * Returns the start time of an operation to be passed to recordLatency.
+     *
+     * @return the current System.nanoTime(), or 0 if metrics are disabled
+     */
+    public static long startTimer() {
+        return isEnabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the time elapsed since startTimer under the name "group.name".
+     *
+     * @param group     the group of the histogram, such as "command"
+     * @param name      the name of the histogram within the group
+     * @param startTime the value returned by startTimer
+     */
+    public static void recordLatency(String group, String name, long startTime) {
+        if (!isEnabled || startTime == 0L) {
+            return;
+        }
+        long elapsed = System.nanoTime() - startTime;
+        LATENCIES.computeIfAbsent(group + "." + name, key -> new LatencyHistogram()).record(elapsed);
+    }
+
+    /**
+     * Adds one to a counter.
+     *
+     * @param name the name of the counter
+     */
+    public static void increment(String name) {
+        add(name, 1);
+    }
+
+    /**
+     * Adds a value to a counter.
+     *
+     * @param name  the name of the counter
+     * @param delta the value to add
+     */
+    public static void add(String name, long delta) {
+        if (!isEnabled) {
+            return;
+        }
+        COUNTERS.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Returns the current value of every counter, sorted by name.
+     *
+     * @return the counters by name
+     */
+    public static Map<String, Long> getCounters() {
+        TreeMap<String, Long> counters = new TreeMap<>();
+        COUNTERS.forEach((name, adder) -> counters.put(name, adder.sum()));
+        return counters;
+    }
+
+    /**
+     * Registers a group of gauges, whose values are read from the source whenever they are reported
+     * and are collected even while metrics are disabled. Each value is named "prefix.name".
+     * Registering the same prefix again replaces the earlier source.
+     *
+     * @param prefix the name of the group, such as "tasks"
+     * @param source the supplier of the current values by name, which should be cheap to call
+     */
+    public static void registerGauges(String prefix, Supplier<Map<String, Long>> source) {
+        assert prefix != null && source != null : "Prefix and source should not be null";
+
+        GAUGES.put(prefix, source);
+    }
+
+    /**
+     * Returns the current value of every gauge, sorted by name.
+     *
+     * @return the gauges by name
+     */
+    public static Map<String, Long> getGauges() {
+        TreeMap<String, Long> gauges = new TreeMap<>();
+        GAUGES.forEach((prefix, source) ->
+                source.get().forEach((name, value) -> gauges.put(prefix + "." + name, value)));
+        return gauges;
+    }
+
+    /**
+     * Returns the latency histogram with the given full name, if it has been recorded.
+     *
+     * @param name the full name of the histogram, such as "command.list"
+     * @return the histogram, or null if nothing was recorded under the name
+     */
+    public static LatencyHistogram getLatency(String name) {
+        return LATENCIES.get(name);
+    }
+
+    /**
+     * Returns a readable report of every gauge, counter and latency histogram.
+     *
+     * @return the metrics report
+     */
+    public static String getReport() {
+        StringBuilder report = new StringBuilder("Gauges:");
+        getGauges().forEach((name, value) -> report.append("\n  ").append(name).append(" = ").append(value));
+        if (!isEnabled && COUNTERS.isEmpty() && LATENCIES.isEmpty()) {
+            report.append("\nMetrics are disabled. Start Duker with -Dduker.metrics=true to collect them.");
+            return report.toString();
+        }
+        report.append("\nCounters:");
+        getCounters().forEach((name, value) -> report.append("\n  ").append(name).append(" = ").append(value));
+        report.append("\nLatencies:");
+        new TreeMap<>(LATENCIES).forEach((name, histogram) ->
+                report.append("\n  ").append(name).append(" ").append(histogram));
+        return report.toString();
+    }
+
+    /**
+     * Clears every counter and latency histogram.
+     */
+    public static void reset() {
+        COUNTERS.clear();
+        LATENCIES.clear();
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server under "duker:type=Metrics".
+     * Registering more than once has no effect.
+     */
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsBean(), name);
+            }
+        } catch (JMException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    private static class MetricsBean implements MetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean isEnabled) {
+            Metrics.setEnabled(isEnabled);
+        }
+
+        @Override
+        public Map<String, Long> getCounters() {
+            return Metrics.getCounters();
+        }
+
+        @Override
+        public Map<String, Long> getGauges() {
+            return Metrics.getGauges();
+        }
+
+        @Override
+        public String getReport() {
+            return Metrics.getReport();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
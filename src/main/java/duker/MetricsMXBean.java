@@ -0,0 +1,49 @@
+package duker;
+
+import java.util.Map;
+
+/**
+ * The management interface through which Duker's metrics are exposed over JMX.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * Returns whether metrics are being collected.
+     *
+     * @return true if metrics are enabled, false otherwise
+     */
+    boolean isEnabled();
+
+    /**
+     * Turns metrics collection on or off.
+     *
+     * @param isEnabled whether metrics should be collected
+     */
+    void setEnabled(boolean isEnabled);
+
+    /**
+     * Returns the current value of every counter.
+     *
+     * @return the counters by name
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * Returns the current value of every gauge, such as the task counts.
+     *
+     * @return the gauges by name
+     */
+    Map<String, Long> getGauges();
+
+    /**
+     * Returns a readable report of every gauge, counter and latency histogram.
+     *
+     * @return the metrics report
+     */
+    String getReport();
+
+    /**
+     * Clears every counter and latency histogram.
+     */
+    void reset();
+}
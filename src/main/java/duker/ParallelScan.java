@@ -0,0 +1,67 @@
+package duker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * The ParallelScan class filters a list of tasks, splitting the work across the common fork-join pool
+ * once the list is long enough for that to pay off.
+ * The threshold is given by the "duker.parallel.threshold" system property, 100000 tasks by default;
+ * a threshold of 0 or less turns parallel scans off. Matching tasks are always returned in list order.
+ */
+public final class ParallelScan {
+
+    private static final int DEFAULT_THRESHOLD = 100_000;
+
+    private ParallelScan() {
+    }
+
+    /**
+     * Returns the list size from which scans run in parallel.
+     *
+     * @return the parallel scan threshold, or 0 or less if scans never run in parallel
+     */
+    public static int getThreshold() {
+        return Integer.getInteger("duker.parallel.threshold", DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Returns whether a scan of the given number of tasks runs in parallel.
+     *
+     * @param size the number of tasks to scan
+     * @return true if the scan runs in parallel, false otherwise
+     */
+    public static boolean isParallel(int size) {
+        int threshold = getThreshold();
+        return threshold > 0 && size >= threshold;
+    }
+
+    /**
+     * Returns the tasks that match the predicate, in list order.
+     * The predicate may be called from several threads at once.
+     *
+     * @param tasks     the tasks to scan, which must not change during the scan
+     * @param predicate the test a task must pass
+     * @return the matching tasks, in list order
+     */
+    public static ArrayList<Task> filter(List<Task> tasks, Predicate<Task> predicate) {
+        assert tasks != null : "Tasks should not be null";
+        assert predicate != null : "Predicate should not be null";
+
+        if (!isParallel(tasks.size())) {
+            ArrayList<Task> matched = new ArrayList<>();
+            for (Task task : tasks) {
+                if (predicate.test(task)) {
+                    matched.add(task);
+                }
+            }
+            return matched;
+        }
+        Metrics.increment("scan.parallel");
+        return tasks.parallelStream()
+                .filter(predicate)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
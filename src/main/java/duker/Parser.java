@@ -4,13 +4,33 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.List;
 
 public class Parser {
 
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int LIST_PAGE_SIZE = 20;
+    private static final int MAX_AGENDA_TASKS = 1000;
+    private static final String INVALID_DATE_TIME_MESSAGE = "Invalid date-time format. " +
+            "Please provide the date-time in 'yyyy-MM-dd HH:mm' format. " +
+            "Time should be in 24 hours format.";
+
+    private DescriptionPool descriptionPool;
+
     /**
      * Constructs a new Parser instance.
      */
     public Parser() {
+        this.descriptionPool = new DescriptionPool();
+    }
+
+    /**
+     * Returns the pool used to share descriptions between parsed tasks.
+     *
+     * @return the description pool of this parser
+     */
+    public DescriptionPool getDescriptionPool() {
+        return this.descriptionPool;
     }
 
     private Todo createTodoFromString(String description, boolean isDone, boolean isHighPriority) {
@@ -27,8 +47,14 @@ public class Parser {
     private Deadline createDeadlineFromString(
             String description, String[] parts, boolean isDone, boolean isHighPriority) {
         String timeToConvert = isolateTimeToConvert(parts[4]);
-        Deadline deadline = new Deadline(description, convertStringToDate(timeToConvert));
-        if (isDone) {
+        LocalDateTime by = convertStringToDate(timeToConvert);
+        Deadline deadline;
+        if (parts.length == 7) {
+            deadline = new RecurringDeadline(description, by, createRecurrenceFromString(parts[5], parts[6]));
+        } else {
+            deadline = new Deadline(description, by);
+        }
+        if (isDone && !(deadline instanceof Recurring)) {
             deadline.markAsDone();
         }
         if (isHighPriority) {
@@ -41,9 +67,15 @@ public class Parser {
             String description, String[] parts, boolean isDone, boolean isHighPriority) {
         String timeToConvertFrom = isolateTimeToConvert(parts[4]);
         String timeToConvertTo = isolateTimeToConvert(parts[5]);
-        Event event = new Event(description, convertStringToDate(timeToConvertFrom),
-                convertStringToDate(timeToConvertTo));
-        if (isDone) {
+        LocalDateTime from = convertStringToDate(timeToConvertFrom);
+        LocalDateTime to = convertStringToDate(timeToConvertTo);
+        Event event;
+        if (parts.length == 8) {
+            event = new RecurringEvent(description, from, to, createRecurrenceFromString(parts[6], parts[7]));
+        } else {
+            event = new Event(description, from, to);
+        }
+        if (isDone && !(event instanceof Recurring)) {
             event.markAsDone();
         }
         if (isHighPriority) {
@@ -52,11 +84,18 @@ public class Parser {
         return event;
     }
 
+    private Recurrence createRecurrenceFromString(String period, String doneState) {
+        Recurrence recurrence = Recurrence.parse(period);
+        recurrence.decodeDoneState(doneState);
+        return recurrence;
+    }
+
     /**
      * Converts a string representation of a task to a Task object.
      *
      * @param line the string representation of a task, formatted as
-     *             "priority | type | status | description | time"
+     *             "priority | type | status | description | time", where recurring tasks
+     *             are followed by "| period | done occurrences"
      * @return the Task object corresponding to the string
      */
     public Task convertStringToTask(String line) {
@@ -68,7 +107,7 @@ public class Parser {
         String priority = parts[0];
         String taskType = parts[1];
         boolean isDone = parts[2].equals("1");
-        String description = parts[3];
+        String description = this.descriptionPool.intern(parts[3]);
         boolean isHighPriority = priority.equals("1");
 
         assert taskType.equals("T") || taskType.equals("D") || taskType.equals("E") : "Unknown task type";
@@ -76,10 +115,10 @@ public class Parser {
         if (taskType.equals("T")) {
             return createTodoFromString(description, isDone, isHighPriority);
         } else if (taskType.equals("D")) {
-            assert parts.length == 5 : "Invalid deadline format";
+            assert parts.length == 5 || parts.length == 7 : "Invalid deadline format";
             return createDeadlineFromString(description, parts, isDone, isHighPriority);
         } else {
-            assert parts.length == 6 : "Invalid event format";
+            assert parts.length == 6 || parts.length == 8 : "Invalid event format";
             return createEventFromString(description, parts, isDone, isHighPriority);
         }
     }
@@ -116,7 +155,7 @@ public class Parser {
         if (description.isEmpty()) {
             throw new IllegalArgumentException("Description for 'todo' cannot be empty.");
         }
-        return new Todo(description);
+        return new Todo(this.descriptionPool.intern(description));
     }
 
     private Deadline parseDeadlineCommand(String command) {
@@ -133,10 +172,15 @@ public class Parser {
             throw new IllegalArgumentException("Description for 'deadline' cannot be empty.");
         }
 
-        String dateTimeString = parts[1].trim();
+        String[] timeAndRecurrence = parts[1].split("/every", -1);
+        String dateTimeString = timeAndRecurrence[0].trim();
         try {
             LocalDateTime by = convertStringToDate(dateTimeString);
-            return new Deadline(description, by);
+            if (timeAndRecurrence.length > 1) {
+                return new RecurringDeadline(this.descriptionPool.intern(description), by,
+                        Recurrence.parse(timeAndRecurrence[1]));
+            }
+            return new Deadline(this.descriptionPool.intern(description), by);
         } catch (DateTimeParseException e) {
             throw e;
         }
@@ -162,13 +206,18 @@ public class Parser {
             throw new IllegalArgumentException("Description for 'event' cannot be empty.");
         }
 
+        String[] toAndRecurrence = partsTo[1].split("/every", -1);
         String fromDateTimeString = partsTo[0].trim(); // Extract start date-time
-        String toDateTimeString = partsTo[1].trim(); // Extract end date-time
+        String toDateTimeString = toAndRecurrence[0].trim(); // Extract end date-time
 
         try {
             LocalDateTime from = convertStringToDate(fromDateTimeString);
             LocalDateTime to = convertStringToDate(toDateTimeString);
-            return new Event(description, from, to);
+            if (toAndRecurrence.length > 1) {
+                return new RecurringEvent(this.descriptionPool.intern(description), from, to,
+                        Recurrence.parse(toAndRecurrence[1]));
+            }
+            return new Event(this.descriptionPool.intern(description), from, to);
         } catch (DateTimeParseException e) {
             throw e;
         }
@@ -190,103 +239,320 @@ public class Parser {
         return index;
     }
 
-    private void executeMark(String[] getInstr, TaskList taskList, Storage storage) {
+    private void executeMark(String[] getInstr, TaskList taskList, Storage storage, Ui ui) {
+        if (isOccurrenceCommand(getInstr)) {
+            executeMarkOccurrence(getInstr, taskList, storage, ui, true);
+            return;
+        }
         try {
             int index = parseIndexCommand(getInstr, taskList);
-            taskList.mark(index, storage);
+            taskList.mark(index, storage, ui.getOutput());
         } catch (InvalidIndexException e) {
-            System.out.println(e.toString());
+            ui.printMessage(e.toString());
         }
     }
 
-    private void executeUnmark(String[] getInstr, TaskList taskList, Storage storage) {
+    private void executeUnmark(String[] getInstr, TaskList taskList, Storage storage, Ui ui) {
+        if (isOccurrenceCommand(getInstr)) {
+            executeMarkOccurrence(getInstr, taskList, storage, ui, false);
+            return;
+        }
         try {
             int index = parseIndexCommand(getInstr, taskList);
-            taskList.unmark(index, storage);
+            taskList.unmark(index, storage, ui.getOutput());
         } catch (InvalidIndexException e) {
-            System.out.println(e.toString());
+            ui.printMessage(e.toString());
         }
     }
 
-    private void executePrioritise(String[] getInstr, TaskList taskList, Storage storage) {
+    private boolean isOccurrenceCommand(String[] getInstr) {
+        return getInstr.length > 1 && getInstr[1].contains("/on");
+    }
+
+    private void executeMarkOccurrence(String[] getInstr, TaskList taskList, Storage storage, Ui ui, boolean isDone) {
+        String[] indexAndTime = getInstr[1].split("/on", 2);
+        try {
+            int index = parseIndexCommand(new String[] {getInstr[0], indexAndTime[0].trim()}, taskList);
+            LocalDateTime occurrence = convertStringToDate(indexAndTime[1].trim());
+            taskList.markOccurrence(index, occurrence, isDone, storage, ui.getOutput());
+        } catch (InvalidIndexException e) {
+            ui.printMessage(e.toString());
+        } catch (DukerException e) {
+            ui.printMessage(e.getMessage());
+        } catch (DateTimeParseException e) {
+            ui.printMessage(INVALID_DATE_TIME_MESSAGE);
+        }
+    }
+
+    private void executePrioritise(String[] getInstr, TaskList taskList, Storage storage, Ui ui) {
         try {
             int index = parseIndexCommand(getInstr, taskList);
-            taskList.prioritise(index, storage);
+            taskList.prioritise(index, storage, ui.getOutput());
         } catch (InvalidIndexException e) {
-            System.out.println(e.toString());
+            ui.printMessage(e.toString());
         }
     }
 
-    private void executeDeprioritise(String[] getInstr, TaskList taskList, Storage storage) {
+    private void executeDeprioritise(String[] getInstr, TaskList taskList, Storage storage, Ui ui) {
         try {
             int index = parseIndexCommand(getInstr, taskList);
-            taskList.deprioritise(index, storage);
+            taskList.deprioritise(index, storage, ui.getOutput());
         } catch (InvalidIndexException e) {
-            System.out.println(e.toString());
+            ui.printMessage(e.toString());
         }
     }
 
-    private void executeDelete(String[] getInstr, TaskList taskList, Storage storage) {
+    private void executeDelete(String[] getInstr, TaskList taskList, Storage storage, Ui ui) {
         try {
             int index = parseIndexCommand(getInstr, taskList);
-            taskList.delete(index, storage);
+            taskList.delete(index, storage, ui.getOutput());
         } catch (InvalidIndexException e) {
-            System.out.println(e.toString());
+            ui.printMessage(e.toString());
         }
     }
 
-    private void executeTodo(String command, TaskList taskList, Storage storage) {
+    private void executeTodo(String command, TaskList taskList, Storage storage, Ui ui) {
         try {
             Task todo = parseTodoCommand(command);
-            taskList.add(todo, storage);
+            taskList.add(todo, storage, ui.getOutput());
         } catch (IllegalArgumentException e) {
-            System.out.println(e.getMessage());
+            ui.printMessage(e.getMessage());
         }
     }
 
-    private void executeDeadline(String command, TaskList taskList, Storage storage) {
+    private void executeDeadline(String command, TaskList taskList, Storage storage, Ui ui) {
         try {
             Task deadline = parseDeadlineCommand(command);
-            taskList.add(deadline, storage);
+            taskList.add(deadline, storage, ui.getOutput());
         } catch (IllegalArgumentException e) {
-            System.out.println(e.getMessage());
+            ui.printMessage(e.getMessage());
         } catch (DateTimeParseException e) {
-            System.out.println("Invalid date-time format. " +
-                    "Please provide the date-time in 'yyyy-MM-dd HH:mm' format. " +
-                    "Time should be in 24 hours format.");
+            ui.printMessage(INVALID_DATE_TIME_MESSAGE);
         }
     }
 
-    private void executeEvent(String command, TaskList taskList, Storage storage) {
+    private void executeEvent(String command, TaskList taskList, Storage storage, Ui ui) {
         try {
             Task event = parseEventCommand(command);
-            taskList.add(event, storage);
+            taskList.add(event, storage, ui.getOutput());
         } catch (IllegalArgumentException e) {
-            System.out.println(e.getMessage());
+            ui.printMessage(e.getMessage());
         } catch (DateTimeParseException e) {
-            System.out.println("Invalid date-time format. " +
-                    "Please provide the date-time in 'yyyy-MM-dd HH:mm' format. " +
-                    "Time should be in 24 hours format.");
+            ui.printMessage(INVALID_DATE_TIME_MESSAGE);
         }
     }
 
-    private void executeFind(String[] getInstr, TaskList taskList, Ui ui) {
+    private void executeFind(String[] getInstr, TaskList taskList, Storage storage, Ui ui) {
         try {
             if (getInstr.length <= 1) {
                 throw new DukerException("Please provide a keyword");
             }
-            ArrayList<Task> tasksFound = taskList.findTasks(getInstr[1]);
+            boolean isArchiveSearched = getInstr[1].startsWith("--all ");
+            String keyword = isArchiveSearched ? getInstr[1].substring(6).trim() : getInstr[1];
+            if (keyword.isEmpty()) {
+                throw new DukerException("Please provide a keyword");
+            }
+            boolean isFuzzy = keyword.startsWith("~");
+            if (isFuzzy) {
+                keyword = keyword.substring(1).trim();
+                if (WordIndex.getWords(keyword).isEmpty()) {
+                    throw new DukerException("Please provide a keyword after '~'");
+                }
+            }
+            ArrayList<Task> tasksFound;
+            if (isFuzzy) {
+                tasksFound = taskList.findSimilarTasks(keyword);
+            } else {
+                tasksFound = taskList.findTasks(keyword);
+            }
             ui.printKeywordList(tasksFound);
+            if (isArchiveSearched) {
+                ui.printArchivedList(storage.findArchivedTasks(keyword, this));
+            }
+        } catch (DukerException e) {
+            ui.printMessage(e.getMessage());
+        }
+    }
+
+    private void executeList(String[] getInstr, TaskList taskList, Ui ui) {
+        if (getInstr.length <= 1 || getInstr[1].isBlank()) {
+            ui.printList(taskList);
+            return;
+        }
+        try {
+            String sort = null;
+            int page = 1;
+            String[] options = getInstr[1].trim().split("\\s+");
+            for (int i = 0; i < options.length; i += 2) {
+                String value = i + 1 < options.length ? options[i + 1] : "";
+                switch (options[i]) {
+                case "--sort":
+                    sort = parseSortOrder(value);
+                    break;
+                case "--page":
+                    page = parsePageNumber(value);
+                    break;
+                default:
+                    throw new DukerException("Please use 'list', or 'list --sort due|priority|name --page NUMBER'");
+                }
+            }
+
+            int pageCount = Math.max(1, (taskList.getSize() + LIST_PAGE_SIZE - 1) / LIST_PAGE_SIZE);
+            if (page > pageCount) {
+                throw new DukerException("There are only " + pageCount + " pages in your list.");
+            }
+            int from = (page - 1) * LIST_PAGE_SIZE;
+            ArrayList<Task> tasks;
+            if (sort == null) {
+                List<Task> all = taskList.snapshot();
+                tasks = new ArrayList<>(all.subList(from, Math.min(all.size(), from + LIST_PAGE_SIZE)));
+            } else {
+                tasks = taskList.getSortedPage(sort, from, LIST_PAGE_SIZE);
+            }
+            ui.printListPage(taskList, tasks, sort, page, pageCount);
+        } catch (DukerException e) {
+            ui.printMessage(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the sort term of Query for a sort order of the list command: due, priority or name.
+     */
+    private static String parseSortOrder(String value) throws DukerException {
+        switch (value) {
+        case "due":
+        case "priority":
+            return value;
+        case "name":
+            return "text";
+        default:
+            throw new DukerException("--sort should be due, priority or name");
+        }
+    }
+
+    private static int parsePageNumber(String value) throws DukerException {
+        int page;
+        try {
+            page = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new DukerException("--page should be a number");
+        }
+        if (page <= 0) {
+            throw new DukerException("--page should be a positive number");
+        }
+        return page;
+    }
+
+    private void executeUse(String[] getInstr, Ui ui) {
+        if (getInstr.length <= 1 || getInstr[1].isBlank()) {
+            ui.printWorkspaces();
+            return;
+        }
+        try {
+            ui.useWorkspace(getInstr[1].trim());
         } catch (DukerException e) {
-            System.out.println(e.getMessage());
+            ui.printMessage(e.getMessage());
         }
     }
 
-    private void executeDefault() {
+    private void executeSearch(String[] getInstr, TaskList taskList, Ui ui) {
+        try {
+            if (getInstr.length <= 1 || getInstr[1].isBlank()) {
+                throw new DukerException("Please provide words to search for, e.g. 'search --top 5 team report'");
+            }
+            String words = getInstr[1].trim();
+            int limit = DEFAULT_SEARCH_LIMIT;
+            if (words.startsWith("--top ")) {
+                String[] option = words.substring(6).trim().split(" ", 2);
+                try {
+                    limit = Integer.parseInt(option[0]);
+                } catch (NumberFormatException e) {
+                    throw new DukerException("--top should be a number");
+                }
+                if (limit <= 0) {
+                    throw new DukerException("--top should be a positive number");
+                }
+                words = option.length > 1 ? option[1].trim() : "";
+            }
+            if (WordIndex.getWords(words).isEmpty()) {
+                throw new DukerException("Please provide words to search for");
+            }
+            ui.printRankedList(taskList.searchTasks(words, limit));
+        } catch (DukerException e) {
+            ui.printMessage(e.getMessage());
+        }
+    }
+
+    private void executeArchive(TaskList taskList, Storage storage, Ui ui) {
+        storage.loadAppended(taskList, this);
+        ui.printArchiveResult(taskList.archive(storage, TaskList.getArchiveCutoff()));
+    }
+
+    private void executeAgenda(String[] getInstr, TaskList taskList, Ui ui) {
+        try {
+            if (getInstr.length <= 1 || !getInstr[1].contains("/to")) {
+                throw new DukerException(
+                        "Please provide a period, e.g. 'agenda 2026-10-20 00:00 /to 2026-10-27 00:00'");
+            }
+            String[] range = getInstr[1].split("/to", 2);
+            LocalDateTime from = convertStringToDate(range[0].trim());
+            LocalDateTime to = convertStringToDate(range[1].trim());
+            ui.printAgendaList(taskList.findTasksBetween(from, to, MAX_AGENDA_TASKS + 1), MAX_AGENDA_TASKS);
+        } catch (DukerException e) {
+            ui.printMessage(e.getMessage());
+        } catch (DateTimeParseException e) {
+            ui.printMessage(INVALID_DATE_TIME_MESSAGE);
+        }
+    }
+
+    private void executeQuery(String[] getInstr, TaskList taskList, Ui ui, boolean isExplained) {
+        try {
+            if (getInstr.length <= 1 || getInstr[1].isBlank()) {
+                throw new DukerException("Please provide query terms, e.g. 'query type:D done:false sort:due'");
+            }
+            Query query = Query.parse(getInstr[1]);
+            QueryResult result = taskList.query(query);
+            if (isExplained) {
+                ui.printQueryPlan(query, result);
+            } else {
+                ui.printQueryResult(result);
+            }
+        } catch (DukerException e) {
+            ui.printMessage(e.getMessage());
+        }
+    }
+
+    private void executeDefault(Ui ui) {
         try {
             throw new DukerException("OOPS!!! I'm sorry, but I don't know what that means :-(");
         } catch (DukerException e) {
-            System.out.println(e.getMessage());
+            ui.printMessage(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns whether a command only reads the task list, so that it may run while the list is being changed.
+     * "find --all" does not count, since it also reads the archive file, which archiving appends to.
+     *
+     * @param command the user command
+     * @return true if the command changes nothing, false otherwise
+     */
+    public static boolean isReadOnly(String command) {
+        String[] getInstr = command.split(" ", 2);
+        switch (getInstr[0]) {
+        case "list":
+        case "search":
+        case "priority":
+        case "agenda":
+        case "stats":
+        case "summary":
+        case "query":
+        case "explain":
+            return true;
+        case "find":
+            return getInstr.length <= 1 || !getInstr[1].startsWith("--all ");
+        default:
+            return false;
         }
     }
 
@@ -299,47 +565,74 @@ public class Parser {
      * @param ui       the Ui object to interact with the user
      */
     public void parseCommand(String command, TaskList taskList, Storage storage, Ui ui) {
+        long startTime = Metrics.startTimer();
         String[] getInstr = command.split(" ", 2);
         String instr = getInstr[0];
         switch (instr) {
         case "mark":
-            executeMark(getInstr, taskList, storage);
+            executeMark(getInstr, taskList, storage, ui);
             break;
         case "unmark":
-            executeUnmark(getInstr, taskList, storage);
+            executeUnmark(getInstr, taskList, storage, ui);
             break;
         case "prioritise":
-            executePrioritise(getInstr, taskList, storage);
+            executePrioritise(getInstr, taskList, storage, ui);
             break;
         case "deprioritise":
-            executeDeprioritise(getInstr, taskList, storage);
+            executeDeprioritise(getInstr, taskList, storage, ui);
             break;
         case "delete":
-            executeDelete(getInstr, taskList, storage);
+            executeDelete(getInstr, taskList, storage, ui);
             break;
         case "list":
-            ui.printList(taskList);
+            executeList(getInstr, taskList, ui);
+            break;
+        case "use":
+            executeUse(getInstr, ui);
             break;
         case "bye":
             ui.bye();
             break;
         case "todo":
-            executeTodo(command, taskList, storage);
+            executeTodo(command, taskList, storage, ui);
             break;
         case "deadline":
-            executeDeadline(command, taskList, storage);
+            executeDeadline(command, taskList, storage, ui);
             break;
         case "event":
-            executeEvent(command, taskList, storage);
+            executeEvent(command, taskList, storage, ui);
             break;
         case "find":
-            executeFind(getInstr, taskList, ui);
+            executeFind(getInstr, taskList, storage, ui);
+            break;
+        case "search":
+            executeSearch(getInstr, taskList, ui);
+            break;
+        case "archive":
+            executeArchive(taskList, storage, ui);
             break;
         case "priority":
             ui.printPriorityList(taskList);
             break;
+        case "agenda":
+            executeAgenda(getInstr, taskList, ui);
+            break;
+        case "stats":
+            ui.printStats(this.descriptionPool);
+            break;
+        case "summary":
+            ui.printSummary(taskList.getStatistics());
+            break;
+        case "query":
+            executeQuery(getInstr, taskList, ui, false);
+            break;
+        case "explain":
+            executeQuery(getInstr, taskList, ui, true);
+            break;
         default:
-            executeDefault();
+            instr = "unknown";
+            executeDefault(ui);
         }
+        Metrics.recordLatency("command", instr, startTime);
     }
 }
@@ -0,0 +1,329 @@
+package duker;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A TaskStore backed by a persistent vector, for consistent reads of large lists during changes.
+ * The tasks are kept in a balanced tree ordered by position, in which every node records the size
+ * of its subtree. A change copies only the O(log n) nodes on the path it touches and shares the rest,
+ * so taking a snapshot is just reading the current root, whatever the size of the list.
+ * Changes are serialized by the store; readers never block.
+ */
+public class PersistentTaskStore implements TaskStore {
+
+    private volatile Node root;
+
+    /**
+     * Constructs an empty PersistentTaskStore.
+     */
+    public PersistentTaskStore() {
+        this.root = null;
+    }
+
+    @Override
+    public int size() {
+        return size(this.root);
+    }
+
+    @Override
+    public Task get(int index) {
+        return get(this.root, index);
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        assert task != null : "Task to add should not be null";
+
+        this.root = insert(this.root, size(this.root), task);
+    }
+
+    @Override
+    public synchronized Task remove(int index) {
+        Node current = this.root;
+        Task task = get(current, index);
+        this.root = remove(current, index);
+        return task;
+    }
+
+    @Override
+    public synchronized void set(int index, Task task) {
+        assert task != null : "Task to set should not be null";
+
+        Node current = this.root;
+        checkIndex(current, index);
+        this.root = set(current, index, task);
+    }
+
+    /**
+     * Returns a copy of the tasks, since the tree must never be modified in place.
+     *
+     * @return a new ArrayList of the tasks
+     */
+    @Override
+    public ArrayList<Task> toArrayList() {
+        return new ArrayList<>(snapshot());
+    }
+
+    /**
+     * Returns the tasks as of now as a read-only list. This takes O(1) time for any list size,
+     * and the list never changes once taken.
+     *
+     * @return a read-only list that never changes
+     */
+    @Override
+    public List<Task> snapshot() {
+        return new Snapshot(this.root);
+    }
+
+    /**
+     * Returns true, since snapshots share Task objects with the store.
+     *
+     * @return true
+     */
+    @Override
+    public boolean sharesTasksWithSnapshots() {
+        return true;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void checkIndex(Node node, int index) {
+        if (index < 0 || index >= size(node)) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size(node));
+        }
+    }
+
+    private static Task get(Node node, int index) {
+        checkIndex(node, index);
+        Node current = node;
+        int remaining = index;
+        while (true) {
+            int leftSize = size(current.left);
+            if (remaining < leftSize) {
+                current = current.left;
+            } else if (remaining == leftSize) {
+                return current.task;
+            } else {
+                remaining -= leftSize + 1;
+                current = current.right;
+            }
+        }
+    }
+
+    private static Node insert(Node node, int index, Task task) {
+        if (node == null) {
+            return new Node(null, task, null);
+        }
+        int leftSize = size(node.left);
+        if (index <= leftSize) {
+            return balance(insert(node.left, index, task), node.task, node.right);
+        }
+        return balance(node.left, node.task, insert(node.right, index - leftSize - 1, task));
+    }
+
+    private static Node set(Node node, int index, Task task) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return new Node(set(node.left, index, task), node.task, node.right);
+        } else if (index == leftSize) {
+            return new Node(node.left, task, node.right);
+        }
+        return new Node(node.left, node.task, set(node.right, index - leftSize - 1, task));
+    }
+
+    private static Node remove(Node node, int index) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return balance(remove(node.left, index), node.task, node.right);
+        } else if (index > leftSize) {
+            return balance(node.left, node.task, remove(node.right, index - leftSize - 1));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Task successor = get(node.right, 0);
+        return balance(node.left, successor, remove(node.right, 0));
+    }
+
+    private static Node balance(Node left, Task task, Node right) {
+        int difference = height(left) - height(right);
+        if (difference > 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node(left.left, left.task, new Node(left.right, task, right));
+            }
+            return new Node(new Node(left.left, left.task, left.right.left), left.right.task,
+                    new Node(left.right.right, task, right));
+        }
+        if (difference < -1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node(new Node(left, task, right.left), right.task, right.right);
+            }
+            return new Node(new Node(left, task, right.left.left), right.left.task,
+                    new Node(right.left.right, right.task, right.right));
+        }
+        return new Node(left, task, right);
+    }
+
+    /**
+     * An immutable tree node holding one task.
+     */
+    private static class Node {
+        private final Node left;
+        private final Task task;
+        private final Node right;
+        private final int size;
+        private final int height;
+
+        private Node(Node left, Task task, Node right) {
+            this.left = left;
+            this.task = task;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    /**
+     * A read-only list over one version of the tree.
+     */
+    private static class Snapshot extends AbstractList<Task> {
+        private final Node root;
+
+        private Snapshot(Node root) {
+            this.root = root;
+        }
+
+        @Override
+        public Task get(int index) {
+            return PersistentTaskStore.get(this.root, index);
+        }
+
+        @Override
+        public int size() {
+            return PersistentTaskStore.size(this.root);
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            return new InOrderIterator(this.root, 0);
+        }
+
+        @Override
+        public Spliterator<Task> spliterator() {
+            return new RangeSpliterator(this.root, 0, size());
+        }
+    }
+
+    /**
+     * Splits a range of positions in a tree in half for parallel streams, and walks each part in order
+     * after an O(log n) descent to its first position.
+     */
+    private static class RangeSpliterator implements Spliterator<Task> {
+        private final Node root;
+        private final int to;
+        private int from;
+        private InOrderIterator iterator;
+
+        private RangeSpliterator(Node root, int from, int to) {
+            this.root = root;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Task> action) {
+            if (this.from >= this.to) {
+                return false;
+            }
+            if (this.iterator == null) {
+                this.iterator = new InOrderIterator(this.root, this.from);
+            }
+            this.from += 1;
+            action.accept(this.iterator.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<Task> trySplit() {
+            if (this.iterator != null || this.to - this.from < 2) {
+                return null;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            RangeSpliterator prefix = new RangeSpliterator(this.root, this.from, middle);
+            this.from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.to - this.from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Walks a tree in position order from a starting position, visiting each node once.
+     */
+    private static class InOrderIterator implements Iterator<Task> {
+        private final ArrayDeque<Node> path = new ArrayDeque<>();
+
+        private InOrderIterator(Node root, int start) {
+            Node current = root;
+            int remaining = start;
+            while (current != null) {
+                int leftSize = size(current.left);
+                if (remaining < leftSize) {
+                    this.path.push(current);
+                    current = current.left;
+                } else if (remaining == leftSize) {
+                    this.path.push(current);
+                    return;
+                } else {
+                    remaining -= leftSize + 1;
+                    current = current.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.path.isEmpty();
+        }
+
+        @Override
+        public Task next() {
+            if (this.path.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node node = this.path.pop();
+            pushLeft(node.right);
+            return node.task;
+        }
+
+        private void pushLeft(Node node) {
+            for (Node current = node; current != null; current = current.left) {
+                this.path.push(current);
+            }
+        }
+    }
+}
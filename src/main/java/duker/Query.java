@@ -0,0 +1,401 @@
+package duker;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * The Query class represents a combined filter over the tasks, parsed from terms such as
+ * "type:D done:false priority:1 due&lt;2026-11-01 text:invoice sort:due limit:50".
+ * All filter terms must match. Dates are written as yyyy-MM-dd or yyyy-MM-ddTHH:mm, and the time
+ * of a deadline is its due time while the time of an event is its start.
+ * Text terms match descriptions that contain them, ignoring case.
+ */
+public class Query {
+
+    private Character type;
+    private Boolean isDone;
+    private Integer priority;
+    private LocalDateTime from;
+    private boolean isFromInclusive;
+    private LocalDateTime to;
+    private boolean isToInclusive;
+    private ArrayList<String> texts;
+    private String sort;
+    private int limit;
+
+    private Query() {
+        this.texts = new ArrayList<>();
+        this.sort = "index";
+        this.limit = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Parses a query from space-separated terms.
+     *
+     * @param input the terms of the query
+     * @return the parsed query
+     * @throws DukerException if a term is not understood
+     */
+    public static Query parse(String input) throws DukerException {
+        assert input != null : "Query should not be null";
+
+        Query query = new Query();
+        for (String term : input.trim().split("\\s+")) {
+            if (!term.isEmpty()) {
+                query.parseTerm(term);
+            }
+        }
+        return query;
+    }
+
+    private void parseTerm(String term) throws DukerException {
+        if (term.startsWith("due")) {
+            parseDueTerm(term);
+            return;
+        }
+        String[] parts = term.split(":", 2);
+        if (parts.length < 2 || parts[1].isEmpty()) {
+            throw new DukerException("I don't understand the query term '" + term + "'");
+        }
+        String value = parts[1].toLowerCase(Locale.ROOT);
+        switch (parts[0]) {
+        case "type":
+            this.type = parseType(value, term);
+            break;
+        case "done":
+            if (!value.equals("true") && !value.equals("false")) {
+                throw new DukerException("done should be true or false");
+            }
+            this.isDone = value.equals("true");
+            break;
+        case "priority":
+            if (value.equals("1") || value.equals("high")) {
+                this.priority = 1;
+            } else if (value.equals("0") || value.equals("normal")) {
+                this.priority = 0;
+            } else {
+                throw new DukerException("priority should be 1 (high) or 0 (normal)");
+            }
+            break;
+        case "text":
+            this.texts.add(value);
+            break;
+        case "sort":
+            if (!value.equals("due") && !value.equals("priority") && !value.equals("text") &&
+                    !value.equals("index")) {
+                throw new DukerException("sort should be due, priority, text or index");
+            }
+            this.sort = value;
+            break;
+        case "limit":
+            try {
+                this.limit = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new DukerException("limit should be a number");
+            }
+            if (this.limit <= 0) {
+                throw new DukerException("limit should be a positive number");
+            }
+            break;
+        default:
+            throw new DukerException("I don't understand the query term '" + term + "'");
+        }
+    }
+
+    private void parseDueTerm(String term) throws DukerException {
+        String rest = term.substring(3);
+        if (rest.startsWith("<=")) {
+            this.to = parseDate(rest.substring(2));
+            this.isToInclusive = true;
+        } else if (rest.startsWith(">=")) {
+            this.from = parseDate(rest.substring(2));
+            this.isFromInclusive = true;
+        } else if (rest.startsWith("<")) {
+            this.to = parseDate(rest.substring(1));
+            this.isToInclusive = false;
+        } else if (rest.startsWith(">")) {
+            this.from = parseDate(rest.substring(1));
+            this.isFromInclusive = false;
+        } else if (rest.startsWith(":")) {
+            this.from = parseDate(rest.substring(1)).toLocalDate().atStartOfDay();
+            this.isFromInclusive = true;
+            this.to = this.from.plusDays(1);
+            this.isToInclusive = false;
+        } else {
+            throw new DukerException("I don't understand the query term '" + term + "'");
+        }
+    }
+
+    private static Character parseType(String value, String term) throws DukerException {
+        switch (value) {
+        case "t":
+        case "todo":
+            return 'T';
+        case "d":
+        case "deadline":
+            return 'D';
+        case "e":
+        case "event":
+            return 'E';
+        default:
+            throw new DukerException("type should be T, D or E, not '" + term.substring(5) + "'");
+        }
+    }
+
+    private static LocalDateTime parseDate(String value) throws DukerException {
+        try {
+            if (value.contains("T")) {
+                return LocalDateTime.parse(value);
+            }
+            return LocalDate.parse(value).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new DukerException("Dates in queries should look like 2026-11-01 or 2026-11-01T09:00");
+        }
+    }
+
+    /**
+     * Returns whether the task matches every filter term of the query.
+     *
+     * @param task the task to check
+     * @return true if the task matches, false otherwise
+     */
+    public boolean matches(Task task) {
+        if (this.type != null && getType(task) != this.type) {
+            return false;
+        }
+        if (this.isDone != null && task.isDone() != this.isDone) {
+            return false;
+        }
+        if (this.priority != null && task.getPriority() != this.priority) {
+            return false;
+        }
+        if (hasTimeRange() && !isInTimeRange(getTime(task))) {
+            return false;
+        }
+        if (!this.texts.isEmpty()) {
+            String description = task.getDescription().toLowerCase(Locale.ROOT);
+            for (String text : this.texts) {
+                if (!description.contains(text)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isInTimeRange(LocalDateTime time) {
+        if (time == null) {
+            return false;
+        }
+        if (this.from != null) {
+            int compared = time.compareTo(this.from);
+            if (compared < 0 || (compared == 0 && !this.isFromInclusive)) {
+                return false;
+            }
+        }
+        if (this.to != null) {
+            int compared = time.compareTo(this.to);
+            if (compared > 0 || (compared == 0 && !this.isToInclusive)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the order of the results: by position in the list unless a sort term was given.
+     *
+     * @return the comparator for the results
+     */
+    public Comparator<Task> getComparator() {
+        return getComparator(this.sort);
+    }
+
+    /**
+     * Returns the order of tasks for a sort term: due, priority, text or index. Tasks that are equal
+     * by the term are in list order, so no two tasks of a list are equal.
+     *
+     * @param sort the sort term
+     * @return the comparator for the sort term, by position in the list for an unknown one
+     */
+    public static Comparator<Task> getComparator(String sort) {
+        Comparator<Task> byIndex = Comparator.comparingLong(Task::getSequence);
+        switch (sort) {
+        case "due":
+            return Comparator.comparing(Query::getTime, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(byIndex);
+        case "priority":
+            return Comparator.comparingInt(Task::getPriority).reversed().thenComparing(byIndex);
+        case "text":
+            return Comparator.comparing(Task::getDescription, String.CASE_INSENSITIVE_ORDER).thenComparing(byIndex);
+        default:
+            return byIndex;
+        }
+    }
+
+    /**
+     * Returns whether results are kept in list order, so a scan may stop once the limit is reached.
+     *
+     * @return true if no sort term other than index was given
+     */
+    public boolean isInListOrder() {
+        return this.sort.equals("index");
+    }
+
+    /**
+     * Returns the type filter as 'T', 'D' or 'E', or null if any type matches.
+     *
+     * @return the type filter
+     */
+    public Character getType() {
+        return this.type;
+    }
+
+    /**
+     * Returns the done filter, or null if both done and undone tasks match.
+     *
+     * @return the done filter
+     */
+    public Boolean getDone() {
+        return this.isDone;
+    }
+
+    /**
+     * Returns the priority filter, or null if any priority matches.
+     *
+     * @return the priority filter
+     */
+    public Integer getPriority() {
+        return this.priority;
+    }
+
+    /**
+     * Returns whether the query filters on the time of the task.
+     *
+     * @return true if a due term was given
+     */
+    public boolean hasTimeRange() {
+        return this.from != null || this.to != null;
+    }
+
+    /**
+     * Returns the earliest time that matches, or null if there is no lower bound.
+     *
+     * @return the lower bound of the time range
+     */
+    public LocalDateTime getFrom() {
+        return this.from;
+    }
+
+    /**
+     * Returns whether a task at exactly the lower bound matches.
+     *
+     * @return true if the lower bound is inclusive
+     */
+    public boolean isFromInclusive() {
+        return this.isFromInclusive;
+    }
+
+    /**
+     * Returns the latest time that matches, or null if there is no upper bound.
+     *
+     * @return the upper bound of the time range
+     */
+    public LocalDateTime getTo() {
+        return this.to;
+    }
+
+    /**
+     * Returns whether a task at exactly the upper bound matches.
+     *
+     * @return true if the upper bound is inclusive
+     */
+    public boolean isToInclusive() {
+        return this.isToInclusive;
+    }
+
+    /**
+     * Returns the lower-cased text terms, all of which must appear in the description.
+     *
+     * @return the text terms
+     */
+    public ArrayList<String> getTexts() {
+        return this.texts;
+    }
+
+    /**
+     * Returns the maximum number of results.
+     *
+     * @return the limit, or Integer.MAX_VALUE if there is none
+     */
+    public int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Returns the type of the task as 'T', 'D' or 'E'.
+     *
+     * @param task the task
+     * @return the type of the task
+     */
+    public static char getType(Task task) {
+        if (task instanceof Deadline) {
+            return 'D';
+        } else if (task instanceof Event) {
+            return 'E';
+        }
+        return 'T';
+    }
+
+    /**
+     * Returns the time of the task used by due terms: the due time of a deadline and the start of an event.
+     *
+     * @param task the task
+     * @return the time of the task, or null for a to-do
+     */
+    public static LocalDateTime getTime(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy();
+        } else if (task instanceof Event) {
+            return ((Event) task).getStart();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the query written back as terms, with dates in full.
+     *
+     * @return the terms of the query
+     */
+    @Override
+    public String toString() {
+        StringBuilder terms = new StringBuilder();
+        if (this.type != null) {
+            terms.append(" type:").append(this.type);
+        }
+        if (this.isDone != null) {
+            terms.append(" done:").append(this.isDone);
+        }
+        if (this.priority != null) {
+            terms.append(" priority:").append(this.priority);
+        }
+        if (this.from != null) {
+            terms.append(" due>").append(this.isFromInclusive ? "=" : "").append(this.from);
+        }
+        if (this.to != null) {
+            terms.append(" due<").append(this.isToInclusive ? "=" : "").append(this.to);
+        }
+        for (String text : this.texts) {
+            terms.append(" text:").append(text);
+        }
+        terms.append(" sort:").append(this.sort);
+        if (this.limit != Integer.MAX_VALUE) {
+            terms.append(" limit:").append(this.limit);
+        }
+        return terms.toString().trim();
+    }
+}
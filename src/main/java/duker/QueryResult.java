@@ -0,0 +1,68 @@
+package duker;
+
+import java.util.ArrayList;
+
+/**
+ * The QueryResult class holds the tasks matched by a query and how they were found.
+ */
+public class QueryResult {
+
+    private ArrayList<Task> tasks;
+    private String accessPath;
+    private int examined;
+    private int taskCount;
+
+    /**
+     * Constructs a QueryResult.
+     *
+     * @param tasks      the matching tasks, in result order
+     * @param accessPath a description of the index or scan used to find candidate tasks
+     * @param examined   the number of candidate tasks checked against the query
+     * @param taskCount  the number of tasks in the list
+     */
+    public QueryResult(ArrayList<Task> tasks, String accessPath, int examined, int taskCount) {
+        assert tasks != null : "Tasks should not be null";
+        assert accessPath != null : "Access path should not be null";
+
+        this.tasks = tasks;
+        this.accessPath = accessPath;
+        this.examined = examined;
+        this.taskCount = taskCount;
+    }
+
+    /**
+     * Returns the matching tasks.
+     *
+     * @return the matching tasks, in result order
+     */
+    public ArrayList<Task> getTasks() {
+        return this.tasks;
+    }
+
+    /**
+     * Returns a description of the index or scan used to find candidate tasks.
+     *
+     * @return the access path
+     */
+    public String getAccessPath() {
+        return this.accessPath;
+    }
+
+    /**
+     * Returns the number of candidate tasks checked against the query.
+     *
+     * @return the number of tasks examined
+     */
+    public int getExamined() {
+        return this.examined;
+    }
+
+    /**
+     * Returns the number of tasks in the list when the query ran.
+     *
+     * @return the number of tasks
+     */
+    public int getTaskCount() {
+        return this.taskCount;
+    }
+}
@@ -0,0 +1,258 @@
+package duker;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+
+/**
+ * The Recurrence class describes how often a recurring task repeats and which of
+ * its occurrences are done.
+ * Occurrences are numbered from 0 and are never stored individually. Done state is kept
+ * as a watermark below which every occurrence is done, except for a sparse set of occurrences
+ * that were marked not done again, plus a sparse set of done occurrences above the watermark.
+ * Marking or unmarking one occurrence therefore changes at most one entry of either set, so the
+ * done state grows with the number of exceptions rather than with the number of occurrences.
+ */
+public class Recurrence {
+
+    private String period;
+    private long periodMinutes;
+    private long completedThrough;
+    private TreeSet<Long> undoneBefore;
+    private TreeSet<Long> doneAfter;
+
+    private Recurrence(String period, long periodMinutes) {
+        this.period = period;
+        this.periodMinutes = periodMinutes;
+        this.completedThrough = 0;
+        this.undoneBefore = new TreeSet<>();
+        this.doneAfter = new TreeSet<>();
+    }
+
+    /**
+     * Parses a recurrence period such as "30m", "12h", "1d" or "2w".
+     *
+     * @param period the period to parse
+     * @return a Recurrence with no occurrences done
+     * @throws IllegalArgumentException if the period is not a positive amount followed by m, h, d or w
+     */
+    public static Recurrence parse(String period) {
+        assert period != null : "Period should not be null";
+
+        String trimmed = period.trim();
+        if (!trimmed.matches("[1-9][0-9]{0,5}[mhdw]")) {
+            throw new IllegalArgumentException(
+                    "Recurrence must be a positive number followed by m, h, d or w, e.g. '1d'.");
+        }
+        long amount = Long.parseLong(trimmed.substring(0, trimmed.length() - 1));
+        long unitMinutes;
+        switch (trimmed.charAt(trimmed.length() - 1)) {
+        case 'm':
+            unitMinutes = 1;
+            break;
+        case 'h':
+            unitMinutes = 60;
+            break;
+        case 'd':
+            unitMinutes = 60 * 24;
+            break;
+        default:
+            unitMinutes = 60 * 24 * 7;
+        }
+        return new Recurrence(trimmed, amount * unitMinutes);
+    }
+
+    /**
+     * Returns a copy of the recurrence with its own done state.
+     *
+     * @return a copy of the recurrence
+     */
+    public Recurrence copy() {
+        Recurrence copy = new Recurrence(this.period, this.periodMinutes);
+        copy.completedThrough = this.completedThrough;
+        copy.undoneBefore.addAll(this.undoneBefore);
+        copy.doneAfter.addAll(this.doneAfter);
+        return copy;
+    }
+
+    /**
+     * Returns the period as it was written, such as "1d".
+     *
+     * @return the period of the recurrence
+     */
+    public String getPeriod() {
+        return this.period;
+    }
+
+    /**
+     * Returns the date and time of an occurrence.
+     *
+     * @param first the date and time of occurrence 0
+     * @param index the number of the occurrence
+     * @return the date and time of the occurrence
+     */
+    public LocalDateTime getOccurrence(LocalDateTime first, long index) {
+        return first.plusMinutes(index * this.periodMinutes);
+    }
+
+    /**
+     * Returns the number of the first occurrence at or after the given time.
+     *
+     * @param first the date and time of occurrence 0
+     * @param time  the time to search from
+     * @return the number of the first occurrence that is not before the time
+     */
+    public long getFirstIndexAtOrAfter(LocalDateTime first, LocalDateTime time) {
+        long minutes = Duration.between(first, time).toMinutes();
+        if (minutes <= 0) {
+            return 0;
+        }
+        return (minutes + this.periodMinutes - 1) / this.periodMinutes;
+    }
+
+    /**
+     * Returns the number of the occurrence that falls exactly on the given time.
+     *
+     * @param first the date and time of occurrence 0
+     * @param time  the date and time of the occurrence
+     * @return the number of the occurrence, or -1 if no occurrence falls on the time
+     */
+    public long getIndexOf(LocalDateTime first, LocalDateTime time) {
+        long minutes = Duration.between(first, time).toMinutes();
+        if (minutes < 0 || minutes % this.periodMinutes != 0) {
+            return -1;
+        }
+        return minutes / this.periodMinutes;
+    }
+
+    /**
+     * Returns the number of the earliest occurrence that is not done.
+     *
+     * @return the number of the first undone occurrence
+     */
+    public long getFirstUndone() {
+        if (!this.undoneBefore.isEmpty()) {
+            return this.undoneBefore.first();
+        }
+        return this.completedThrough;
+    }
+
+    /**
+     * Returns whether an occurrence is done.
+     *
+     * @param index the number of the occurrence
+     * @return true if the occurrence is done, false otherwise
+     */
+    public boolean isDone(long index) {
+        if (index < this.completedThrough) {
+            return !this.undoneBefore.contains(index);
+        }
+        return this.doneAfter.contains(index);
+    }
+
+    /**
+     * Marks an occurrence as done or not done.
+     *
+     * @param index  the number of the occurrence
+     * @param isDone whether the occurrence is done
+     */
+    public void setDone(long index, boolean isDone) {
+        assert index >= 0 : "Occurrence index should not be negative";
+
+        if (isDone) {
+            if (index < this.completedThrough) {
+                this.undoneBefore.remove(index);
+                return;
+            }
+            this.doneAfter.add(index);
+            while (this.doneAfter.remove(this.completedThrough)) {
+                this.completedThrough += 1;
+            }
+        } else if (index < this.completedThrough) {
+            this.undoneBefore.add(index);
+            // the watermark only moves down past exceptions that end right below it
+            while (this.undoneBefore.remove(this.completedThrough - 1)) {
+                this.completedThrough -= 1;
+            }
+        } else {
+            this.doneAfter.remove(index);
+        }
+    }
+
+    /**
+     * Marks the earliest undone occurrence as done.
+     */
+    public void markNextDone() {
+        setDone(getFirstUndone(), true);
+    }
+
+    /**
+     * Marks the latest done occurrence as not done.
+     */
+    public void unmarkLastDone() {
+        if (!this.doneAfter.isEmpty()) {
+            this.doneAfter.pollLast();
+        } else if (this.completedThrough > 0) {
+            setDone(this.completedThrough - 1, false);
+        }
+    }
+
+    /**
+     * Returns the done state in its storage form: the watermark, then the done occurrences above it,
+     * then the occurrences below it that are not done, such as "3", "3;5,7" or "3;5,7;1".
+     *
+     * @return the encoded done state
+     */
+    public String encodeDoneState() {
+        if (this.undoneBefore.isEmpty() && this.doneAfter.isEmpty()) {
+            return String.valueOf(this.completedThrough);
+        }
+        if (this.undoneBefore.isEmpty()) {
+            return this.completedThrough + ";" + join(this.doneAfter);
+        }
+        return this.completedThrough + ";" + join(this.doneAfter) + ";" + join(this.undoneBefore);
+    }
+
+    private static String join(TreeSet<Long> indexes) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (long index : indexes) {
+            joiner.add(String.valueOf(index));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Restores the done state from its storage form.
+     *
+     * @param encoded the done state produced by encodeDoneState
+     */
+    public void decodeDoneState(String encoded) {
+        assert encoded != null : "Encoded done state should not be null";
+
+        String[] parts = encoded.trim().split(";", 3);
+        this.completedThrough = Long.parseLong(parts[0]);
+        this.undoneBefore.clear();
+        this.doneAfter.clear();
+        if (parts.length >= 2 && !parts[1].isEmpty()) {
+            for (String index : parts[1].split(",")) {
+                setDone(Long.parseLong(index), true);
+            }
+        }
+        if (parts.length == 3 && !parts[2].isEmpty()) {
+            for (String index : parts[2].split(",")) {
+                setDone(Long.parseLong(index), false);
+            }
+        }
+    }
+
+    /**
+     * Returns a string representation of the recurrence, such as "every 1d".
+     *
+     * @return a string representation of the recurrence
+     */
+    @Override
+    public String toString() {
+        return "every " + this.period;
+    }
+}
@@ -0,0 +1,39 @@
+package duker;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Represents a task that stores a single recurrence rule instead of one task per occurrence.
+ * Occurrences are created as plain tasks only when they are asked for.
+ */
+public interface Recurring {
+
+    /**
+     * Returns the recurrence rule of the task.
+     *
+     * @return the recurrence of the task
+     */
+    Recurrence getRecurrence();
+
+    /**
+     * Returns the earliest occurrences of the task that fall within the given time range,
+     * stopping once the limit is reached so that a long range of a frequent task stays bounded.
+     *
+     * @param from  the start of the range, inclusive
+     * @param to    the end of the range, exclusive
+     * @param limit the largest number of occurrences to return
+     * @return at most limit occurrences in the range, in time order
+     */
+    ArrayList<Task> getOccurrencesBetween(LocalDateTime from, LocalDateTime to, int limit);
+
+    /**
+     * Marks the occurrence at the given time as done or not done.
+     *
+     * @param occurrence the date and time of the occurrence
+     * @param isDone     whether the occurrence is done
+     * @return the occurrence after the change
+     * @throws DukerException if no occurrence falls on the given time
+     */
+    Task markOccurrence(LocalDateTime occurrence, boolean isDone) throws DukerException;
+}
@@ -0,0 +1,107 @@
+package duker;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Represents a deadline that repeats at a fixed period, starting from its first due date and time.
+ * Marking it as done completes its earliest undone occurrence.
+ */
+public class RecurringDeadline extends Deadline implements Recurring {
+
+    private Recurrence recurrence;
+
+    /**
+     * Constructs a RecurringDeadline with the specified description, first due date and time,
+     * and recurrence.
+     *
+     * @param description the description of the task
+     * @param by          the due date and time of the first occurrence
+     * @param recurrence  how often the deadline repeats
+     */
+    public RecurringDeadline(String description, LocalDateTime by, Recurrence recurrence) {
+        super(description, by);
+        assert recurrence != null : "Recurrence should not be null";
+
+        this.recurrence = recurrence;
+    }
+
+    /**
+     * Returns a string representation of the recurring deadline,
+     * showing its earliest undone occurrence and its recurrence.
+     *
+     * @return a string representation of the recurring deadline
+     */
+    @Override
+    public String toString() {
+        return getOccurrence(this.recurrence.getFirstUndone()).toString() + " (" + this.recurrence + ")";
+    }
+
+    /**
+     * Marks the earliest undone occurrence as done.
+     */
+    @Override
+    public void markAsDone() {
+        this.recurrence.markNextDone();
+        this.version += 1;
+    }
+
+    /**
+     * Marks the latest done occurrence as not done.
+     */
+    @Override
+    public void unmarkAsUndone() {
+        this.recurrence.unmarkLastDone();
+        this.version += 1;
+    }
+
+    /**
+     * Returns a copy of the task with its own copy of the recurrence.
+     *
+     * @return a copy of the task
+     */
+    @Override
+    public RecurringDeadline copy() {
+        RecurringDeadline copy = (RecurringDeadline) super.copy();
+        copy.recurrence = this.recurrence.copy();
+        return copy;
+    }
+
+    @Override
+    public Recurrence getRecurrence() {
+        return this.recurrence;
+    }
+
+    @Override
+    public ArrayList<Task> getOccurrencesBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        ArrayList<Task> occurrences = new ArrayList<>();
+        long index = this.recurrence.getFirstIndexAtOrAfter(this.by, from);
+        while (occurrences.size() < limit && this.recurrence.getOccurrence(this.by, index).isBefore(to)) {
+            occurrences.add(getOccurrence(index));
+            index += 1;
+        }
+        return occurrences;
+    }
+
+    @Override
+    public Task markOccurrence(LocalDateTime occurrence, boolean isDone) throws DukerException {
+        long index = this.recurrence.getIndexOf(this.by, occurrence);
+        if (index < 0) {
+            throw new DukerException("There is no occurrence of this task on that date-time.");
+        }
+        this.recurrence.setDone(index, isDone);
+        this.version += 1;
+        return getOccurrence(index);
+    }
+
+    private Deadline getOccurrence(long index) {
+        Deadline occurrence = new Deadline(this.description, this.recurrence.getOccurrence(this.by, index));
+        if (this.recurrence.isDone(index)) {
+            occurrence.markAsDone();
+        }
+        if (this.priority == 1) {
+            occurrence.markAsHighPriority();
+        }
+        return occurrence;
+    }
+}
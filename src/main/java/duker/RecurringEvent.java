@@ -0,0 +1,112 @@
+package duker;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Represents an event that repeats at a fixed period, starting from its first start and end.
+ * Marking it as done completes its earliest undone occurrence.
+ */
+public class RecurringEvent extends Event implements Recurring {
+
+    private Recurrence recurrence;
+
+    /**
+     * Constructs a RecurringEvent with the specified description, first start and end,
+     * and recurrence.
+     *
+     * @param description the description of the task
+     * @param start       the start date and time of the first occurrence
+     * @param end         the end date and time of the first occurrence
+     * @param recurrence  how often the event repeats
+     */
+    public RecurringEvent(String description, LocalDateTime start, LocalDateTime end, Recurrence recurrence) {
+        super(description, start, end);
+        assert recurrence != null : "Recurrence should not be null";
+
+        this.recurrence = recurrence;
+    }
+
+    /**
+     * Returns a string representation of the recurring event,
+     * showing its earliest undone occurrence and its recurrence.
+     *
+     * @return a string representation of the recurring event
+     */
+    @Override
+    public String toString() {
+        return getOccurrence(this.recurrence.getFirstUndone()).toString() + " (" + this.recurrence + ")";
+    }
+
+    /**
+     * Marks the earliest undone occurrence as done.
+     */
+    @Override
+    public void markAsDone() {
+        this.recurrence.markNextDone();
+        this.version += 1;
+    }
+
+    /**
+     * Marks the latest done occurrence as not done.
+     */
+    @Override
+    public void unmarkAsUndone() {
+        this.recurrence.unmarkLastDone();
+        this.version += 1;
+    }
+
+    /**
+     * Returns a copy of the task with its own copy of the recurrence.
+     *
+     * @return a copy of the task
+     */
+    @Override
+    public RecurringEvent copy() {
+        RecurringEvent copy = (RecurringEvent) super.copy();
+        copy.recurrence = this.recurrence.copy();
+        return copy;
+    }
+
+    @Override
+    public Recurrence getRecurrence() {
+        return this.recurrence;
+    }
+
+    @Override
+    public ArrayList<Task> getOccurrencesBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        ArrayList<Task> occurrences = new ArrayList<>();
+        long index = this.recurrence.getFirstIndexAtOrAfter(this.end, from);
+        if (this.recurrence.getOccurrence(this.end, index).equals(from)) {
+            index += 1;
+        }
+        while (occurrences.size() < limit && this.recurrence.getOccurrence(this.start, index).isBefore(to)) {
+            occurrences.add(getOccurrence(index));
+            index += 1;
+        }
+        return occurrences;
+    }
+
+    @Override
+    public Task markOccurrence(LocalDateTime occurrence, boolean isDone) throws DukerException {
+        long index = this.recurrence.getIndexOf(this.start, occurrence);
+        if (index < 0) {
+            throw new DukerException("There is no occurrence of this task on that date-time.");
+        }
+        this.recurrence.setDone(index, isDone);
+        this.version += 1;
+        return getOccurrence(index);
+    }
+
+    private Event getOccurrence(long index) {
+        Event occurrence = new Event(this.description, this.recurrence.getOccurrence(this.start, index),
+                this.recurrence.getOccurrence(this.end, index));
+        if (this.recurrence.isDone(index)) {
+            occurrence.markAsDone();
+        }
+        if (this.priority == 1) {
+            occurrence.markAsHighPriority();
+        }
+        return occurrence;
+    }
+}
@@ -0,0 +1,224 @@
+package duker;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.Consumer;
+
+/**
+ * The ReminderScheduler class sends a reminder a set number of minutes before a deadline is due or
+ * an event starts. It listens to a TaskList, so its timers are set while the tasks are loaded and
+ * follow every add, delete, mark and unmark; done tasks and tasks already due are not reminded of.
+ * Recurring tasks are reminded of their next undone occurrence, and of the one after once that
+ * reminder has been sent.
+ * <p>
+ * Timers are kept in a TimerWheel with one tick per minute, so a background thread only has to wake
+ * once a minute and touch the timers that are due, however many tasks there are. Reminders are
+ * handed to the delivery set with setDelivery on that thread, after the timers are updated.
+ * <p>
+ * The time of a reminder is worked out when the task is added, while the task list is locked, and a
+ * recurring task is copied then. The background thread only reads these, so it never reads a task
+ * while a command changes it; a change to a task removes and adds it again, which sets a new timer.
+ */
+public class ReminderScheduler implements TaskListener, AutoCloseable {
+
+    private static final long MAX_SKIPPED_OCCURRENCES = 1000;
+    private static final DateTimeFormatter REMINDER_FORMAT = DateTimeFormatter.ofPattern("d MMM yyyy hh:mm a");
+
+    private final long leadMinutes;
+    private final Clock clock;
+    private final TimerWheel<Reminder> wheel;
+    private final HashMap<Long, TimerWheel.Timer<Reminder>> timers;
+    private Consumer<String> delivery;
+    private Thread thread;
+
+    /**
+     * Constructs a ReminderScheduler that reminds the given number of minutes ahead, using the given clock.
+     *
+     * @param leadMinutes how many minutes before a task is due it is reminded of
+     * @param clock       the clock that gives the current time
+     */
+    public ReminderScheduler(long leadMinutes, Clock clock) {
+        assert leadMinutes >= 0 : "Lead time should not be negative";
+        assert clock != null : "Clock should not be null";
+
+        this.leadMinutes = leadMinutes;
+        this.clock = clock;
+        this.wheel = new TimerWheel<>(getCurrentMinute() + 1);
+        this.timers = new HashMap<>();
+        this.delivery = message -> { };
+    }
+
+    /**
+     * Sets where reminders are sent. The delivery is called on the scheduler thread.
+     *
+     * @param delivery the action that shows a reminder to the user
+     */
+    public synchronized void setDelivery(Consumer<String> delivery) {
+        assert delivery != null : "Delivery should not be null";
+
+        this.delivery = delivery;
+    }
+
+    /**
+     * Starts a daemon thread that sends the reminders that are due at the start of every minute.
+     */
+    public void start() {
+        this.thread = new Thread(this::run, "duker-reminders");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            long millis = this.clock.millis();
+            try {
+                Thread.sleep(60_000 - millis % 60_000);
+            } catch (InterruptedException e) {
+                return;
+            }
+            sendDueReminders();
+        }
+    }
+
+    /**
+     * Sends the reminders that are due by the current minute.
+     *
+     * @return the number of reminders sent
+     */
+    public int sendDueReminders() {
+        ArrayList<String> messages = new ArrayList<>();
+        Consumer<String> delivery;
+        synchronized (this) {
+            this.wheel.advanceTo(getCurrentMinute(), reminder -> messages.add(remind(reminder)));
+            delivery = this.delivery;
+        }
+        for (String message : messages) {
+            delivery.accept(message);
+        }
+        Metrics.add("reminders.sent", messages.size());
+        return messages.size();
+    }
+
+    /**
+     * Returns the number of tasks with a reminder waiting to be sent.
+     *
+     * @return the number of pending reminders
+     */
+    public synchronized int getPendingCount() {
+        return this.wheel.size();
+    }
+
+    @Override
+    public void taskAdded(Task task) {
+        LocalDateTime time = getNextTime(task, LocalDateTime.now(this.clock));
+        if (time == null) {
+            return;
+        }
+        Task recurringTask = task instanceof Recurring ? task.copy() : null;
+        Reminder reminder = new Reminder(task.getSequence(), task.getDescription(), task instanceof Event, time,
+                recurringTask);
+        synchronized (this) {
+            schedule(reminder);
+        }
+    }
+
+    @Override
+    public synchronized void taskRemoved(Task task) {
+        TimerWheel.Timer<Reminder> timer = this.timers.remove(task.getSequence());
+        if (timer != null) {
+            this.wheel.cancel(timer);
+        }
+    }
+
+    /**
+     * Stops the scheduler thread.
+     */
+    @Override
+    public void close() {
+        if (this.thread != null) {
+            this.thread.interrupt();
+        }
+    }
+
+    private void schedule(Reminder reminder) {
+        long dueMinute = toEpochMinutes(reminder.time) - this.leadMinutes;
+        this.timers.put(reminder.sequence, this.wheel.schedule(reminder, dueMinute));
+    }
+
+    /**
+     * Returns the message for a reminder that is due, and sets the timer for the next occurrence
+     * of a recurring task from its copy.
+     */
+    private String remind(Reminder reminder) {
+        this.timers.remove(reminder.sequence);
+        String verb = reminder.isEvent ? " starts at " : " is due at ";
+        String message = "Reminder: " + reminder.description + verb + reminder.time.format(REMINDER_FORMAT);
+        if (reminder.recurringTask != null) {
+            LocalDateTime following = getNextTime(reminder.recurringTask, reminder.time.plusMinutes(1));
+            if (following != null) {
+                schedule(new Reminder(reminder.sequence, reminder.description, reminder.isEvent, following,
+                        reminder.recurringTask));
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Returns the time the task is due or starts at, or that of its first undone occurrence at or
+     * after the given time if it recurs, or null if it has no time, is done or is already past.
+     */
+    private LocalDateTime getNextTime(Task task, LocalDateTime from) {
+        LocalDateTime first;
+        if (task instanceof Deadline) {
+            first = ((Deadline) task).getBy();
+        } else if (task instanceof Event) {
+            first = ((Event) task).getStart();
+        } else {
+            return null;
+        }
+        if (!(task instanceof Recurring)) {
+            return task.isDone() || first.isBefore(from) ? null : first;
+        }
+        Recurrence recurrence = ((Recurring) task).getRecurrence();
+        long index = Math.max(recurrence.getFirstIndexAtOrAfter(first, from), recurrence.getFirstUndone());
+        for (long skipped = 0; skipped < MAX_SKIPPED_OCCURRENCES; skipped++) {
+            if (!recurrence.isDone(index + skipped)) {
+                return recurrence.getOccurrence(first, index + skipped);
+            }
+        }
+        return null;
+    }
+
+    private long getCurrentMinute() {
+        return toEpochMinutes(LocalDateTime.now(this.clock));
+    }
+
+    private static long toEpochMinutes(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * A reminder waiting to be sent, holding everything needed to send it without reading the task.
+     * A recurring task is kept as a copy that nothing else changes, to find its following occurrence.
+     */
+    private static class Reminder {
+        private final long sequence;
+        private final String description;
+        private final boolean isEvent;
+        private final LocalDateTime time;
+        private final Task recurringTask;
+
+        private Reminder(long sequence, String description, boolean isEvent, LocalDateTime time,
+                Task recurringTask) {
+            this.sequence = sequence;
+            this.description = description;
+            this.isEvent = isEvent;
+            this.time = time;
+            this.recurringTask = recurringTask;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package duker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The RenderCache class remembers the string representation of recently printed tasks.
+ * Entries are keyed by task identity, since tasks do not override equals, and hold the version
+ * of the task they were rendered at, so a task that was changed since is rendered again.
+ * The cache is bounded; once it is full, the least recently printed task is evicted. A run of renders
+ * longer than the capacity, such as printing a whole large list, would evict every string before it is
+ * read again, so such runs should not go through the cache; see TaskList.isRenderCached.
+ * As a TaskListener of the task list the tasks belong to, it drops a task as soon as it is removed
+ * from the list, so deleted and archived tasks are not kept alive by the cache.
+ */
+public class RenderCache implements TaskListener {
+
+    private static final int DEFAULT_CAPACITY = 1 << 17;
+
+    private final int capacity;
+    private LinkedHashMap<Task, Entry> entries;
+    private long lookups;
+    private long hits;
+
+    /**
+     * Constructs a RenderCache with the default capacity.
+     */
+    public RenderCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a RenderCache that holds the strings of at most the given number of tasks.
+     *
+     * @param capacity the maximum number of tasks to remember
+     */
+    public RenderCache(int capacity) {
+        assert capacity > 0 : "Capacity should be positive";
+
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Task, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the string representation of the task, reusing the one from an earlier call
+     * if the task has not changed since.
+     *
+     * @param task the task to render
+     * @return the same string as task.toString()
+     */
+    public synchronized String render(Task task) {
+        assert task != null : "Task should not be null";
+
+        this.lookups += 1;
+        Entry entry = this.entries.get(task);
+        if (entry != null && entry.version == task.getVersion()) {
+            this.hits += 1;
+            return entry.text;
+        }
+        String text = task.toString();
+        this.entries.put(task, new Entry(task.getVersion(), text));
+        return text;
+    }
+
+    @Override
+    public void taskAdded(Task task) {
+    }
+
+    @Override
+    public synchronized void taskRemoved(Task task) {
+        this.entries.remove(task);
+    }
+
+    /**
+     * Returns the largest number of tasks whose strings are remembered.
+     *
+     * @return the capacity of the cache
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Returns the number of tasks whose strings are remembered.
+     *
+     * @return the number of cached entries
+     */
+    public synchronized int getSize() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the number of renders answered from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of renders that had to build the string.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMisses() {
+        return this.lookups - this.hits;
+    }
+
+    /**
+     * Returns a report of the size and hit rate of the cache.
+     *
+     * @return the report of the cache's effectiveness
+     */
+    public synchronized String getReport() {
+        return "Render cache: " + this.entries.size() + " entries, " +
+                this.hits + " hits, " + (this.lookups - this.hits) + " misses";
+    }
+
+    /**
+     * A rendered string and the task version it was rendered at.
+     */
+    private static class Entry {
+        private final int version;
+        private final String text;
+
+        private Entry(int version, String text) {
+            this.version = version;
+            this.text = text;
+        }
+    }
+}
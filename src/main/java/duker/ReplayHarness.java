@@ -0,0 +1,139 @@
+package duker;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The ReplayHarness class replays a command trace, such as one written by WorkloadGenerator, through
+ * Duker.getResponse, and reports the latency percentiles and throughput of each command type.
+ * It is configured with "--name value" options:
+ * <ul>
+ *   <li>--data: the data file to load (data/duker.txt)</li>
+ *   <li>--trace: the command trace to replay (data/trace.txt)</li>
+ *   <li>--warmup: the number of commands replayed before measuring starts (1000)</li>
+ * </ul>
+ * The data file is changed by the commands in the trace, so generate it again before the next run.
+ */
+public class ReplayHarness {
+
+    private static final int DEFAULT_WARMUP = 1000;
+
+    private Duker duker;
+    private TreeMap<String, LatencyHistogram> latencies;
+    private long elapsedNanos;
+    private int commandCount;
+
+    /**
+     * Constructs a ReplayHarness that sends commands to the given Duker instance.
+     *
+     * @param duker the Duker instance to replay commands on
+     */
+    public ReplayHarness(Duker duker) {
+        assert duker != null : "Duker instance should not be null";
+
+        this.duker = duker;
+        this.latencies = new TreeMap<>();
+    }
+
+    /**
+     * Replays a trace as configured by the command-line options and prints the report.
+     *
+     * @param args the options, as pairs of "--name" and value
+     * @throws DukerException if an option is unknown
+     * @throws IOException    if the trace cannot be read
+     */
+    public static void main(String[] args) throws DukerException, IOException {
+        String dataPath = "data/duker.txt";
+        String tracePath = "data/trace.txt";
+        int warmup = DEFAULT_WARMUP;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+            case "--data":
+                dataPath = args[i + 1];
+                break;
+            case "--trace":
+                tracePath = args[i + 1];
+                break;
+            case "--warmup":
+                warmup = Integer.parseInt(args[i + 1]);
+                break;
+            default:
+                throw new DukerException("Unknown option " + args[i]);
+            }
+        }
+
+        List<String> commands = Files.readAllLines(Path.of(tracePath), StandardCharsets.UTF_8);
+        Path data = Path.of(dataPath).toAbsolutePath();
+        long startTime = System.nanoTime();
+        try (Duker duker = new Duker(data.getParent().toString() + "/", data.getFileName().toString())) {
+            System.out.println("Loaded " + data + " in " + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+            ReplayHarness harness = new ReplayHarness(duker);
+            int measuredFrom = Math.min(warmup, commands.size());
+            harness.replay(commands.subList(0, measuredFrom), false);
+            harness.replay(commands.subList(measuredFrom, commands.size()), true);
+            System.out.println(harness.getReport());
+        }
+    }
+
+    /**
+     * Sends each command to Duker in turn.
+     *
+     * @param commands   the commands to replay
+     * @param isMeasured whether the latencies of the commands are recorded
+     */
+    public void replay(List<String> commands, boolean isMeasured) {
+        long startTime = System.nanoTime();
+        for (String command : commands) {
+            long commandStart = System.nanoTime();
+            this.duker.getResponse(command);
+            long duration = System.nanoTime() - commandStart;
+            if (isMeasured) {
+                String type = command.split(" ", 2)[0];
+                this.latencies.computeIfAbsent(type, t -> new LatencyHistogram()).record(duration);
+            }
+        }
+        if (isMeasured) {
+            this.elapsedNanos += System.nanoTime() - startTime;
+            this.commandCount += commands.size();
+        }
+    }
+
+    /**
+     * Returns the recorded latencies by command type.
+     *
+     * @return the latency histogram of each command type
+     */
+    public Map<String, LatencyHistogram> getLatencies() {
+        return this.latencies;
+    }
+
+    /**
+     * Returns a report with one line per command type and a line for the whole trace.
+     * Throughput per type is the number of commands of that type divided by the time spent on them.
+     *
+     * @return the report
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-12s %8s %10s %10s %10s %10s %12s%n",
+                "command", "count", "p50 us", "p99 us", "p999 us", "max us", "ops/s"));
+        for (Map.Entry<String, LatencyHistogram> entry : this.latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            double seconds = histogram.getMean() * (double) histogram.getCount() / 1e9;
+            report.append(String.format("%-12s %8d %10.1f %10.1f %10.1f %10.1f %12.0f%n",
+                    entry.getKey(), histogram.getCount(),
+                    histogram.getPercentile(50) / 1e3, histogram.getPercentile(99) / 1e3,
+                    histogram.getPercentile(99.9) / 1e3, histogram.getMax() / 1e3,
+                    seconds == 0 ? 0 : histogram.getCount() / seconds));
+        }
+        double totalSeconds = this.elapsedNanos / 1e9;
+        report.append(String.format("total %d commands in %.2f s, %.0f commands/s",
+                this.commandCount, totalSeconds, totalSeconds == 0 ? 0 : this.commandCount / totalSeconds));
+        return report.toString();
+    }
+}
@@ -0,0 +1,121 @@
+package duker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A TaskStore for concurrent use, in which readers never block and never see a half-applied change.
+ * The tasks are kept in an array together with the number of them in use, published through a volatile
+ * field. The part of the array in use is never modified once published. Adding a task writes it past
+ * that part and publishes a larger count, growing the array by doubling, so that loading n tasks costs
+ * O(n); removing or replacing a task copies the array and publishes the copy. Changes are serialized by
+ * the store.
+ */
+public class SnapshotTaskStore implements TaskStore {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private volatile Published published;
+
+    /**
+     * Constructs an empty SnapshotTaskStore.
+     */
+    public SnapshotTaskStore() {
+        this.published = new Published(new Task[0], 0);
+    }
+
+    @Override
+    public int size() {
+        return this.published.size;
+    }
+
+    @Override
+    public Task get(int index) {
+        Published current = this.published;
+        return current.tasks[Objects.checkIndex(index, current.size)];
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        assert task != null : "Task to add should not be null";
+
+        Published current = this.published;
+        Task[] tasks = current.tasks;
+        if (current.size == tasks.length) {
+            tasks = Arrays.copyOf(tasks, Math.max(MIN_CAPACITY, tasks.length * 2));
+        }
+        // the slot is past every published count of this array, so no reader can see it yet
+        tasks[current.size] = task;
+        this.published = new Published(tasks, current.size + 1);
+    }
+
+    @Override
+    public synchronized Task remove(int index) {
+        Published current = this.published;
+        Task task = current.tasks[Objects.checkIndex(index, current.size)];
+        Task[] updated = new Task[current.size - 1];
+        System.arraycopy(current.tasks, 0, updated, 0, index);
+        System.arraycopy(current.tasks, index + 1, updated, index, current.size - index - 1);
+        this.published = new Published(updated, updated.length);
+        return task;
+    }
+
+    @Override
+    public synchronized void set(int index, Task task) {
+        assert task != null : "Task to set should not be null";
+
+        Published current = this.published;
+        Objects.checkIndex(index, current.size);
+        Task[] updated = Arrays.copyOf(current.tasks, current.size);
+        updated[index] = task;
+        this.published = new Published(updated, updated.length);
+    }
+
+    /**
+     * Returns a copy of the tasks, since the published array must never be modified.
+     *
+     * @return a new ArrayList of the tasks
+     */
+    @Override
+    public ArrayList<Task> toArrayList() {
+        Published current = this.published;
+        return new ArrayList<>(Arrays.asList(current.tasks).subList(0, current.size));
+    }
+
+    /**
+     * Returns the part of the currently published array in use as a read-only list, without copying it.
+     *
+     * @return a read-only list that never changes
+     */
+    @Override
+    public List<Task> snapshot() {
+        Published current = this.published;
+        return Collections.unmodifiableList(Arrays.asList(current.tasks).subList(0, current.size));
+    }
+
+    /**
+     * Returns true, since snapshots share Task objects with the store.
+     *
+     * @return true
+     */
+    @Override
+    public boolean sharesTasksWithSnapshots() {
+        return true;
+    }
+
+    /**
+     * An array of tasks and the number of them in use, which are published together.
+     */
+    private static class Published {
+        private final Task[] tasks;
+        private final int size;
+
+        private Published(Task[] tasks, int size) {
+            this.tasks = tasks;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package duker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The SortedView class keeps the tasks of a task list in a fixed order, so that a page of the sorted
+ * list can be read without sorting the list again. It is a two-level B-tree: the tasks are kept in
+ * sorted chunks of at most MAX_CHUNK_SIZE tasks, and a task is placed by a binary search over the last
+ * task of each chunk and then within its chunk. Adding or removing a task moves at most one chunk's
+ * worth of references, and a page is found by skipping whole chunks.
+ * <p>
+ * The view is only built the first time it is read, and is then kept up to date as a TaskListener.
+ * Its methods lock the view, so that pages may be read while the list is being changed; see isBuilt.
+ * A view holds every task of the list, so it is only kept for stores that keep task identity; a page
+ * of another store is picked from the list when it is read, by sortPage.
+ * The order must tell every two tasks apart, such as by ending with their sequence numbers, since a
+ * removed task is found by the order rather than by identity.
+ */
+public class SortedView implements TaskListener {
+
+    private static final int MAX_CHUNK_SIZE = 1024;
+
+    private final String name;
+    private final Comparator<Task> order;
+    private ArrayList<ArrayList<Task>> chunks;
+    private int size;
+    private boolean isBuilt;
+
+    /**
+     * Constructs a SortedView that is not built yet.
+     *
+     * @param name  the name of the order, for metrics
+     * @param order the order of the tasks, which must tell every two tasks apart
+     */
+    public SortedView(String name, Comparator<Task> order) {
+        assert name != null && order != null : "Name and order should not be null";
+
+        this.name = name;
+        this.order = order;
+        this.chunks = new ArrayList<>();
+        this.size = 0;
+        this.isBuilt = false;
+    }
+
+    @Override
+    public synchronized void taskAdded(Task task) {
+        if (!this.isBuilt) {
+            return;
+        }
+        if (this.chunks.isEmpty()) {
+            this.chunks.add(new ArrayList<>());
+        }
+        int chunkIndex = findChunk(task);
+        ArrayList<Task> chunk = this.chunks.get(chunkIndex);
+        int position = Collections.binarySearch(chunk, task, this.order);
+        assert position < 0 : "Task should not be in the view already";
+        chunk.add(-position - 1, task);
+        this.size += 1;
+        if (chunk.size() > MAX_CHUNK_SIZE) {
+            List<Task> upperHalf = chunk.subList(chunk.size() / 2, chunk.size());
+            this.chunks.add(chunkIndex + 1, new ArrayList<>(upperHalf));
+            upperHalf.clear();
+        }
+    }
+
+    @Override
+    public synchronized void taskRemoved(Task task) {
+        if (!this.isBuilt || this.chunks.isEmpty()) {
+            return;
+        }
+        int chunkIndex = findChunk(task);
+        ArrayList<Task> chunk = this.chunks.get(chunkIndex);
+        int position = Collections.binarySearch(chunk, task, this.order);
+        if (position < 0) {
+            return;
+        }
+        chunk.remove(position);
+        this.size -= 1;
+        if (chunk.isEmpty()) {
+            this.chunks.remove(chunkIndex);
+        }
+    }
+
+    /**
+     * Returns the tasks at the given positions of the sorted list.
+     *
+     * @param from  the 0-based position of the first task to return
+     * @param count the largest number of tasks to return
+     * @param tasks the tasks in list order, used to build the view on first use
+     * @return the tasks from that position on, in order, fewer if the list ends first
+     */
+    public synchronized ArrayList<Task> getPage(int from, int count, List<Task> tasks) {
+        assert from >= 0 && count >= 0 : "Page should not be negative";
+        assert tasks != null : "Tasks should not be null";
+
+        ensureBuilt(tasks);
+        ArrayList<Task> page = new ArrayList<>(Math.min(count, Math.max(0, this.size - from)));
+        int skipped = 0;
+        for (ArrayList<Task> chunk : this.chunks) {
+            if (page.size() >= count) {
+                break;
+            }
+            if (skipped + chunk.size() <= from) {
+                skipped += chunk.size();
+                continue;
+            }
+            int start = Math.max(0, from - skipped);
+            int end = Math.min(chunk.size(), start + count - page.size());
+            page.addAll(chunk.subList(start, end));
+            skipped += chunk.size();
+        }
+        return page;
+    }
+
+    /**
+     * Returns the tasks at the given positions of the tasks sorted in the given order, without keeping
+     * a sorted copy of the list. Only the first from + count tasks are kept while the list is read, in a
+     * heap whose worst task is replaced by any better one, so a page near the start costs one pass over
+     * the list.
+     *
+     * @param tasks the tasks in list order
+     * @param order the order of the tasks, which must tell every two tasks apart
+     * @param from  the 0-based position of the first task to return
+     * @param count the largest number of tasks to return
+     * @return the tasks from that position on, in order, fewer if the list ends first
+     */
+    public static ArrayList<Task> sortPage(List<Task> tasks, Comparator<Task> order, int from, int count) {
+        assert from >= 0 && count >= 0 : "Page should not be negative";
+        assert tasks != null && order != null : "Tasks and order should not be null";
+
+        int kept = (int) Math.min(tasks.size(), (long) from + count);
+        if (from >= kept) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Task> first = new PriorityQueue<>(kept, order.reversed());
+        for (Task task : tasks) {
+            if (first.size() < kept) {
+                first.add(task);
+            } else if (order.compare(task, first.peek()) < 0) {
+                first.poll();
+                first.add(task);
+            }
+        }
+        ArrayList<Task> sorted = new ArrayList<>(first);
+        sorted.sort(order);
+        return new ArrayList<>(sorted.subList(from, kept));
+    }
+
+    /**
+     * Returns the number of tasks in the view, or 0 if it is not built yet.
+     *
+     * @return the number of tasks
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether the view has been built. Until it is, reading a page builds it from the tasks it is
+     * given, so the list must not change between reading those tasks and the end of the read, or the change
+     * is missed.
+     *
+     * @return true if the view has been built, false otherwise
+     */
+    public synchronized boolean isBuilt() {
+        return this.isBuilt;
+    }
+
+    /**
+     * Returns the index of the chunk a task belongs in: the first whose last task is not before it,
+     * or the last chunk if the task comes after every chunk.
+     */
+    private int findChunk(Task task) {
+        int low = 0;
+        int high = this.chunks.size() - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            ArrayList<Task> chunk = this.chunks.get(middle);
+            if (this.order.compare(chunk.get(chunk.size() - 1), task) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void ensureBuilt(List<Task> tasks) {
+        if (this.isBuilt) {
+            return;
+        }
+        IndexRebuildEvent event = new IndexRebuildEvent();
+        event.begin();
+        ArrayList<Task> sorted = new ArrayList<>(tasks);
+        sorted.sort(this.order);
+        // chunks start half full, so that adds split them only after many changes
+        int chunkSize = MAX_CHUNK_SIZE / 2;
+        for (int start = 0; start < sorted.size(); start += chunkSize) {
+            this.chunks.add(new ArrayList<>(sorted.subList(start, Math.min(sorted.size(), start + chunkSize))));
+        }
+        this.size = sorted.size();
+        this.isBuilt = true;
+        Metrics.increment("query.index.builds");
+        event.end();
+        if (event.shouldCommit()) {
+            event.index = "sort." + this.name;
+            event.taskCount = tasks.size();
+            event.commit();
+        }
+    }
+}
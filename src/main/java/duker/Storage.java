@@ -2,10 +2,27 @@ package duker;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
 
 /**
  * The Storage class is responsible for handling file operations such as
@@ -14,8 +31,29 @@ import java.io.IOException;
  */
 public class Storage {
 
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final int FINGERPRINT_BLOCK_SIZE = 4096;
+    private static final long MODIFIED_TIME_RESOLUTION_MILLIS = 2000;
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final long SNAPSHOT_DELAY_MILLIS = 5000;
+    private static final ScheduledExecutorService SNAPSHOT_WRITER = Executors.newSingleThreadScheduledExecutor(
+            action -> {
+                Thread thread = new Thread(action, "duker-snapshot-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     private String dataDir;
     private String filePath;
+    private long knownLength;
+    private long knownFingerprint;
+    private CRC32C knownChecksum;
+    private volatile long seenLength;
+    private volatile long seenModified;
+    private volatile long seenAt;
+    private TaskList snapshotSource;
+    private ScheduledFuture<?> pendingSnapshot;
+    private boolean isSnapshotCurrent;
 
     /**
      * Constructs a new Storage instance with the specified data directory
@@ -30,6 +68,46 @@ public class Storage {
 
         this.dataDir = dataDir;
         this.filePath = filePath;
+        this.knownLength = -1;
+    }
+
+    /**
+     * Returns the directory where the data file is stored.
+     *
+     * @return the path of the data directory
+     */
+    public Path getDirectory() {
+        return Path.of(this.dataDir);
+    }
+
+    /**
+     * Returns the name of the data file within the data directory.
+     *
+     * @return the name of the data file
+     */
+    public String getFileName() {
+        return this.filePath;
+    }
+
+    /**
+     * Returns whether the file may have changed since this Storage last saw it, judging only by its
+     * length and modification time. It reads no task list state, so it can be called without holding
+     * the write lock of the task list, to skip taking the lock when there is nothing to load.
+     *
+     * @return true if loadAppended may find changes, false if the file is certainly unchanged
+     */
+    public boolean isChangedSinceSeen() {
+        File file = new File(this.dataDir + this.filePath);
+        return isChangedSinceSeen(file.length(), file.lastModified());
+    }
+
+    /**
+     * Returns whether a file of the given length and modification time may differ from the one last seen.
+     * A file last modified within one tick of the time it was seen may have been rewritten since.
+     */
+    private boolean isChangedSinceSeen(long length, long modified) {
+        return length != this.seenLength || modified != this.seenModified ||
+                modified >= this.seenAt - MODIFIED_TIME_RESOLUTION_MILLIS;
     }
 
     /**
@@ -43,6 +121,10 @@ public class Storage {
         assert taskList != null : "TaskList should not be null";
         assert parser != null : "Parser should not be null";
 
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
+        long bytesRead = 0;
         try {
             File fileDir = new File(this.dataDir);
             if (!fileDir.exists()) {
@@ -52,15 +134,327 @@ public class Storage {
             if (!file.exists()) {
                 boolean isFileCreated = file.createNewFile();
             }
-            BufferedReader reader = new BufferedReader(new FileReader(this.dataDir + this.filePath));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                taskList.load(parser.convertStringToTask(line));
+            long modified = file.lastModified();
+            CRC32C checksum = new CRC32C();
+            if (isSnapshotEnabled() && loadSnapshot(file, taskList, parser, checksum)) {
+                rememberFileState(file, file.length(), modified, checksum);
+                recordOperation(event, "snapshot", file.length(), 0, startTime);
+                return;
             }
-            reader.close();
+            checksum.reset();
+            bytesRead = loadLines(file, 0, true, checksum, line -> taskList.load(parser.convertStringToTask(line)));
+            rememberFileState(file, bytesRead, modified, checksum);
+            scheduleSnapshot(taskList);
         } catch (IOException e) {
+            this.knownLength = -1;
             System.out.println(e.getMessage());
         }
+        recordOperation(event, "load", bytesRead, 0, startTime);
+    }
+
+    /**
+     * Returns whether a binary snapshot of the task list is kept next to the data file and loaded
+     * instead of parsing the file, which is turned on with -Dduker.snapshot=true.
+     *
+     * @return true if snapshots are used, false otherwise
+     */
+    public static boolean isSnapshotEnabled() {
+        return Boolean.getBoolean("duker.snapshot");
+    }
+
+    /**
+     * Loads the tasks from the snapshot next to the data file, if it was taken from the data file
+     * as it is now; see TaskSnapshot. The data file is read once to check the snapshot, and its
+     * contents are added to the given checksum on the way.
+     *
+     * @return true if the tasks were loaded, false if the snapshot is missing, stale or damaged
+     */
+    private boolean loadSnapshot(File file, TaskList taskList, Parser parser, CRC32C checksum) {
+        this.snapshotSource = taskList;
+        File snapshot = new File(this.dataDir + this.filePath + SNAPSHOT_SUFFIX);
+        ArrayList<Task> tasks = TaskSnapshot.decode(snapshot, file, parser.getDescriptionPool(), checksum);
+        if (tasks == null) {
+            Metrics.increment("storage.snapshot.misses");
+            return false;
+        }
+        for (Task task : tasks) {
+            taskList.load(task);
+        }
+        this.isSnapshotCurrent = true;
+        Metrics.increment("storage.snapshot.hits");
+        return true;
+    }
+
+    /**
+     * Writes the snapshot again a few seconds after the first of a run of changes, unless one is
+     * already due, so that a burst of commands leads to a single write in the background.
+     */
+    private void scheduleSnapshot(TaskList taskList) {
+        if (!isSnapshotEnabled() || taskList == null) {
+            return;
+        }
+        this.isSnapshotCurrent = false;
+        if (this.pendingSnapshot != null && !this.pendingSnapshot.isDone()) {
+            return;
+        }
+        this.pendingSnapshot = SNAPSHOT_WRITER.schedule(() -> taskList.runWrite(() -> writeSnapshot(taskList)),
+                SNAPSHOT_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the snapshot of the task list next to the data file now, unless it is already up to date
+     * or the data file has been changed by another program since it was last loaded. Does nothing
+     * unless snapshots are turned on. Should be called while the task list cannot change, such as
+     * within TaskList.runWrite.
+     *
+     * @param taskList the TaskList whose tasks are saved, which should match the data file
+     */
+    public void writeSnapshot(TaskList taskList) {
+        assert taskList != null : "TaskList should not be null";
+
+        if (!isSnapshotEnabled()) {
+            return;
+        }
+        if (this.pendingSnapshot != null) {
+            this.pendingSnapshot.cancel(false);
+        }
+        File file = new File(this.dataDir + this.filePath);
+        if (this.isSnapshotCurrent || !isFileKnown(file) || file.lastModified() != this.seenModified) {
+            return;
+        }
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
+        File snapshot = new File(this.dataDir + this.filePath + SNAPSHOT_SUFFIX);
+        File tempFile = new File(this.dataDir + this.filePath + SNAPSHOT_SUFFIX + ".tmp");
+        long bytesWritten = 0;
+        try {
+            byte[] bytes = TaskSnapshot.encode(file, taskList.snapshot());
+            Files.write(tempFile.toPath(), bytes);
+            Files.move(tempFile.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            bytesWritten = bytes.length;
+            this.isSnapshotCurrent = true;
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        recordOperation(event, "snapshot.write", file.length(), bytesWritten, startTime);
+    }
+
+    /**
+     * Loads the tasks that other programs appended to the file since it was last read.
+     * Only the new bytes are parsed, and a last line without a line break is left for a later call.
+     * If any appended line cannot be parsed, none of them are loaded until the file changes again.
+     * If the file shrank or its earlier contents changed, the task list is cleared and the whole
+     * file is loaded again. An edit that keeps the length of the file is found by a checksum of the
+     * whole file, while for a longer file only its first and last blocks are checked, so that
+     * following appends does not read the whole file each time.
+     * A file whose length and modification time are unchanged is skipped without being read, but only
+     * once the modification time was already a few seconds old when it was last seen, since a file can be
+     * rewritten within one tick of its modification time.
+     * Callers should hold the write lock of the task list, for example through TaskList.runWrite,
+     * so that the file and the task list are not changed in between.
+     *
+     * @param taskList the TaskList to add the appended tasks to
+     * @param parser   the Parser to use for converting strings to tasks
+     */
+    public void loadAppended(TaskList taskList, Parser parser) {
+        assert taskList != null : "TaskList should not be null";
+        assert parser != null : "Parser should not be null";
+
+        File file = new File(this.dataDir + this.filePath);
+        long length = file.length();
+        long modified = file.lastModified();
+        if (!isChangedSinceSeen(length, modified)) {
+            return;
+        }
+        this.seenLength = length;
+        this.seenModified = modified;
+        this.seenAt = System.currentTimeMillis();
+
+        try {
+            if (isKnownPartChanged(file, length)) {
+                Metrics.increment("storage.reloads");
+                this.knownLength = -1;
+                taskList.clear();
+                loadFile(taskList, parser);
+                return;
+            }
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        if (length == this.knownLength) {
+            return;
+        }
+
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
+        long bytesRead = 0;
+        try {
+            ArrayList<String> lines = new ArrayList<>();
+            bytesRead = loadLines(file, this.knownLength, false, null, lines::add);
+            ArrayList<Task> tasks = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                tasks.add(parser.convertStringToTask(line));
+            }
+            for (Task task : tasks) {
+                taskList.load(task);
+            }
+            rememberFileState(file, this.knownLength + bytesRead, modified, true);
+            scheduleSnapshot(taskList);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Could not load the tasks appended to the file: " + e.getMessage());
+        }
+        recordOperation(event, "tail", bytesRead, 0, startTime);
+    }
+
+    /**
+     * Reads the lines of the file from the given offset, skipping blank lines and line-ending
+     * carriage returns. Lines are decoded as UTF-8. If a checksum is given, every byte read is added
+     * to it, which is only the bytes consumed when isPartialLineLoaded is true.
+     *
+     * @return the number of bytes consumed, which excludes a last line without a line break
+     *         unless isPartialLineLoaded is true
+     */
+    private long loadLines(File file, long offset, boolean isPartialLineLoaded, CRC32C checksum,
+            Consumer<String> action) throws IOException {
+        assert checksum == null || isPartialLineLoaded : "Only a whole read can be checksummed";
+
+
+        long consumed = 0;
+        try (FileInputStream input = new FileInputStream(file)) {
+            input.getChannel().position(offset);
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int count;
+            while ((count = input.read(buffer)) > 0) {
+                if (checksum != null) {
+                    checksum.update(buffer, 0, count);
+                }
+                int lineStart = 0;
+                for (int i = 0; i < count; i++) {
+                    if (buffer[i] == '\n') {
+                        line.write(buffer, lineStart, i - lineStart);
+                        consumed += line.size() + 1;
+                        acceptLine(line.toString(StandardCharsets.UTF_8), action);
+                        line.reset();
+                        lineStart = i + 1;
+                    }
+                }
+                line.write(buffer, lineStart, count - lineStart);
+            }
+            if (isPartialLineLoaded && line.size() > 0) {
+                consumed += line.size();
+                acceptLine(line.toString(StandardCharsets.UTF_8), action);
+            }
+        }
+        return consumed;
+    }
+
+    private static void acceptLine(String line, Consumer<String> action) {
+        String trimmed = line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+        if (!trimmed.isBlank()) {
+            action.accept(trimmed);
+        }
+    }
+
+    /**
+     * Returns whether the part of the file last read or written by this Storage was changed since,
+     * or is no longer there.
+     */
+    private boolean isKnownPartChanged(File file, long length) throws IOException {
+        if (this.knownLength < 0 || length < this.knownLength) {
+            return true;
+        }
+        if (length == this.knownLength) {
+            return TaskSnapshot.computeChecksum(file) != this.knownChecksum.getValue();
+        }
+        return computeFingerprint(file, this.knownLength) != this.knownFingerprint;
+    }
+
+    /**
+     * Records the length, modification time, fingerprint and checksum of the file as read by this
+     * Storage, so that later changes by other programs can be told apart from its own.
+     * If the file was only extended since it was last known, only the new bytes are added to the checksum.
+     */
+    private void rememberFileState(File file, long length, long modified, boolean isExtended) throws IOException {
+        if (!isExtended || this.knownLength < 0 || length < this.knownLength) {
+            CRC32C checksum = new CRC32C();
+            updateChecksum(checksum, file, 0, length);
+            rememberFileState(file, length, modified, checksum);
+        } else {
+            updateChecksum(this.knownChecksum, file, this.knownLength, length);
+            rememberFileState(file, length, modified, this.knownChecksum);
+        }
+    }
+
+    /**
+     * Records the state of the file as read by this Storage, given the checksum of its first length bytes,
+     * so that a file that was just read is not read again for its checksum.
+     */
+    private void rememberFileState(File file, long length, long modified, CRC32C checksum) throws IOException {
+        this.knownChecksum = checksum;
+        this.knownFingerprint = computeFingerprint(file, length);
+        this.knownLength = length;
+        this.seenLength = file.length();
+        this.seenModified = modified;
+        this.seenAt = System.currentTimeMillis();
+    }
+
+    private static void updateChecksum(CRC32C checksum, File file, long from, long to) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(READ_BUFFER_SIZE, Math.max(0, to - from))];
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            input.seek(from);
+            for (long position = from; position < to; position += buffer.length) {
+                int count = (int) Math.min(buffer.length, to - position);
+                input.readFully(buffer, 0, count);
+                checksum.update(buffer, 0, count);
+            }
+        }
+    }
+
+    /**
+     * Returns a checksum of the first and last blocks of the file up to the given length.
+     * Appending to the file leaves it unchanged, while most edits to existing lines change it.
+     */
+    private static long computeFingerprint(File file, long length) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            byte[] block = new byte[(int) Math.min(FINGERPRINT_BLOCK_SIZE, length)];
+            input.readFully(block);
+            crc.update(block);
+            input.seek(length - block.length);
+            input.readFully(block);
+            crc.update(block);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Returns whether the file is exactly as this Storage last read or wrote it.
+     */
+    private boolean isFileKnown(File file) {
+        return this.knownLength >= 0 && file.length() == this.knownLength;
+    }
+
+    /**
+     * Records the state of the file after this Storage changed it. If the file had been changed
+     * by another program before, the state is forgotten so that the next call to loadAppended
+     * loads the whole file again. Either way the snapshot is written again later.
+     */
+    private void rememberOwnChange(File file, boolean wasFileKnown, boolean isAppended) {
+        scheduleSnapshot(this.snapshotSource);
+        if (!wasFileKnown) {
+            this.knownLength = -1;
+            return;
+        }
+        try {
+            rememberFileState(file, file.length(), file.lastModified(), isAppended);
+        } catch (IOException e) {
+            this.knownLength = -1;
+        }
     }
 
     /**
@@ -71,17 +465,65 @@ public class Storage {
     public void writeToFile(Task task) {
         assert task != null : "Task should not be null";
 
-        try (BufferedWriter writer = new BufferedWriter(
-                new FileWriter(this.dataDir + this.filePath, true))) {
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
+        long bytesWritten = 0;
+        File file = new File(this.dataDir + this.filePath);
+        boolean wasFileKnown = isFileKnown(file);
+        try (FileOutputStream output = new FileOutputStream(file, true);
+             BufferedWriter writer = openWriter(output)) {
             String taskString = convertTaskToString(task);
             writer.write(taskString);
             writer.newLine();
+            writer.flush();
+            force(output.getChannel());
+            bytesWritten = taskString.getBytes(StandardCharsets.UTF_8).length + System.lineSeparator().length();
         } catch (IOException e) {
             System.out.println(e.getMessage());
         }
+        rememberOwnChange(file, wasFileKnown, true);
+        recordOperation(event, "append", 0, bytesWritten, startTime);
+    }
+
+    private static BufferedWriter openWriter(FileOutputStream output) {
+        return new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
     }
 
-    private String convertTaskToString(Task task) {
+    /**
+     * Returns whether written files are forced to the disk before a change is reported, so that it
+     * survives a crash, which is turned off with -Dduker.fsync=false.
+     *
+     * @return true if files are forced to the disk, false otherwise
+     */
+    public static boolean isFsyncEnabled() {
+        return Boolean.parseBoolean(System.getProperty("duker.fsync", "true"));
+    }
+
+    /**
+     * Forces the bytes written through the channel to the disk if fsync is turned on, and records the
+     * time taken as the "storage fsync" latency. Buffered writers should be flushed first.
+     *
+     * @param channel the channel of the written file
+     * @throws IOException if the bytes cannot be forced to the disk
+     */
+    protected static void force(FileChannel channel) throws IOException {
+        if (!isFsyncEnabled()) {
+            return;
+        }
+        long startTime = Metrics.startTimer();
+        channel.force(false);
+        Metrics.increment("storage.fsyncs");
+        Metrics.recordLatency("storage", "fsync", startTime);
+    }
+
+    /**
+     * Returns the line that represents the task in the data file.
+     *
+     * @param task the task to convert
+     * @return the line for the task, without a line break
+     */
+    protected String convertTaskToString(Task task) {
         assert task != null : "Task should not be null";
         int priority = task.getPriority();
         String priorityCode;
@@ -96,17 +538,165 @@ public class Storage {
             return priorityCode + " | T | " + (task.isDone() ? "1" : "0") + " | " + task.getDescription();
         } else if (task instanceof Deadline) {
             return priorityCode + " | D | " + (task.isDone() ? "1" : "0") + " | " + task.getDescription() +
-                    " | " + ((Deadline) task).getBy().toString();
+                    " | " + ((Deadline) task).getBy().toString() + convertRecurrenceToString(task);
         } else if (task instanceof Event) {
             return priorityCode + " | E | " + (task.isDone() ? "1" : "0") + " | " + task.getDescription() +
                     " | " + ((Event) task).getStart().toString() +
-                    " | " + ((Event) task).getEnd().toString();
+                    " | " + ((Event) task).getEnd().toString() + convertRecurrenceToString(task);
         }
         return "";
     }
 
+    private String convertRecurrenceToString(Task task) {
+        if (!(task instanceof Recurring)) {
+            return "";
+        }
+        Recurrence recurrence = ((Recurring) task).getRecurrence();
+        return " | " + recurrence.getPeriod() + " | " + recurrence.encodeDoneState();
+    }
+
+    private void recordRewrite(File inputFile, File tempFile, StorageEvent event, long startTime) {
+        event.end();
+        if (!Metrics.isEnabled() && !event.shouldCommit()) {
+            return;
+        }
+        Metrics.increment("storage.rewrites");
+        recordOperation(event, "rewrite", inputFile.length(), tempFile.length(), startTime);
+    }
+
+    /**
+     * Reports a finished file operation to the metrics and to Java Flight Recorder.
+     *
+     * @param event        the flight recorder event started before the operation
+     * @param kind         the kind of operation, such as "load" or "append"
+     * @param bytesRead    the number of bytes read by the operation
+     * @param bytesWritten the number of bytes written by the operation
+     * @param startTime    the value of Metrics.startTimer() before the operation
+     */
+    protected void recordOperation(StorageEvent event, String kind, long bytesRead, long bytesWritten,
+            long startTime) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.path = this.dataDir + this.filePath;
+            event.bytesRead = bytesRead;
+            event.bytesWritten = bytesWritten;
+            event.commit();
+        }
+        Metrics.add("storage.bytes.read", bytesRead);
+        Metrics.add("storage.bytes.written", bytesWritten);
+        Metrics.recordLatency("storage", kind, startTime);
+    }
+
+    /**
+     * Writes every task in the task list to the file, replacing its contents.
+     *
+     * @param taskList the TaskList containing tasks
+     */
+    public void rewriteFile(TaskList taskList) {
+        assert taskList != null : "TaskList should not be null";
+
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
+        File inputFile = new File(this.dataDir + this.filePath);
+        File tempFile = new File(this.dataDir + this.filePath + ".tmp");
+        boolean wasFileKnown = isFileKnown(inputFile);
+
+        try (FileOutputStream output = new FileOutputStream(tempFile);
+             BufferedWriter writer = openWriter(output)) {
+            for (Task task : taskList.snapshot()) {
+                writer.write(convertTaskToString(task));
+                writer.newLine();
+            }
+            writer.flush();
+            force(output.getChannel());
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        recordRewrite(inputFile, tempFile, event, startTime);
+        boolean isDeleted = inputFile.delete();
+        boolean isRenamed = tempFile.renameTo(inputFile);
+        rememberOwnChange(inputFile, wasFileKnown, false);
+    }
+
+    /**
+     * Appends tasks to the archive file, which is the data file name followed by ".archive".
+     * The archive is only ever appended to, and is never loaded into a TaskList.
+     *
+     * @param tasks the tasks to archive
+     */
+    public void appendToArchive(List<Task> tasks) {
+        assert tasks != null : "Tasks should not be null";
+
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
+        long bytesWritten = 0;
+        File archiveFile = getArchiveFile();
+        try (FileOutputStream output = new FileOutputStream(archiveFile, true);
+             BufferedWriter writer = openWriter(output)) {
+            for (Task task : tasks) {
+                String taskString = convertTaskToString(task);
+                writer.write(taskString);
+                writer.newLine();
+                bytesWritten += taskString.getBytes(StandardCharsets.UTF_8).length + System.lineSeparator().length();
+            }
+            writer.flush();
+            force(output.getChannel());
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        recordOperation(event, "archive", 0, bytesWritten, startTime);
+    }
+
+    /**
+     * Searches the archive for tasks whose description contains the keyword.
+     * The archive is read one line at a time, and only lines containing the keyword are parsed,
+     * so memory use does not grow with the size of the archive.
+     *
+     * @param keyword the keyword to search for in task descriptions
+     * @param parser  the Parser to use for converting strings to tasks
+     * @return the archived tasks that contain the keyword, in the order they were archived
+     */
+    public ArrayList<Task> findArchivedTasks(String keyword, Parser parser) {
+        assert keyword != null && !keyword.isEmpty() : "Keyword should not be null or empty";
+        assert parser != null : "Parser should not be null";
+
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
+        ArrayList<Task> tasksFound = new ArrayList<>();
+        File archiveFile = getArchiveFile();
+        if (!archiveFile.exists()) {
+            return tasksFound;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(archiveFile, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.contains(keyword)) {
+                    continue;
+                }
+                Task task = parser.convertStringToTask(line);
+                if (task.getDescription().contains(keyword)) {
+                    tasksFound.add(task);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        recordOperation(event, "archive.scan", archiveFile.length(), 0, startTime);
+        return tasksFound;
+    }
+
+    private File getArchiveFile() {
+        return new File(this.dataDir + this.filePath + ".archive");
+    }
+
     /**
      * Replaces a specific line in the file with the updated task string.
+     * Blank lines are skipped as when the file is loaded, so that the index counts task lines only,
+     * and they are left out of the rewritten file.
      *
      * @param taskList the TaskList containing tasks
      * @param index    the index of the task to replace in the file
@@ -115,16 +705,24 @@ public class Storage {
         assert taskList != null : "TaskList should not be null";
         assert index >= 0 && index < taskList.getSize() : "Index out of bounds";
 
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
         File inputFile = new File(this.dataDir + this.filePath);
-        File tempFile = new File(this.dataDir + "temp.txt");
+        File tempFile = new File(this.dataDir + this.filePath + ".tmp");
+        boolean wasFileKnown = isFileKnown(inputFile);
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(inputFile));
-             BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(inputFile, StandardCharsets.UTF_8));
+             FileOutputStream output = new FileOutputStream(tempFile);
+             BufferedWriter writer = openWriter(output)) {
 
             String currentLine;
             int currentIdx = 0;
 
             while ((currentLine = reader.readLine()) != null) {
+                if (currentLine.isBlank()) {
+                    continue;
+                }
                 if (currentIdx != index) {
                     writer.write(currentLine);
                     writer.newLine();
@@ -135,42 +733,60 @@ public class Storage {
                 }
                 currentIdx++;
             }
+            writer.flush();
+            force(output.getChannel());
         } catch (IOException e) {
             System.out.println(e.getMessage());
         }
+        recordRewrite(inputFile, tempFile, event, startTime);
         boolean isDeleted = inputFile.delete();
         boolean isRenamed = tempFile.renameTo(inputFile);
+        rememberOwnChange(inputFile, wasFileKnown, false);
     }
 
     /**
      * Deletes a specific line from the file.
+     * Blank lines are skipped as when the file is loaded, so that the index counts task lines only,
+     * and they are left out of the rewritten file.
      *
      * @param index the index of the line to delete from the file
      */
     public void deleteLineFromFile(int index) {
         assert index >= 0 : "Index should be greater than or equal to zero";
 
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long startTime = Metrics.startTimer();
         File inputFile = new File(this.dataDir + this.filePath);
-        File tempFile = new File(this.dataDir + "temp.txt");
+        File tempFile = new File(this.dataDir + this.filePath + ".tmp");
+        boolean wasFileKnown = isFileKnown(inputFile);
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(inputFile));
-             BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(inputFile, StandardCharsets.UTF_8));
+             FileOutputStream output = new FileOutputStream(tempFile);
+             BufferedWriter writer = openWriter(output)) {
 
             String currentLine;
             int currentIdx = 0;
 
             while ((currentLine = reader.readLine()) != null) {
+                if (currentLine.isBlank()) {
+                    continue;
+                }
                 if (currentIdx != index) {
                     writer.write(currentLine);
                     writer.newLine();
                 }
                 currentIdx++;
             }
+            writer.flush();
+            force(output.getChannel());
         } catch (IOException e) {
             System.out.println(e.getMessage());
         }
+        recordRewrite(inputFile, tempFile, event, startTime);
         boolean isDeleted = inputFile.delete();
         boolean isRenamed = tempFile.renameTo(inputFile);
+        rememberOwnChange(inputFile, wasFileKnown, false);
     }
 
 
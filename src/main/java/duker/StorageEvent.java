@@ -0,0 +1,33 @@
+package duker;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event emitted for every file operation performed by Storage.
+ */
+@Name("duker.Storage")
+@Label("Duker Storage Operation")
+@Category("Duker")
+@Description("A load, append or rewrite of a Duker data file")
+public class StorageEvent extends Event {
+
+    @Label("Kind")
+    @Description("The kind of operation, such as load, append or rewrite")
+    String kind;
+
+    @Label("Path")
+    String path;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+}
@@ -0,0 +1,137 @@
+package duker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The StorageWatcher class picks up changes that other programs make to the data file.
+ * It waits for file system events on the data directory, and also checks the file every
+ * half second in case the platform reports events late or not at all. Events for other files in the
+ * directory, such as the data files of other workspaces, do not trigger a check of their own.
+ * A check only takes the write lock of the task list if the length or modification time of the file
+ * changed, and then only parses the bytes appended since the last one; see Storage.loadAppended.
+ */
+public class StorageWatcher implements Closeable {
+
+    private static final long POLL_MILLIS = 500;
+
+    private Storage storage;
+    private TaskList taskList;
+    private Parser parser;
+    private WatchService watchService;
+    private volatile boolean isRunning;
+    private volatile Thread watchingThread;
+
+    /**
+     * Constructs a StorageWatcher that keeps the task list up to date with the storage file.
+     *
+     * @param storage  the Storage whose file is watched
+     * @param taskList the TaskList to update
+     * @param parser   the Parser to use for converting strings to tasks
+     * @throws IOException if the data directory cannot be watched
+     */
+    public StorageWatcher(Storage storage, TaskList taskList, Parser parser) throws IOException {
+        assert storage != null : "Storage should not be null";
+        assert taskList != null : "TaskList should not be null";
+        assert parser != null : "Parser should not be null";
+
+        this.storage = storage;
+        this.taskList = taskList;
+        this.parser = parser;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        storage.getDirectory().register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        this.isRunning = true;
+    }
+
+    /**
+     * Starts watching the file on a new thread.
+     *
+     * @return the thread watching the file
+     */
+    public Thread start() {
+        Thread thread = new Thread(this::run, "duker-storage-watcher");
+        thread.setDaemon(true);
+        this.watchingThread = thread;
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Watches the file on the current thread until the watcher is closed.
+     */
+    public void run() {
+        try {
+            long lastCheck = System.nanoTime();
+            while (this.isRunning) {
+                WatchKey key = this.watchService.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                boolean isFileEvent = false;
+                if (key != null) {
+                    isFileEvent = isAboutFile(key);
+                    key.reset();
+                }
+                if (isFileEvent || System.nanoTime() - lastCheck >= TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS)) {
+                    check();
+                    lastCheck = System.nanoTime();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            return;
+        }
+    }
+
+    private boolean isAboutFile(WatchKey key) {
+        boolean isAboutFile = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (context == null || context.toString().equals(this.storage.getFileName())) {
+                isAboutFile = true;
+            }
+        }
+        return isAboutFile;
+    }
+
+    /**
+     * Loads any tasks appended to the file since the last check, while no other change is made
+     * to the task list. If the length and modification time of the file are unchanged, it returns
+     * without taking the lock.
+     */
+    public void check() {
+        if (!this.storage.isChangedSinceSeen()) {
+            return;
+        }
+        this.taskList.runWrite(() -> {
+            try {
+                this.storage.loadAppended(this.taskList, this.parser);
+            } catch (RuntimeException e) {
+                System.out.println("Could not load changes to the data file: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Stops watching the file and waits for the watching thread to finish.
+     *
+     * @throws IOException if the watch service cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.isRunning = false;
+        this.watchService.close();
+        Thread thread = this.watchingThread;
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
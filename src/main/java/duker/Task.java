@@ -3,11 +3,13 @@ package duker;
 /**
  * Represents a task with a description and a status indicating whether it is done or not.
  */
-public abstract class Task {
+public abstract class Task implements Cloneable {
 
     protected boolean isDone;
     protected String description;
     protected int priority;
+    protected int version;
+    protected long sequence;
 
     /**
      * Constructs a Task with the specified description. The task is initially not done.
@@ -51,6 +53,7 @@ public abstract class Task {
      */
     public void markAsDone() {
         this.isDone = true;
+        this.version += 1;
     }
 
     /**
@@ -58,6 +61,7 @@ public abstract class Task {
      */
     public void unmarkAsUndone() {
         this.isDone = false;
+        this.version += 1;
     }
 
     /**
@@ -83,6 +87,7 @@ public abstract class Task {
      */
     public void markAsHighPriority() {
         this.priority = 1;
+        this.version += 1;
     }
 
     /**
@@ -90,6 +95,7 @@ public abstract class Task {
      */
     public void unmarkAsHighPriority() {
         this.priority = 0;
+        this.version += 1;
     }
 
     /**
@@ -101,4 +107,45 @@ public abstract class Task {
         return this.priority;
     }
 
+    /**
+     * Returns a number that changes whenever the string representation of the task may have changed.
+     *
+     * @return the version of the task
+     */
+    public int getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Returns the number given to the task when it was added to a task list.
+     * Tasks added later have larger numbers, so sorting by it restores the order of the list.
+     *
+     * @return the sequence number of the task
+     */
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Sets the number that orders the task among the others in its task list.
+     *
+     * @param sequence the sequence number of the task
+     */
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * Returns a copy of the task that can be changed without affecting this task.
+     *
+     * @return a copy of the task
+     */
+    public Task copy() {
+        try {
+            return (Task) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
 }
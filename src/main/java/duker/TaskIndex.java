@@ -0,0 +1,324 @@
+package duker;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * The TaskIndex class answers queries over a task list, using an index where one narrows the search.
+ * There are indexes on the type, done status, priority and time of tasks, and on the three-character
+ * sequences (trigrams) of their descriptions. Each index is only built the first time a query could use it,
+ * and is then kept up to date as a TaskListener. The indexes are locked while a query plans its access and
+ * reads its candidates from them, but not while it scans the list, so that queries may run while the list
+ * is being changed; see isBuiltFor.
+ * For each query the planner picks the index that yields the fewest candidate tasks, and falls back to
+ * scanning the list when no index narrows the search. A scan of a long list runs in parallel unless it
+ * can stop early at the limit of the query.
+ */
+public class TaskIndex implements TaskListener {
+
+    private static final int TRIGRAM_LENGTH = 3;
+
+    private KeyIndex<Character> byType;
+    private KeyIndex<Boolean> byStatus;
+    private KeyIndex<Integer> byPriority;
+    private KeyIndex<LocalDateTime> byTime;
+    private KeyIndex<String> byTrigram;
+
+    /**
+     * Constructs a TaskIndex with no index built yet.
+     */
+    public TaskIndex() {
+        this.byType = new KeyIndex<>("type", new HashMap<>(), task -> List.of(Query.getType(task)));
+        this.byStatus = new KeyIndex<>("status", new HashMap<>(), task -> List.of(task.isDone()));
+        this.byPriority = new KeyIndex<>("priority", new HashMap<>(), task -> List.of(task.getPriority()));
+        this.byTime = new KeyIndex<>("time", new TreeMap<>(), TaskIndex::getTimeKeys);
+        this.byTrigram = new KeyIndex<>("text", new HashMap<>(),
+                task -> getTrigrams(task.getDescription().toLowerCase(Locale.ROOT)));
+    }
+
+    @Override
+    public synchronized void taskAdded(Task task) {
+        this.byType.add(task);
+        this.byStatus.add(task);
+        this.byPriority.add(task);
+        this.byTime.add(task);
+        this.byTrigram.add(task);
+    }
+
+    @Override
+    public synchronized void taskRemoved(Task task) {
+        this.byType.remove(task);
+        this.byStatus.remove(task);
+        this.byPriority.remove(task);
+        this.byTime.remove(task);
+        this.byTrigram.remove(task);
+    }
+
+    /**
+     * Returns whether every index the query could use has been built. Until then, running the query builds
+     * them from the tasks it is given, so the list must not change between reading those tasks and the end
+     * of the query, or the change is missed.
+     *
+     * @param query the query to be run
+     * @return true if the query builds no index, false otherwise
+     */
+    public synchronized boolean isBuiltFor(Query query) {
+        assert query != null : "Query should not be null";
+
+        boolean isTextIndexed = false;
+        for (String text : query.getTexts()) {
+            isTextIndexed |= text.length() >= TRIGRAM_LENGTH;
+        }
+        return (query.getType() == null || this.byType.isBuilt) &&
+                (query.getDone() == null || this.byStatus.isBuilt) &&
+                (query.getPriority() == null || this.byPriority.isBuilt) &&
+                (!query.hasTimeRange() || this.byTime.isBuilt) &&
+                (!isTextIndexed || this.byTrigram.isBuilt);
+    }
+
+    /**
+     * Runs a query over the tasks.
+     *
+     * @param query       the query to run
+     * @param tasks       the tasks in list order, used for scans and to build indexes
+     * @param isIndexable whether the list returns the same Task objects on every read, which indexes rely on
+     * @return the matching tasks and the access path used to find them
+     */
+    public QueryResult query(Query query, List<Task> tasks, boolean isIndexable) {
+        assert query != null : "Query should not be null";
+        assert tasks != null : "Tasks should not be null";
+
+        Candidates best = null;
+        if (isIndexable) {
+            best = planIndexAccess(query, tasks);
+        }
+
+        boolean isIndexUsed = best != null && best.size < tasks.size();
+        ArrayList<Task> matched = new ArrayList<>();
+        int examined = 0;
+        String accessPath;
+        if (!isIndexUsed) {
+            if (!isIndexable) {
+                accessPath = "full scan, since this store does not support indexes";
+            } else if (best == null) {
+                accessPath = "full scan, since no term can use an index";
+            } else {
+                accessPath = "full scan, since the best index (" + best.description + ") does not narrow the search";
+            }
+            boolean isStoppedAtLimit = query.isInListOrder() && query.getLimit() < tasks.size();
+            if (!isStoppedAtLimit && ParallelScan.isParallel(tasks.size())) {
+                matched = ParallelScan.filter(tasks, query::matches);
+                examined = tasks.size();
+                accessPath += ", in parallel";
+            } else {
+                for (Task task : tasks) {
+                    examined += 1;
+                    if (query.matches(task)) {
+                        matched.add(task);
+                        if (isStoppedAtLimit && matched.size() >= query.getLimit()) {
+                            break;
+                        }
+                    }
+                }
+            }
+            Metrics.increment("query.scans");
+        } else {
+            accessPath = "index on " + best.description + ", " + best.size + " candidates";
+            for (Task task : best.tasks) {
+                examined += 1;
+                if (query.matches(task)) {
+                    matched.add(task);
+                }
+            }
+            Metrics.increment("query.index." + best.index.name);
+        }
+
+        if (isIndexUsed || !query.isInListOrder()) {
+            matched.sort(query.getComparator());
+        }
+        if (matched.size() > query.getLimit()) {
+            matched = new ArrayList<>(matched.subList(0, query.getLimit()));
+        }
+        return new QueryResult(matched, accessPath, examined, tasks.size());
+    }
+
+    /**
+     * Returns the index access that yields the fewest candidates, with the candidates copied out of the
+     * index if they narrow the search, so that they can be read once the indexes are unlocked.
+     */
+    private synchronized Candidates planIndexAccess(Query query, List<Task> tasks) {
+        Candidates best = null;
+        if (query.getType() != null) {
+            best = pick(best, this.byType, "type = " + query.getType(), this.byType.get(query.getType(), tasks));
+        }
+        if (query.getDone() != null) {
+            best = pick(best, this.byStatus, "done = " + query.getDone(), this.byStatus.get(query.getDone(), tasks));
+        }
+        if (query.getPriority() != null) {
+            best = pick(best, this.byPriority, "priority = " + query.getPriority(),
+                    this.byPriority.get(query.getPriority(), tasks));
+        }
+        if (query.hasTimeRange()) {
+            best = pickTimeRange(best, query, tasks);
+        }
+        for (String text : query.getTexts()) {
+            if (text.length() < TRIGRAM_LENGTH) {
+                continue;
+            }
+            for (String trigram : getTrigrams(text)) {
+                best = pick(best, this.byTrigram, "text trigram '" + trigram + "'",
+                        this.byTrigram.get(trigram, tasks));
+            }
+        }
+        if (best != null && best.size < tasks.size()) {
+            best = new Candidates(best.index, best.description, new ArrayList<>(best.tasks), best.size);
+        }
+        return best;
+    }
+
+    private static Candidates pick(Candidates best, KeyIndex<?> index, String description, Collection<Task> tasks) {
+        if (best != null && best.size <= tasks.size()) {
+            return best;
+        }
+        return new Candidates(index, description, tasks, tasks.size());
+    }
+
+    private Candidates pickTimeRange(Candidates best, Query query, List<Task> tasks) {
+        NavigableMap<LocalDateTime, Set<Task>> times = this.byTime.getSorted(tasks);
+        if (query.getFrom() != null) {
+            times = times.tailMap(query.getFrom(), query.isFromInclusive());
+        }
+        if (query.getTo() != null) {
+            times = times.headMap(query.getTo(), query.isToInclusive());
+        }
+
+        int bound = best == null ? Integer.MAX_VALUE : best.size;
+        int size = 0;
+        for (Set<Task> sameTime : times.values()) {
+            size += sameTime.size();
+            if (size >= bound) {
+                return best;
+            }
+        }
+        ArrayList<Task> inRange = new ArrayList<>(size);
+        for (Set<Task> sameTime : times.values()) {
+            inRange.addAll(sameTime);
+        }
+        return new Candidates(this.byTime, "time in range", inRange, size);
+    }
+
+    private static List<LocalDateTime> getTimeKeys(Task task) {
+        LocalDateTime time = Query.getTime(task);
+        return time == null ? List.of() : List.of(time);
+    }
+
+    private static Set<String> getTrigrams(String text) {
+        HashSet<String> trigrams = new HashSet<>();
+        for (int i = 0; i + TRIGRAM_LENGTH <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + TRIGRAM_LENGTH));
+        }
+        return trigrams;
+    }
+
+    /**
+     * The tasks an index yields for one query term.
+     */
+    private static class Candidates {
+        private final KeyIndex<?> index;
+        private final String description;
+        private final Collection<Task> tasks;
+        private final int size;
+
+        private Candidates(KeyIndex<?> index, String description, Collection<Task> tasks, int size) {
+            this.index = index;
+            this.description = description;
+            this.tasks = tasks;
+            this.size = size;
+        }
+    }
+
+    /**
+     * An index from keys derived from a task to the tasks with that key, compared by identity.
+     * The index is empty and ignores changes until it is first used.
+     */
+    private static class KeyIndex<K> {
+        private final String name;
+        private final Map<K, Set<Task>> postings;
+        private final Function<Task, Collection<K>> keyFunction;
+        private boolean isBuilt;
+
+        private KeyIndex(String name, Map<K, Set<Task>> postings, Function<Task, Collection<K>> keyFunction) {
+            this.name = name;
+            this.postings = postings;
+            this.keyFunction = keyFunction;
+            this.isBuilt = false;
+        }
+
+        private Set<Task> get(K key, List<Task> tasks) {
+            ensureBuilt(tasks);
+            return this.postings.getOrDefault(key, Collections.emptySet());
+        }
+
+        @SuppressWarnings("unchecked")
+        private NavigableMap<K, Set<Task>> getSorted(List<Task> tasks) {
+            ensureBuilt(tasks);
+            return (NavigableMap<K, Set<Task>>) this.postings;
+        }
+
+        private void ensureBuilt(List<Task> tasks) {
+            if (this.isBuilt) {
+                return;
+            }
+            IndexRebuildEvent event = new IndexRebuildEvent();
+            event.begin();
+            this.isBuilt = true;
+            for (Task task : tasks) {
+                add(task);
+            }
+            Metrics.increment("query.index.builds");
+            event.end();
+            if (event.shouldCommit()) {
+                event.index = "query." + this.name;
+                event.taskCount = tasks.size();
+                event.commit();
+            }
+        }
+
+        private void add(Task task) {
+            if (!this.isBuilt) {
+                return;
+            }
+            for (K key : this.keyFunction.apply(task)) {
+                this.postings.computeIfAbsent(key, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(task);
+            }
+        }
+
+        private void remove(Task task) {
+            if (!this.isBuilt) {
+                return;
+            }
+            for (K key : this.keyFunction.apply(task)) {
+                Set<Task> tasks = this.postings.get(key);
+                if (tasks == null) {
+                    continue;
+                }
+                tasks.remove(task);
+                if (tasks.isEmpty()) {
+                    this.postings.remove(key);
+                }
+            }
+        }
+    }
+}
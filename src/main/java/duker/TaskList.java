@@ -1,106 +1,330 @@
 package duker;
 
+import java.io.PrintStream;
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * The TaskList class represents a list of tasks and provides methods
  * to manipulate the list, such as adding, deleting, marking, and unmarking tasks.
  * It interacts with the Storage class to perform file operations for persisting
  * changes to tasks.
+ * Changes are applied by one thread at a time. Reads go through snapshots of the store, so with a
+ * store whose snapshots never change, such as SnapshotTaskStore, readers never wait for a change, except
+ * for the read that first builds an index, which must not miss a change made while it is built; the
+ * indexes lock themselves while they are read or kept up to date. With other stores, reads that go
+ * through an index hold the write lock, since their snapshots change while they are read.
  */
 public class TaskList {
 
-    private ArrayList<Task> toDoList;
-    private int counter;
+    private static final int DEFAULT_ARCHIVE_DAYS = 30;
+    private static final String[] SORT_ORDERS = {"due", "priority", "text"};
+
+    private TaskStore toDoList;
+    private ReentrantLock writeLock;
+    private ArrayList<TaskListener> listeners;
+    private TaskIndex index;
+    private TaskStatistics statistics;
+    private WordIndex words;
+    private LinkedHashMap<String, SortedView> sortedViews;
+    private RenderCache renderCache;
+    private long nextSequence;
 
     /**
-     * Constructs an empty TaskList.
+     * Constructs an empty TaskList backed by an ArrayList.
      */
     public TaskList() {
-        this.toDoList = new ArrayList<Task>();
-        this.counter = 1;
+        this(new ArrayTaskStore());
+    }
+
+    /**
+     * Constructs an empty TaskList backed by the given store.
+     *
+     * @param store the empty TaskStore that holds the tasks
+     */
+    public TaskList(TaskStore store) {
+        assert store != null : "TaskStore should not be null";
+        assert store.size() == 0 : "TaskStore should be empty";
+
+        this.toDoList = store;
+        this.writeLock = new ReentrantLock();
+        this.listeners = new ArrayList<>();
+        this.index = new TaskIndex();
+        this.listeners.add(this.index);
+        this.statistics = new TaskStatistics(Clock.systemDefaultZone());
+        this.listeners.add(this.statistics);
+        this.words = new WordIndex();
+        this.listeners.add(this.words);
+        this.sortedViews = new LinkedHashMap<>();
+        if (store.keepsTaskIdentity()) {
+            for (String sort : SORT_ORDERS) {
+                SortedView view = new SortedView(sort, Query.getComparator(sort));
+                this.sortedViews.put(sort, view);
+                this.listeners.add(view);
+            }
+            this.renderCache = new RenderCache();
+            this.listeners.add(this.renderCache);
+        }
+        this.nextSequence = 0;
+    }
+
+    /**
+     * Registers a listener that is told about every task added to or removed from the list.
+     * Tasks already in the list are not reported.
+     *
+     * @param listener the listener to register
+     */
+    public void addListener(TaskListener listener) {
+        assert listener != null : "Listener should not be null";
+
+        this.writeLock.lock();
+        try {
+            this.listeners.add(listener);
+        } finally {
+            this.writeLock.unlock();
+        }
     }
 
     /**
-     * Marks a task as done at the specified index and updates the storage file.
+     * Marks a task as done at the specified index and updates the storage file,
+     * printing the result to System.out.
      *
      * @param index   the 1-based index of the task to mark as done
      * @param storage the Storage object to handle file operations
      */
     public void mark(int index, Storage storage) {
+        mark(index, storage, System.out);
+    }
+
+    /**
+     * Marks a task as done at the specified index and updates the storage file,
+     * printing the result to the given stream.
+     *
+     * @param index   the 1-based index of the task to mark as done
+     * @param storage the Storage object to handle file operations
+     * @param out     the stream the result is printed to
+     */
+    public void mark(int index, Storage storage, PrintStream out) {
         assert storage != null : "Storage object should not be null";
 
-        Task task = this.toDoList.get(index - 1);
-        task.markAsDone();
-        storage.replaceLineInFile(this, index - 1);
-        System.out.println("Nice! I've marked this task as done:");
-        System.out.println(task.toString());
+        this.writeLock.lock();
+        try {
+            Task task = beginUpdate(index - 1);
+            task.markAsDone();
+            Metrics.increment("tasklist.mark");
+            endUpdate(index - 1, task);
+            storage.replaceLineInFile(this, index - 1);
+            out.println("Nice! I've marked this task as done:");
+            out.println(task.toString());
+        } finally {
+            this.writeLock.unlock();
+        }
     }
 
     /**
-     * Unmarks a task as not done yet at the specified index and updates the storage file.
+     * Unmarks a task as not done yet at the specified index and updates the storage file,
+     * printing the result to System.out.
      *
      * @param index   the 1-based index of the task to unmark
      * @param storage the Storage object to handle file operations
      */
     public void unmark(int index, Storage storage) {
+        unmark(index, storage, System.out);
+    }
+
+    /**
+     * Unmarks a task as not done yet at the specified index and updates the storage file,
+     * printing the result to the given stream.
+     *
+     * @param index   the 1-based index of the task to unmark
+     * @param storage the Storage object to handle file operations
+     * @param out     the stream the result is printed to
+     */
+    public void unmark(int index, Storage storage, PrintStream out) {
         assert storage != null : "Storage object should not be null";
 
-        Task task = toDoList.get(index - 1);
-        task.unmarkAsUndone();
-        storage.replaceLineInFile(this, index - 1);
-        System.out.println("Ok! I've marked this task as not done yet:");
-        System.out.println(task.toString());
+        this.writeLock.lock();
+        try {
+            Task task = beginUpdate(index - 1);
+            task.unmarkAsUndone();
+            Metrics.increment("tasklist.unmark");
+            endUpdate(index - 1, task);
+            storage.replaceLineInFile(this, index - 1);
+            out.println("Ok! I've marked this task as not done yet:");
+            out.println(task.toString());
+        } finally {
+            this.writeLock.unlock();
+        }
     }
 
     /**
-     * Marks a task as high priority at the specified index and updates the storage file.
+     * Marks a task as high priority at the specified index and updates the storage file,
+     * printing the result to System.out.
      *
      * @param index   the 1-based index of the task to mark as high priority
      * @param storage the Storage object to handle file operations
      */
     public void prioritise(int index, Storage storage) {
+        prioritise(index, storage, System.out);
+    }
+
+    /**
+     * Marks a task as high priority at the specified index and updates the storage file,
+     * printing the result to the given stream.
+     *
+     * @param index   the 1-based index of the task to mark as high priority
+     * @param storage the Storage object to handle file operations
+     * @param out     the stream the result is printed to
+     */
+    public void prioritise(int index, Storage storage, PrintStream out) {
         assert storage != null : "Storage object should not be null";
 
-        Task task = this.toDoList.get(index - 1);
-        task.markAsHighPriority();
-        storage.replaceLineInFile(this, index - 1);
-        System.out.println("Nice! I've marked this task as high priority:");
-        System.out.println(task.toString());
+        this.writeLock.lock();
+        try {
+            Task task = beginUpdate(index - 1);
+            task.markAsHighPriority();
+            Metrics.increment("tasklist.prioritise");
+            endUpdate(index - 1, task);
+            storage.replaceLineInFile(this, index - 1);
+            out.println("Nice! I've marked this task as high priority:");
+            out.println(task.toString());
+        } finally {
+            this.writeLock.unlock();
+        }
     }
 
     /**
-     * Unmarks a task as high priority at the specified index and updates the storage file.
+     * Unmarks a task as high priority at the specified index and updates the storage file,
+     * printing the result to System.out.
      *
      * @param index   the 1-based index of the task to unmark as high priority
      * @param storage the Storage object to handle file operations
      */
     public void deprioritise(int index, Storage storage) {
+        deprioritise(index, storage, System.out);
+    }
+
+    /**
+     * Unmarks a task as high priority at the specified index and updates the storage file,
+     * printing the result to the given stream.
+     *
+     * @param index   the 1-based index of the task to unmark as high priority
+     * @param storage the Storage object to handle file operations
+     * @param out     the stream the result is printed to
+     */
+    public void deprioritise(int index, Storage storage, PrintStream out) {
+        assert storage != null : "Storage object should not be null";
+
+        this.writeLock.lock();
+        try {
+            Task task = beginUpdate(index - 1);
+            task.unmarkAsHighPriority();
+            Metrics.increment("tasklist.deprioritise");
+            endUpdate(index - 1, task);
+            storage.replaceLineInFile(this, index - 1);
+            out.println("Nice! I've unmarked this task as high priority:");
+            out.println(task.toString());
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Marks a single occurrence of a recurring task as done or not done and updates the storage file,
+     * printing the result to System.out.
+     *
+     * @param index      the 1-based index of the recurring task
+     * @param occurrence the date and time of the occurrence
+     * @param isDone     whether the occurrence is done
+     * @param storage    the Storage object to handle file operations
+     * @throws DukerException if the task does not recur or has no occurrence at that date-time
+     */
+    public void markOccurrence(int index, LocalDateTime occurrence, boolean isDone, Storage storage)
+            throws DukerException {
+        markOccurrence(index, occurrence, isDone, storage, System.out);
+    }
+
+    /**
+     * Marks a single occurrence of a recurring task as done or not done and updates the storage file,
+     * printing the result to the given stream.
+     *
+     * @param index      the 1-based index of the recurring task
+     * @param occurrence the date and time of the occurrence
+     * @param isDone     whether the occurrence is done
+     * @param storage    the Storage object to handle file operations
+     * @param out        the stream the result is printed to
+     * @throws DukerException if the task does not recur or has no occurrence at that date-time
+     */
+    public void markOccurrence(int index, LocalDateTime occurrence, boolean isDone, Storage storage,
+            PrintStream out) throws DukerException {
         assert storage != null : "Storage object should not be null";
 
-        Task task = this.toDoList.get(index - 1);
-        task.unmarkAsHighPriority();
-        storage.replaceLineInFile(this, index - 1);
-        System.out.println("Nice! I've unmarked this task as high priority:");
-        System.out.println(task.toString());
+        this.writeLock.lock();
+        try {
+            if (!(this.toDoList.get(index - 1) instanceof Recurring)) {
+                throw new DukerException("This task does not recur.");
+            }
+            Task task = beginUpdate(index - 1);
+            Task changed;
+            try {
+                changed = ((Recurring) task).markOccurrence(occurrence, isDone);
+            } finally {
+                endUpdate(index - 1, task);
+            }
+            Metrics.increment("tasklist.markOccurrence");
+            storage.replaceLineInFile(this, index - 1);
+            if (isDone) {
+                out.println("Nice! I've marked this occurrence as done:");
+            } else {
+                out.println("Ok! I've marked this occurrence as not done yet:");
+            }
+            out.println(changed.toString());
+        } finally {
+            this.writeLock.unlock();
+        }
     }
 
     /**
-     * Deletes a task at the specified index from the task list and updates the storage file.
+     * Deletes a task at the specified index from the task list and updates the storage file,
+     * printing the result to System.out.
      *
      * @param index   the 1-based index of the task to delete
      * @param storage the Storage object to handle file operations
      */
     public void delete(int index, Storage storage) {
+        delete(index, storage, System.out);
+    }
+
+    /**
+     * Deletes a task at the specified index from the task list and updates the storage file,
+     * printing the result to the given stream.
+     *
+     * @param index   the 1-based index of the task to delete
+     * @param storage the Storage object to handle file operations
+     * @param out     the stream the result is printed to
+     */
+    public void delete(int index, Storage storage, PrintStream out) {
         assert storage != null : "Storage object should not be null";
 
-        Task task = toDoList.get(index - 1);
-        toDoList.remove(index - 1);
-        storage.deleteLineFromFile(index - 1);
-        System.out.println("Noted. I've removed this task:");
-        System.out.println(task.toString());
-        this.counter -= 1;
-        System.out.println("Now you have " + toDoList.size() + " tasks in the list.");
+        this.writeLock.lock();
+        try {
+            Task task = toDoList.remove(index - 1);
+            notifyRemoved(task);
+            Metrics.increment("tasklist.delete");
+            storage.deleteLineFromFile(index - 1);
+            out.println("Noted. I've removed this task:");
+            out.println(task.toString());
+            out.println("Now you have " + toDoList.size() + " tasks in the list.");
+        } finally {
+            this.writeLock.unlock();
+        }
     }
 
     /**
@@ -111,26 +335,183 @@ public class TaskList {
     public void load(Task task) {
         assert task != null : "Task to load should not be null";
 
-        this.toDoList.add(task);
-        this.counter += 1;
+        this.writeLock.lock();
+        try {
+            task.setSequence(this.nextSequence++);
+            this.toDoList.add(task);
+            notifyAdded(task);
+            Metrics.increment("tasklist.load");
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes every task from the task list without touching the storage file.
+     * Used before the tasks are loaded again from a storage file that was changed elsewhere.
+     */
+    public void clear() {
+        this.writeLock.lock();
+        try {
+            for (int i = this.toDoList.size() - 1; i >= 0; i--) {
+                notifyRemoved(this.toDoList.remove(i));
+            }
+            Metrics.increment("tasklist.clear");
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the done tasks that ended before the cutoff out of the task list and into the archive
+     * of the storage, then rewrites the storage file once with the remaining tasks.
+     * A deadline ends at its due time and an event at its end time. To-dos have no date to age them by,
+     * so they are never archived, and neither are recurring tasks.
+     *
+     * @param storage the Storage object to handle file operations
+     * @param cutoff  the time before which done tasks are archived
+     * @return the number of tasks archived
+     */
+    public int archive(Storage storage, LocalDateTime cutoff) {
+        assert storage != null : "Storage object should not be null";
+        assert cutoff != null : "Cutoff should not be null";
+
+        this.writeLock.lock();
+        try {
+            List<Task> tasks = this.toDoList.snapshot();
+            ArrayList<Task> archived = new ArrayList<>();
+            ArrayList<Task> kept = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                if (isArchivable(task, cutoff)) {
+                    archived.add(task);
+                } else {
+                    kept.add(task);
+                }
+            }
+            if (archived.isEmpty()) {
+                return 0;
+            }
+
+            storage.appendToArchive(archived);
+            clear();
+            for (Task task : kept) {
+                this.toDoList.add(task);
+                notifyAdded(task);
+            }
+            storage.rewriteFile(this);
+            Metrics.add("tasklist.archived", archived.size());
+            return archived.size();
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the time before which done tasks are archived, which is the number of days given by
+     * the "duker.archive.days" system property before now, 30 by default.
+     *
+     * @return the archive cutoff
+     */
+    public static LocalDateTime getArchiveCutoff() {
+        return LocalDateTime.now().minusDays(Integer.getInteger("duker.archive.days", DEFAULT_ARCHIVE_DAYS));
+    }
+
+    /**
+     * Returns whether done tasks older than the archive cutoff are archived whenever a task list is
+     * loaded, which is turned on with -Dduker.archive.onStart=true. Otherwise they are only archived
+     * by the "archive" command.
+     *
+     * @return true if tasks are archived when loaded, false otherwise
+     */
+    public static boolean isArchivedOnStart() {
+        return Boolean.getBoolean("duker.archive.onStart");
+    }
+
+    static boolean isArchivable(Task task, LocalDateTime cutoff) {
+        if (!task.isDone() || task instanceof Recurring) {
+            return false;
+        }
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy().isBefore(cutoff);
+        }
+        if (task instanceof Event) {
+            return ((Event) task).getEnd().isBefore(cutoff);
+        }
+        return false;
     }
 
     /**
-     * Adds a new task to the task list and writes it to the storage file.
+     * Runs the given action while no other change can be made to the task list.
+     * Changes made by the action itself are allowed, since the lock can be taken again by the same thread.
+     *
+     * @param action the action to run
+     */
+    public void runWrite(Runnable action) {
+        assert action != null : "Action should not be null";
+
+        this.writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns whether the current thread holds the lock taken by changes to the task list,
+     * such as while it runs an action given to runWrite.
+     *
+     * @return true if the current thread holds the lock, false otherwise
+     */
+    public boolean isLockedByCurrentThread() {
+        return this.writeLock.isHeldByCurrentThread();
+    }
+
+    /**
+     * Adds a new task to the task list and writes it to the storage file,
+     * printing the result to System.out.
      *
      * @param task    the Task to add
      * @param storage the Storage object to handle file operations
      */
     public void add(Task task, Storage storage) {
+        add(task, storage, System.out);
+    }
+
+    /**
+     * Adds a new task to the task list and writes it to the storage file,
+     * printing the result to the given stream.
+     *
+     * @param task    the Task to add
+     * @param storage the Storage object to handle file operations
+     * @param out     the stream the result is printed to
+     */
+    public void add(Task task, Storage storage, PrintStream out) {
         assert task != null : "Task to add should not be null";
         assert storage != null : "Storage object should not be null";
 
-        this.toDoList.add(task);
-        storage.writeToFile(task);
-        System.out.println("Got it. I've added this task: ");
-        System.out.println(task.toString());
-        System.out.println("Now you have " + counter + " tasks in the list.");
-        this.counter += 1;
+        this.writeLock.lock();
+        try {
+            task.setSequence(this.nextSequence++);
+            this.toDoList.add(task);
+            notifyAdded(task);
+            Metrics.increment("tasklist.add");
+            storage.writeToFile(task);
+            out.println("Got it. I've added this task: ");
+            out.println(task.toString());
+            out.println("Now you have " + this.toDoList.size() + " tasks in the list.");
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the running counts of the tasks in the list, which are kept up to date by every change.
+     *
+     * @return the statistics of the task list
+     */
+    public TaskStatistics getStatistics() {
+        return this.statistics;
     }
 
     /**
@@ -152,17 +533,30 @@ public class TaskList {
         return toDoList.get(index);
     }
 
+    /**
+     * Returns a read-only view of the tasks for iterating over the whole list.
+     * With a store built for concurrent use, the view does not change while it is being read.
+     *
+     * @return a read-only list of the tasks
+     */
+    public List<Task> snapshot() {
+        return this.toDoList.snapshot();
+    }
+
     /**
      * Returns the entire task list.
+     * For the default ArrayList backing this is the live list; other backings return a copy.
      *
      * @return the ArrayList of tasks
      */
     public ArrayList<Task> getTaskList() {
-        return this.toDoList;
+        return this.toDoList.toArrayList();
     }
 
     /**
      * Searches for tasks in the task list that contain the specified keyword in their description.
+     * Long lists are searched in parallel; see ParallelScan.
+     * The columnar store matches the keyword against its description bytes without creating Task views.
      *
      * @param keyword The keyword to search for in task descriptions.
      * @return An ArrayList of tasks that contain the keyword in their description.
@@ -170,13 +564,307 @@ public class TaskList {
     public ArrayList<Task> findTasks(String keyword) {
         assert keyword != null && !keyword.isEmpty() : "Keyword should not be null or empty";
 
+        long startTime = Metrics.startTimer();
+        ArrayList<Task> tasksFound = this.toDoList.findContaining(keyword);
+        Metrics.add("tasklist.find.scanned", this.toDoList.size());
+        Metrics.recordLatency("tasklist", "find", startTime);
+        return tasksFound;
+    }
+
+    /**
+     * Searches for tasks whose descriptions contain words within a small edit distance of every word
+     * of the query, so that typos in either still match. The word index is built on the first search.
+     *
+     * @param query the words to search for
+     * @return An ArrayList of the matching tasks, closest matches first.
+     */
+    public ArrayList<Task> findSimilarTasks(String query) {
+        assert query != null && !query.isEmpty() : "Query should not be null or empty";
+
+        return read(this.words.isBuilt(), () -> {
+            long startTime = Metrics.startTimer();
+            ArrayList<Task> tasksFound = this.words.search(query, this.toDoList.snapshot());
+            Metrics.recordLatency("tasklist", "fuzzyFind", startTime);
+            return tasksFound;
+        });
+    }
+
+    /**
+     * Returns the tasks most relevant to the words of the query, ranked by BM25 over the word index.
+     * Only the given number of best tasks is kept while scoring, so the matches are never sorted as a whole.
+     *
+     * @param query the words to search for
+     * @param limit the largest number of tasks to return
+     * @return An ArrayList of the best matching tasks, most relevant first.
+     */
+    public ArrayList<Task> searchTasks(String query, int limit) {
+        assert query != null && !query.isEmpty() : "Query should not be null or empty";
+
+        return read(this.words.isBuilt(), () -> {
+            long startTime = Metrics.startTimer();
+            ArrayList<Task> tasksFound = this.words.rank(query, limit, this.toDoList.snapshot());
+            Metrics.recordLatency("tasklist", "search", startTime);
+            return tasksFound;
+        });
+    }
+
+    /**
+     * Returns a page of the tasks sorted by due time, priority or description, as for the sort terms
+     * of Query. The sorted order is kept up to date by every change, so reading a page never sorts the list;
+     * the order is only built the first time a page of it is read. A store that makes a new Task for every
+     * read keeps no sorted order, since it would hold a Task for every row, so its page is picked from the
+     * list on each read instead; see SortedView.sortPage.
+     *
+     * @param sort  the order: due, priority or text
+     * @param from  the 0-based position in the sorted list of the first task to return
+     * @param count the largest number of tasks to return
+     * @return An ArrayList of the tasks on the page, in order.
+     * @throws DukerException if the order is not one of the sorted views
+     */
+    public ArrayList<Task> getSortedPage(String sort, int from, int count) throws DukerException {
+        if (!Arrays.asList(SORT_ORDERS).contains(sort)) {
+            throw new DukerException("sort should be one of " + String.join(", ", SORT_ORDERS));
+        }
+        SortedView view = this.sortedViews.get(sort);
+
+        return read(view == null || view.isBuilt(), () -> {
+            long startTime = Metrics.startTimer();
+            ArrayList<Task> page;
+            if (view == null) {
+                page = SortedView.sortPage(this.toDoList.snapshot(), Query.getComparator(sort), from, count);
+            } else {
+                page = view.getPage(from, count, this.toDoList.snapshot());
+            }
+            Metrics.recordLatency("tasklist", "sortedPage", startTime);
+            return page;
+        });
+    }
+
+    /**
+     * Returns the 1-based index in the list of a task read from it, as used by commands such as mark.
+     * Sequence numbers grow in list order, so the task is found by a binary search.
+     *
+     * @param task a task of the list
+     * @return the index of the task, or -1 if it is no longer in the list
+     */
+    public int getIndexOf(Task task) {
+        assert task != null : "Task should not be null";
+
+        int position = findSequence(this.toDoList.snapshot(), task.getSequence());
+        if (position < 0) {
+            return -1;
+        }
+        return position + 1;
+    }
+
+    /**
+     * Returns the 0-based position of the task with the given sequence number among tasks in list order,
+     * found by a binary search since sequence numbers grow in list order.
+     *
+     * @param tasks    the tasks in list order
+     * @param sequence the sequence number of the task to find
+     * @return the position of the task, or -1 if it is not among the tasks
+     */
+    static int findSequence(List<Task> tasks, long sequence) {
+        int low = 0;
+        int high = tasks.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleSequence = tasks.get(middle).getSequence();
+            if (middleSequence < sequence) {
+                low = middle + 1;
+            } else if (middleSequence > sequence) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the string representation of the task, reusing the one from an earlier call if it is a
+     * task of this list that has not changed since. Other tasks, such as occurrences of recurring tasks,
+     * are rendered without being cached, and so are the tasks of a store that makes a new Task for every
+     * read, since those would never be found again.
+     *
+     * @param task the task to render
+     * @return the same string as task.toString()
+     */
+    public String render(Task task) {
+        assert task != null : "Task should not be null";
+
+        if (this.renderCache == null) {
+            return task.toString();
+        }
+        int index = getIndexOf(task);
+        if (index < 0 || this.toDoList.get(index - 1) != task) {
+            return task.toString();
+        }
+        return this.renderCache.render(task);
+    }
+
+    /**
+     * Returns whether printing the given number of tasks in one go should go through render.
+     * A run longer than the render cache would evict every string before it is read again, so it is
+     * better rendered with toString, without the cost of the cache.
+     *
+     * @param count the number of tasks to be printed
+     * @return true if the tasks should be rendered through the cache, false otherwise
+     */
+    public boolean isRenderCached(long count) {
+        return this.renderCache != null && count <= this.renderCache.getCapacity();
+    }
+
+    /**
+     * Returns the cache of rendered task strings, or null if the store makes a new Task for every read.
+     *
+     * @return the render cache, or null
+     */
+    public RenderCache getRenderCache() {
+        return this.renderCache;
+    }
+
+    /**
+     * Returns the task at the specified index in a form that may be changed in place, and reports it
+     * to the listeners as removed until endUpdate is called.
+     * If the store shares tasks with snapshots, a copy is returned so that snapshots keep
+     * seeing the task as it was when they were taken.
+     *
+     * @param index the 0-based index of the task
+     * @return the task, or a copy of it
+     */
+    private Task beginUpdate(int index) {
+        Task task = this.toDoList.get(index);
+        notifyRemoved(task);
+        if (this.toDoList.sharesTasksWithSnapshots()) {
+            return task.copy();
+        }
+        return task;
+    }
+
+    /**
+     * Writes a task returned by beginUpdate back to the store and reports it to the listeners as added.
+     *
+     * @param index the 0-based index of the task
+     * @param task  the changed task
+     */
+    private void endUpdate(int index, Task task) {
+        this.toDoList.set(index, task);
+        notifyAdded(task);
+    }
+
+    private void notifyAdded(Task task) {
+        for (TaskListener listener : this.listeners) {
+            listener.taskAdded(task);
+        }
+    }
+
+    private void notifyRemoved(Task task) {
+        for (TaskListener listener : this.listeners) {
+            listener.taskRemoved(task);
+        }
+    }
+
+    /**
+     * Runs a query over the tasks, using an index where one narrows the search.
+     *
+     * @param query the query to run
+     * @return the matching tasks and the access path used to find them
+     */
+    public QueryResult query(Query query) {
+        assert query != null : "Query should not be null";
+
+        return read(this.index.isBuiltFor(query), () -> {
+            long startTime = Metrics.startTimer();
+            QueryResult result = this.index.query(query, this.toDoList.snapshot(), this.toDoList.keepsTaskIdentity());
+            Metrics.recordLatency("tasklist", "query", startTime);
+            return result;
+        });
+    }
+
+    /**
+     * Returns whether the list may be read while it is being changed, which is so when the snapshots of its
+     * store never change once taken. Reads of other lists should hold the write lock, through runWrite.
+     *
+     * @return true if reads need not wait for changes, false otherwise
+     */
+    public boolean isReadableDuringChanges() {
+        return this.toDoList.sharesTasksWithSnapshots();
+    }
+
+    /**
+     * Runs a read that goes through an index, holding the write lock only if the snapshots of the store
+     * may change while they are read, or if the index is not built yet, since building it from a snapshot
+     * would miss a change made meanwhile. Otherwise the index may be a change ahead of or behind the
+     * snapshot, and a task that is being changed may be missing from it until the change ends.
+     */
+    private <T> T read(boolean isIndexBuilt, Supplier<T> action) {
+        if (isIndexBuilt && isReadableDuringChanges()) {
+            return action.get();
+        }
+        this.writeLock.lock();
+        try {
+            return action.get();
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the earliest deadlines and events that fall within the given period, in time order.
+     * Recurring tasks contribute one task for each of their occurrences in the period.
+     * At most limit tasks are returned, and no more than that are held at once, so callers can ask for
+     * one more than they show to tell whether the period holds more.
+     *
+     * @param from  the start of the period, inclusive
+     * @param to    the end of the period, exclusive
+     * @param limit the largest number of tasks to return
+     * @return An ArrayList of the earliest tasks and occurrences in the period.
+     */
+    public ArrayList<Task> findTasksBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        assert from != null && to != null : "Period should not be null";
+        assert limit > 0 : "Limit should be positive";
+
         ArrayList<Task> tasksFound = new ArrayList<>();
-        for (Task t : this.toDoList) {
-            if (t.getDescription().contains(keyword)) {
-                tasksFound.add(t);
+        for (Task t : this.toDoList.snapshot()) {
+            if (tasksFound.size() > 2 * limit) {
+                keepEarliest(tasksFound, limit);
+            }
+            if (t instanceof Recurring) {
+                tasksFound.addAll(((Recurring) t).getOccurrencesBetween(from, to, limit));
+            } else if (t instanceof Deadline) {
+                LocalDateTime by = ((Deadline) t).getBy();
+                if (!by.isBefore(from) && by.isBefore(to)) {
+                    tasksFound.add(t);
+                }
+            } else if (t instanceof Event) {
+                Event event = (Event) t;
+                if (event.getStart().isBefore(to) && event.getEnd().isAfter(from)) {
+                    tasksFound.add(t);
+                }
             }
         }
+        keepEarliest(tasksFound, limit);
         return tasksFound;
     }
 
+    /**
+     * Sorts the tasks by start time, keeping tasks that start together in list order,
+     * and drops all but the first limit of them.
+     */
+    private static void keepEarliest(ArrayList<Task> tasks, int limit) {
+        tasks.sort(Comparator.comparing(TaskList::getStartTime));
+        if (tasks.size() > limit) {
+            tasks.subList(limit, tasks.size()).clear();
+        }
+    }
+
+    private static LocalDateTime getStartTime(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy();
+        }
+        return ((Event) task).getStart();
+    }
+
 }
@@ -0,0 +1,24 @@
+package duker;
+
+/**
+ * Receives changes to the tasks in a TaskList, such as to keep an index up to date.
+ * A task that is changed in place is reported as removed before the change and added again after it,
+ * so a listener always sees a task with the same state it had when it was added.
+ * Listeners are called while the TaskList is being changed, by the thread making the change.
+ */
+public interface TaskListener {
+
+    /**
+     * Called after a task is added to the task list, or after a task is changed.
+     *
+     * @param task the task that was added
+     */
+    void taskAdded(Task task);
+
+    /**
+     * Called after a task is removed from the task list, or before a task is changed.
+     *
+     * @param task the task that was removed
+     */
+    void taskRemoved(Task task);
+}
@@ -0,0 +1,248 @@
+package duker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * The TaskSnapshot class encodes a task list in a compact binary form that is loaded much faster
+ * than the text data file is parsed. A snapshot starts with the length, modification time and
+ * CRC32C checksum of the text file it was taken from, and is only used while all three still match.
+ * It ends with a CRC32C checksum of its own contents, so a torn or damaged snapshot is never used.
+ * <p>
+ * Each task is a kind byte ('T', 'D' or 'E'), a flags byte, the description, the times of the task
+ * as epoch seconds and nanoseconds in UTC, and, for recurring tasks, the period and done state in
+ * the same form as the text file.
+ */
+public class TaskSnapshot {
+
+    private static final int MAGIC = 0x444b534e;
+    private static final byte VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int DONE = 1;
+    private static final int HIGH_PRIORITY = 2;
+    private static final int RECURRING = 4;
+    private static final int HEADER_SIZE = 4 + 1 + 8 + 8 + 8;
+    private static final int TRAILER_SIZE = 8;
+
+    private TaskSnapshot() {
+    }
+
+    /**
+     * Returns the CRC32C checksum of the whole file.
+     *
+     * @param file the file to read
+     * @return the checksum of its contents
+     * @throws IOException if the file cannot be read
+     */
+    public static long computeChecksum(File file) throws IOException {
+        return computeChecksum(file, new CRC32C());
+    }
+
+    /**
+     * Adds the contents of the whole file to the given checksum and returns its value.
+     *
+     * @param file the file to read
+     * @param crc  the checksum to add the contents to
+     * @return the value of the checksum afterwards
+     * @throws IOException if the file cannot be read
+     */
+    public static long computeChecksum(File file, CRC32C crc) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream input = new FileInputStream(file)) {
+            int count;
+            while ((count = input.read(buffer)) > 0) {
+                crc.update(buffer, 0, count);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Encodes the tasks together with the state of the text file they were taken from.
+     * The tasks should not change while they are encoded.
+     *
+     * @param dataFile the text data file that holds the same tasks
+     * @param tasks    the tasks to encode
+     * @return the encoded snapshot
+     * @throws IOException if the data file cannot be read
+     */
+    public static byte[] encode(File dataFile, List<Task> tasks) throws IOException {
+        assert dataFile != null && tasks != null : "Data file and tasks should not be null";
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER_SIZE);
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        output.writeLong(dataFile.length());
+        output.writeLong(dataFile.lastModified());
+        output.writeLong(computeChecksum(dataFile));
+        output.writeInt(tasks.size());
+        for (Task task : tasks) {
+            encodeTask(output, task);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.toByteArray());
+        output.writeLong(crc.getValue());
+        return bytes.toByteArray();
+    }
+
+    private static void encodeTask(DataOutputStream output, Task task) throws IOException {
+        int flags = (task.isDone() ? DONE : 0) | (task.getPriority() == 1 ? HIGH_PRIORITY : 0) |
+                (task instanceof Recurring ? RECURRING : 0);
+        if (task instanceof Deadline) {
+            output.writeByte('D');
+            output.writeByte(flags);
+            writeString(output, task.getDescription());
+            writeTime(output, ((Deadline) task).getBy());
+        } else if (task instanceof Event) {
+            output.writeByte('E');
+            output.writeByte(flags);
+            writeString(output, task.getDescription());
+            writeTime(output, ((Event) task).getStart());
+            writeTime(output, ((Event) task).getEnd());
+        } else {
+            output.writeByte('T');
+            output.writeByte(flags);
+            writeString(output, task.getDescription());
+        }
+        if (task instanceof Recurring) {
+            Recurrence recurrence = ((Recurring) task).getRecurrence();
+            writeString(output, recurrence.getPeriod());
+            writeString(output, recurrence.encodeDoneState());
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static void writeTime(DataOutputStream output, LocalDateTime time) throws IOException {
+        output.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        output.writeInt(time.getNano());
+    }
+
+    /**
+     * Decodes the snapshot if it was taken from the data file as it is now.
+     * The length and modification time are compared before the data file is read for its checksum.
+     *
+     * @param snapshot the snapshot file
+     * @param dataFile the text data file the snapshot should match
+     * @param pool     the pool the descriptions are interned in, as when parsing the data file
+     * @return the tasks in the snapshot, or null if it is missing, stale or damaged
+     */
+    public static ArrayList<Task> decode(File snapshot, File dataFile, DescriptionPool pool) {
+        return decode(snapshot, dataFile, pool, new CRC32C());
+    }
+
+    /**
+     * Decodes the snapshot if it was taken from the data file as it is now, adding the contents of the
+     * data file to the given checksum while checking it. Once the tasks are returned, the checksum is
+     * that of the whole data file, so the caller does not have to read the file again for it.
+     *
+     * @param snapshot     the snapshot file
+     * @param dataFile     the text data file the snapshot should match
+     * @param pool         the pool the descriptions are interned in, as when parsing the data file
+     * @param dataChecksum the empty checksum to add the contents of the data file to
+     * @return the tasks in the snapshot, or null if it is missing, stale or damaged
+     */
+    public static ArrayList<Task> decode(File snapshot, File dataFile, DescriptionPool pool, CRC32C dataChecksum) {
+        assert snapshot != null && dataFile != null : "Files should not be null";
+        assert pool != null : "Description pool should not be null";
+
+        if (!snapshot.exists() || snapshot.length() < HEADER_SIZE + TRAILER_SIZE) {
+            return null;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(snapshot.toPath());
+            ByteBuffer input = ByteBuffer.wrap(bytes);
+            if (input.getInt() != MAGIC || input.get() != VERSION ||
+                    input.getLong() != dataFile.length() || input.getLong() != dataFile.lastModified() ||
+                    input.getLong() != computeChecksum(dataFile, dataChecksum)) {
+                return null;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(bytes, 0, bytes.length - TRAILER_SIZE);
+            if (input.getLong(bytes.length - TRAILER_SIZE) != crc.getValue()) {
+                return null;
+            }
+            int count = input.getInt();
+            ArrayList<Task> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tasks.add(decodeTask(input, pool));
+            }
+            return tasks;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Task decodeTask(ByteBuffer input, DescriptionPool pool) throws IOException {
+        byte kind = input.get();
+        int flags = input.get();
+        String description = pool.intern(readString(input));
+        Task task;
+        switch (kind) {
+        case 'T':
+            task = new Todo(description);
+            break;
+        case 'D':
+            LocalDateTime by = readTime(input);
+            if ((flags & RECURRING) != 0) {
+                task = new RecurringDeadline(description, by, readRecurrence(input));
+            } else {
+                task = new Deadline(description, by);
+            }
+            break;
+        case 'E':
+            LocalDateTime start = readTime(input);
+            LocalDateTime end = readTime(input);
+            if ((flags & RECURRING) != 0) {
+                task = new RecurringEvent(description, start, end, readRecurrence(input));
+            } else {
+                task = new Event(description, start, end);
+            }
+            break;
+        default:
+            throw new IOException("Unknown task kind " + kind);
+        }
+        if ((flags & DONE) != 0 && !(task instanceof Recurring)) {
+            task.markAsDone();
+        }
+        if ((flags & HIGH_PRIORITY) != 0) {
+            task.markAsHighPriority();
+        }
+        return task;
+    }
+
+    private static String readString(ByteBuffer input) {
+        int length = input.getInt();
+        String value = new String(input.array(), input.position(), length, StandardCharsets.UTF_8);
+        input.position(input.position() + length);
+        return value;
+    }
+
+    private static LocalDateTime readTime(ByteBuffer input) {
+        long seconds = input.getLong();
+        return LocalDateTime.ofEpochSecond(seconds, input.getInt(), ZoneOffset.UTC);
+    }
+
+    private static Recurrence readRecurrence(ByteBuffer input) {
+        Recurrence recurrence = Recurrence.parse(readString(input));
+        recurrence.decodeDoneState(readString(input));
+        return recurrence;
+    }
+}
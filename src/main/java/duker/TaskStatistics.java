@@ -0,0 +1,215 @@
+package duker;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The TaskStatistics class keeps running counts of the tasks in a TaskList: in total, done, high priority,
+ * overdue and by type. It listens to the TaskList, so each add, load, delete, mark, unmark, prioritise
+ * and deprioritise changes the counts in constant time, and reading them never walks the list.
+ * <p>
+ * A task becomes overdue by the passing of time rather than by a change, so every undone deadline has
+ * a timer in a TimerWheel that moves it to the overdue count once it is due. The wheel is only advanced
+ * when the overdue count is read, which costs one step per minute passed since the last read plus one
+ * per deadline that has fallen due. A recurring deadline is overdue while its first undone occurrence
+ * is past.
+ */
+public class TaskStatistics implements TaskListener {
+
+    private final Clock clock;
+    private final TimerWheel<Task> overdueTimers;
+    private final HashMap<Long, TimerWheel.Timer<Task>> timers;
+    private long total;
+    private long done;
+    private long highPriority;
+    private long overdue;
+    private long todos;
+    private long deadlines;
+    private long events;
+
+    /**
+     * Constructs an empty TaskStatistics that tells overdue tasks by the given clock.
+     *
+     * @param clock the clock that gives the current time
+     */
+    public TaskStatistics(Clock clock) {
+        assert clock != null : "Clock should not be null";
+
+        this.clock = clock;
+        this.overdueTimers = new TimerWheel<>(getCurrentMinute());
+        this.timers = new HashMap<>();
+    }
+
+    @Override
+    public synchronized void taskAdded(Task task) {
+        update(task, 1);
+        LocalDateTime dueTime = getDueTime(task);
+        if (dueTime == null) {
+            return;
+        }
+        long dueTick = toEpochMinutes(dueTime) + 1;
+        TimerWheel.Timer<Task> timer = this.overdueTimers.schedule(task, dueTick);
+        if (dueTick < this.overdueTimers.getNextTick()) {
+            // already past the last read, so counted at once; the spent timer tells taskRemoved so
+            this.overdueTimers.cancel(timer);
+            this.overdue += 1;
+        }
+        this.timers.put(task.getSequence(), timer);
+    }
+
+    @Override
+    public synchronized void taskRemoved(Task task) {
+        update(task, -1);
+        TimerWheel.Timer<Task> timer = this.timers.remove(task.getSequence());
+        if (timer == null) {
+            return;
+        }
+        if (timer.isPending()) {
+            this.overdueTimers.cancel(timer);
+        } else {
+            this.overdue -= 1;
+        }
+    }
+
+    private void update(Task task, int delta) {
+        this.total += delta;
+        if (task.isDone()) {
+            this.done += delta;
+        }
+        if (task.getPriority() == 1) {
+            this.highPriority += delta;
+        }
+        if (task instanceof Deadline) {
+            this.deadlines += delta;
+        } else if (task instanceof Event) {
+            this.events += delta;
+        } else {
+            this.todos += delta;
+        }
+    }
+
+    /**
+     * Returns the time after which an undone deadline is overdue, or null for any other task.
+     */
+    private static LocalDateTime getDueTime(Task task) {
+        if (!(task instanceof Deadline)) {
+            return null;
+        }
+        LocalDateTime by = ((Deadline) task).getBy();
+        if (task instanceof Recurring) {
+            Recurrence recurrence = ((Recurring) task).getRecurrence();
+            return recurrence.getOccurrence(by, recurrence.getFirstUndone());
+        }
+        return task.isDone() ? null : by;
+    }
+
+    /**
+     * Returns the number of tasks in the list.
+     *
+     * @return the total number of tasks
+     */
+    public synchronized long getTotal() {
+        return this.total;
+    }
+
+    /**
+     * Returns the number of tasks marked as done.
+     *
+     * @return the number of done tasks
+     */
+    public synchronized long getDone() {
+        return this.done;
+    }
+
+    /**
+     * Returns the number of tasks not marked as done.
+     *
+     * @return the number of undone tasks
+     */
+    public synchronized long getUndone() {
+        return this.total - this.done;
+    }
+
+    /**
+     * Returns the number of high-priority tasks.
+     *
+     * @return the number of high-priority tasks
+     */
+    public synchronized long getHighPriority() {
+        return this.highPriority;
+    }
+
+    /**
+     * Returns the number of undone deadlines that are past their due time.
+     *
+     * @return the number of overdue deadlines
+     */
+    public synchronized long getOverdue() {
+        this.overdueTimers.advanceTo(getCurrentMinute(), task -> this.overdue += 1);
+        return this.overdue;
+    }
+
+    /**
+     * Returns the number of to-dos.
+     *
+     * @return the number of to-dos
+     */
+    public synchronized long getTodos() {
+        return this.todos;
+    }
+
+    /**
+     * Returns the number of deadlines, including recurring ones.
+     *
+     * @return the number of deadlines
+     */
+    public synchronized long getDeadlines() {
+        return this.deadlines;
+    }
+
+    /**
+     * Returns the number of events, including recurring ones.
+     *
+     * @return the number of events
+     */
+    public synchronized long getEvents() {
+        return this.events;
+    }
+
+    /**
+     * Returns every count by name, in a fixed order.
+     *
+     * @return the counts by name
+     */
+    public synchronized Map<String, Long> toMap() {
+        LinkedHashMap<String, Long> counts = new LinkedHashMap<>();
+        counts.put("total", this.total);
+        counts.put("done", this.done);
+        counts.put("undone", this.total - this.done);
+        counts.put("highPriority", this.highPriority);
+        counts.put("overdue", getOverdue());
+        counts.put("todo", this.todos);
+        counts.put("deadline", this.deadlines);
+        counts.put("event", this.events);
+        return counts;
+    }
+
+    /**
+     * Publishes every count as a metrics gauge named "tasks." followed by its name in toMap.
+     */
+    public void registerGauges() {
+        Metrics.registerGauges("tasks", this::toMap);
+    }
+
+    private long getCurrentMinute() {
+        return toEpochMinutes(LocalDateTime.now(this.clock));
+    }
+
+    private static long toEpochMinutes(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+}
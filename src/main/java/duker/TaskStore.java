@@ -0,0 +1,120 @@
+package duker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the backing storage of a TaskList.
+ * Implementations decide how tasks are laid out in memory, while the TaskList
+ * keeps the user-facing operations and messages the same for every layout.
+ */
+public interface TaskStore {
+
+    /**
+     * Creates a task store of the given kind.
+     * Unknown kinds fall back to the default ArrayList-backed store.
+     *
+     * @param kind the name of the store: "array", "columnar", "snapshot" or "persistent"
+     * @return a new, empty task store
+     */
+    static TaskStore create(String kind) {
+        assert kind != null : "Store kind should not be null";
+
+        switch (kind) {
+        case "columnar":
+            return new ColumnarTaskStore();
+        case "snapshot":
+            return new SnapshotTaskStore();
+        case "persistent":
+            return new PersistentTaskStore();
+        default:
+            return new ArrayTaskStore();
+        }
+    }
+
+    /**
+     * Returns the number of tasks in the store.
+     *
+     * @return the number of tasks
+     */
+    int size();
+
+    /**
+     * Returns the task at the specified 0-based index.
+     *
+     * @param index the index of the task
+     * @return the task at the index
+     */
+    Task get(int index);
+
+    /**
+     * Appends a task to the end of the store.
+     *
+     * @param task the task to append
+     */
+    void add(Task task);
+
+    /**
+     * Removes the task at the specified 0-based index.
+     *
+     * @param index the index of the task to remove
+     * @return the removed task
+     */
+    Task remove(int index);
+
+    /**
+     * Writes back a task at the specified 0-based index after it has been modified.
+     *
+     * @param index the index of the task
+     * @param task  the modified task
+     */
+    void set(int index, Task task);
+
+    /**
+     * Returns the tasks as an ArrayList.
+     * Stores that keep Task objects may return their live list; others return a copy.
+     *
+     * @return the tasks as an ArrayList
+     */
+    ArrayList<Task> toArrayList();
+
+    /**
+     * Returns a read-only view of the tasks for iterating over the whole list.
+     * Stores built for concurrent use return a view that never changes once taken;
+     * other stores return a live view that must not be used while the store is being changed.
+     *
+     * @return a read-only list of the tasks
+     */
+    List<Task> snapshot();
+
+    /**
+     * Returns whether snapshots hold the same Task objects as the store, in which case a task
+     * must be copied before it is changed so that earlier snapshots are not affected.
+     *
+     * @return true if tasks must be copied before they are changed, false otherwise
+     */
+    default boolean sharesTasksWithSnapshots() {
+        return false;
+    }
+
+    /**
+     * Returns whether reading a task returns the same Task object every time until it is replaced,
+     * which indexes keyed by task identity rely on.
+     *
+     * @return true if tasks keep their identity, false if a new view is created on every read
+     */
+    default boolean keepsTaskIdentity() {
+        return true;
+    }
+
+    /**
+     * Returns the tasks whose description contains the keyword, in list order.
+     * Must not be called while the store is being changed.
+     *
+     * @param keyword the text to search for
+     * @return the matching tasks
+     */
+    default ArrayList<Task> findContaining(String keyword) {
+        return ParallelScan.filter(snapshot(), task -> task.getDescription().contains(keyword));
+    }
+}
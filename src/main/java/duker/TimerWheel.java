@@ -0,0 +1,223 @@
+package duker;
+
+import java.util.function.Consumer;
+
+/**
+ * The TimerWheel class keeps timers that expire at whole ticks in a hierarchy of four wheels of 64 slots.
+ * The lowest wheel holds the timers due within the next 64 ticks, one tick per slot, and each wheel
+ * above covers 64 times the span of the one below. When the lowest wheel wraps around, the timers of
+ * the next slot of the wheel above are spread out over the wheels below. Scheduling and cancelling a
+ * timer take constant time, and advancing by one tick only touches the timers that are due or moved
+ * down, however many timers there are.
+ * Timers due beyond the span of the top wheel, about 16.7 million ticks ahead, wait in its farthest
+ * slot until they come into range.
+ *
+ * @param <T> the type of the items the timers are set for
+ */
+public class TimerWheel<T> {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_DELAY = (1L << (LEVELS * SLOT_BITS)) - 1;
+
+    private Timer<T>[][] wheels;
+    private long nextTick;
+    private int size;
+
+    /**
+     * A timer set in a TimerWheel, which can be used to cancel it.
+     *
+     * @param <T> the type of the item the timer is set for
+     */
+    public static class Timer<T> {
+        private T item;
+        private long dueTick;
+        private Timer<T> previous;
+        private Timer<T> next;
+        private int level = -1;
+        private int slot;
+
+        private Timer(T item, long dueTick) {
+            this.item = item;
+            this.dueTick = dueTick;
+        }
+
+        /**
+         * Returns the item the timer is set for.
+         *
+         * @return the item
+         */
+        public T getItem() {
+            return this.item;
+        }
+
+        /**
+         * Returns whether the timer has neither expired nor been cancelled.
+         *
+         * @return true if the timer is still waiting, false otherwise
+         */
+        public boolean isPending() {
+            return this.level >= 0;
+        }
+
+        /**
+         * Returns the tick at which the timer expires.
+         *
+         * @return the due tick
+         */
+        public long getDueTick() {
+            return this.dueTick;
+        }
+    }
+
+    /**
+     * Constructs an empty TimerWheel whose first tick to expire is the given one.
+     *
+     * @param startTick the first tick that advanceTo will expire timers for
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimerWheel(long startTick) {
+        this.wheels = new Timer[LEVELS][SLOTS];
+        this.nextTick = startTick;
+        this.size = 0;
+    }
+
+    /**
+     * Sets a timer for the item. A timer due before the next tick expires on the next tick.
+     *
+     * @param item    the item to hand back when the timer expires
+     * @param dueTick the tick at which the timer expires
+     * @return the timer, for cancelling it
+     */
+    public Timer<T> schedule(T item, long dueTick) {
+        Timer<T> timer = new Timer<>(item, dueTick);
+        place(timer);
+        this.size += 1;
+        return timer;
+    }
+
+    /**
+     * Cancels the timer, if it has not expired or been cancelled already.
+     *
+     * @param timer the timer to cancel
+     */
+    public void cancel(Timer<T> timer) {
+        assert timer != null : "Timer should not be null";
+
+        if (timer.level < 0) {
+            return;
+        }
+        unlink(timer);
+        this.size -= 1;
+    }
+
+    /**
+     * Expires every timer due at or before the given tick, in tick order.
+     *
+     * @param tick   the last tick to expire
+     * @param action the action to run with the item of each expired timer
+     */
+    public void advanceTo(long tick, Consumer<T> action) {
+        assert action != null : "Action should not be null";
+
+        while (this.nextTick <= tick) {
+            int slot = (int) (this.nextTick & SLOT_MASK);
+            for (int level = 1; level < LEVELS && isWheelWrapped(level); level++) {
+                cascade(level);
+            }
+            this.nextTick += 1;
+            Timer<T> timer = this.wheels[0][slot];
+            this.wheels[0][slot] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                timer.level = -1;
+                timer.previous = null;
+                timer.next = null;
+                this.size -= 1;
+                action.accept(timer.item);
+                timer = next;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of timers that have not expired or been cancelled.
+     *
+     * @return the number of pending timers
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the next tick that advanceTo will expire timers for.
+     *
+     * @return the next tick
+     */
+    public long getNextTick() {
+        return this.nextTick;
+    }
+
+    /**
+     * Returns whether every wheel below the given level has just wrapped around to slot 0.
+     */
+    private boolean isWheelWrapped(int level) {
+        return ((this.nextTick >> (SLOT_BITS * (level - 1))) & SLOT_MASK) == 0;
+    }
+
+    /**
+     * Moves the timers of the current slot of the given wheel down to the wheels below.
+     */
+    private void cascade(int level) {
+        int slot = (int) ((this.nextTick >> (SLOT_BITS * level)) & SLOT_MASK);
+        Timer<T> timer = this.wheels[level][slot];
+        this.wheels[level][slot] = null;
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.previous = null;
+            timer.next = null;
+            place(timer);
+            timer = next;
+        }
+    }
+
+    private void place(Timer<T> timer) {
+        long delay = timer.dueTick - this.nextTick;
+        long tick = timer.dueTick;
+        if (delay < 0) {
+            delay = 0;
+            tick = this.nextTick;
+        } else if (delay > MAX_DELAY) {
+            delay = MAX_DELAY;
+            tick = this.nextTick + MAX_DELAY;
+        }
+        int level = 0;
+        while (delay >= 1L << (SLOT_BITS * (level + 1))) {
+            level += 1;
+        }
+        int slot = (int) ((tick >> (SLOT_BITS * level)) & SLOT_MASK);
+        timer.level = level;
+        timer.slot = slot;
+        timer.next = this.wheels[level][slot];
+        if (timer.next != null) {
+            timer.next.previous = timer;
+        }
+        this.wheels[level][slot] = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.previous == null) {
+            this.wheels[timer.level][timer.slot] = timer.next;
+        } else {
+            timer.previous.next = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        timer.level = -1;
+        timer.previous = null;
+        timer.next = null;
+    }
+}
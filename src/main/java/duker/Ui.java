@@ -1,6 +1,8 @@
 package duker;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents the user interface of the Duker application.
@@ -9,16 +11,47 @@ import java.util.ArrayList;
 public class Ui {
 
     private Duker duker;
+    private final PrintStream out;
 
     /**
-     * Constructs an Ui instance with the specified Duker instance.
+     * Constructs an Ui instance with the specified Duker instance, which prints to System.out.
      *
      * @param duker The Duker instance used to manage application state and interactions.
      */
     public Ui(Duker duker) {
+        this(duker, System.out);
+    }
+
+    /**
+     * Constructs an Ui instance with the specified Duker instance, which prints to the given stream.
+     *
+     * @param duker The Duker instance used to manage application state and interactions.
+     * @param out   The stream the output of commands is printed to.
+     */
+    public Ui(Duker duker, PrintStream out) {
         assert duker != null : "Duker instance should not be null";
+        assert out != null : "Output stream should not be null";
 
         this.duker = duker;
+        this.out = out;
+    }
+
+    /**
+     * Returns the stream the output of commands is printed to.
+     *
+     * @return The output stream.
+     */
+    public PrintStream getOutput() {
+        return this.out;
+    }
+
+    /**
+     * Prints a message, such as an error, on a line of its own.
+     *
+     * @param message The message to print.
+     */
+    public void printMessage(String message) {
+        this.out.println(message);
     }
 
     /**
@@ -34,10 +67,39 @@ public class Ui {
      * Prints a goodbye message and sets Duker to offline mode.
      */
     public void bye() {
-        System.out.println("Bye. Hope to see you again soon!");
+        printGoodbye();
         this.duker.goOffline();
     }
 
+    /**
+     * Prints a goodbye message without setting Duker to offline mode, for a client that leaves
+     * while others keep using Duker.
+     */
+    public void printGoodbye() {
+        this.out.println("Bye. Hope to see you again soon!");
+    }
+
+    /**
+     * Switches Duker to the named workspace, loading it if needed, and prints how many tasks it has.
+     *
+     * @param name the name of the workspace
+     * @throws DukerException if the name is not a valid workspace name
+     */
+    public void useWorkspace(String name) throws DukerException {
+        Workspace workspace = this.duker.useWorkspace(name);
+        this.out.println("Now using the workspace '" + workspace.getName() + "', which has " +
+                workspace.getTaskList().getSize() + " tasks.");
+    }
+
+    /**
+     * Prints the current workspace and the workspaces that are loaded.
+     */
+    public void printWorkspaces() {
+        this.out.println("You are using the workspace '" + this.duker.getCurrentWorkspace().getName() + "'.");
+        this.out.println("Loaded workspaces, least recently used first: " +
+                String.join(", ", this.duker.getLoadedWorkspaces()));
+    }
+
     /**
      * Prints the list of tasks to the user.
      *
@@ -46,11 +108,40 @@ public class Ui {
     public void printList(TaskList taskList) {
         assert taskList != null : "TaskList should not be null";
 
-        System.out.println("Here are the tasks in your list:");
-        for (int i = 0; i < taskList.getSize(); i++) {
+        List<Task> tasks = taskList.snapshot();
+        this.out.println("Here are the tasks in your list:");
+        for (int i = 0; i < tasks.size(); i++) {
             int serial = i + 1;
-            Task task = taskList.getTask(i);
-            System.out.println(serial + "." + task.toString());
+            Task task = tasks.get(i);
+            this.out.println(serial + "." + render(taskList, task, tasks.size()));
+        }
+    }
+
+    /**
+     * Prints one page of the task list, in list order or sorted. Each task is shown with its index
+     * in the list, so that it can be given to commands such as mark.
+     *
+     * @param taskList   the TaskList the tasks were read from
+     * @param tasks      the tasks on the page, in order
+     * @param sort       the sort term of Query the tasks are sorted by, or null for list order
+     * @param pageNumber the 1-based number of the page
+     * @param pageCount  the number of pages in the list
+     */
+    public void printListPage(TaskList taskList, List<Task> tasks, String sort, int pageNumber, int pageCount) {
+        assert taskList != null && tasks != null : "TaskList and tasks should not be null";
+
+        String order = "";
+        if ("due".equals(sort)) {
+            order = " by due date";
+        } else if ("priority".equals(sort)) {
+            order = " by priority";
+        } else if ("text".equals(sort)) {
+            order = " by name";
+        }
+        this.out.println("Here are the tasks in your list" + order + " (page " + pageNumber + " of " +
+                pageCount + "):");
+        for (Task task : tasks) {
+            this.out.println(taskList.getIndexOf(task) + "." + render(taskList, task, tasks.size()));
         }
     }
 
@@ -62,14 +153,59 @@ public class Ui {
     public void printKeywordList(ArrayList<Task> tasksFound) {
         assert tasksFound != null : "Tasks found list should not be null";
 
-        System.out.println("Here are the matching tasks in your list:");
+        this.out.println("Here are the matching tasks in your list:");
+        for (int i = 0; i < tasksFound.size(); i++) {
+            int serial = i + 1;
+            Task task = tasksFound.get(i);
+            this.out.println(serial + "." + render(task, tasksFound.size()));
+        }
+    }
+
+    /**
+     * Prints the tasks found by a ranked search, most relevant first.
+     *
+     * @param tasksFound The best matching tasks, most relevant first.
+     */
+    public void printRankedList(ArrayList<Task> tasksFound) {
+        assert tasksFound != null : "Tasks found list should not be null";
+
+        if (tasksFound.isEmpty()) {
+            this.out.println("No tasks in your list match those words.");
+            return;
+        }
+        this.out.println("Here are the most relevant tasks in your list:");
+        for (int i = 0; i < tasksFound.size(); i++) {
+            int serial = i + 1;
+            Task task = tasksFound.get(i);
+            this.out.println(serial + "." + render(task, tasksFound.size()));
+        }
+    }
+
+    /**
+     * Prints the archived tasks that match a search keyword.
+     *
+     * @param tasksFound The list of archived tasks that match the search criteria.
+     */
+    public void printArchivedList(ArrayList<Task> tasksFound) {
+        assert tasksFound != null : "Tasks found list should not be null";
+
+        this.out.println("Here are the matching tasks in your archive:");
         for (int i = 0; i < tasksFound.size(); i++) {
             int serial = i + 1;
             Task task = tasksFound.get(i);
-            System.out.println(serial + "." + task.toString());
+            this.out.println(serial + "." + task.toString());
         }
     }
 
+    /**
+     * Prints how many done tasks were moved to the archive.
+     *
+     * @param count the number of tasks archived
+     */
+    public void printArchiveResult(int count) {
+        this.out.println("Moved " + count + " done tasks to the archive.");
+    }
+
     /**
      * Prints the list of high-priority tasks from the given TaskList to the console.
      * A high-priority task is considered to be any task where the priority is non-zero.
@@ -80,16 +216,123 @@ public class Ui {
     public void printPriorityList(TaskList taskList) {
         assert taskList != null : "TaskList should not be null";
         int serial = 1;
+        long count = taskList.getStatistics().getHighPriority();
 
-        System.out.println("Here are the high priority tasks in your list:");
-        for (int i = 0; i < taskList.getSize(); i++) {
-            Task task = taskList.getTask(i);
+        this.out.println("Here are the high priority tasks in your list:");
+        for (Task task : taskList.snapshot()) {
             if (task.getPriority() == 0) {
                 continue;
             }
-            System.out.println(serial + "." + task.toString());
+            this.out.println(serial + "." + render(taskList, task, count));
             serial += 1;
         }
     }
 
+    /**
+     * Returns the string representation of a task printed as one of count tasks, cached by the task list
+     * of the current workspace.
+     */
+    private String render(Task task, long count) {
+        return render(this.duker.getCurrentWorkspace().getTaskList(), task, count);
+    }
+
+    /**
+     * Returns the string representation of a task printed as one of count tasks, through the render cache
+     * of the task list unless that many tasks would not fit in it.
+     */
+    private static String render(TaskList taskList, Task task, long count) {
+        if (!taskList.isRenderCached(count)) {
+            return task.toString();
+        }
+        return taskList.render(task);
+    }
+
+    /**
+     * Prints the collected metrics, the savings of the description pool and the hit rate of the render cache.
+     *
+     * @param descriptionPool the pool used to share task descriptions
+     */
+    public void printStats(DescriptionPool descriptionPool) {
+        assert descriptionPool != null : "Description pool should not be null";
+
+        this.out.println("Here are Duker's statistics:");
+        this.out.println(Metrics.getReport());
+        this.out.println(descriptionPool.getReport());
+        RenderCache renderCache = this.duker.getCurrentWorkspace().getTaskList().getRenderCache();
+        if (renderCache != null) {
+            this.out.println(renderCache.getReport());
+        }
+    }
+
+    /**
+     * Prints the counts of the tasks in the list, which are read without walking the list.
+     *
+     * @param statistics the running counts of the task list
+     */
+    public void printSummary(TaskStatistics statistics) {
+        assert statistics != null : "Statistics should not be null";
+
+        this.out.println("Here is a summary of your tasks:");
+        this.out.println("Total: " + statistics.getTotal() + " (" + statistics.getTodos() + " to-dos, " +
+                statistics.getDeadlines() + " deadlines, " + statistics.getEvents() + " events)");
+        this.out.println("Done: " + statistics.getDone() + ", not done: " + statistics.getUndone());
+        this.out.println("High priority: " + statistics.getHighPriority());
+        this.out.println("Overdue: " + statistics.getOverdue());
+    }
+
+    /**
+     * Prints the deadlines, events and recurring occurrences that fall within a period,
+     * and tells the user when there were more than can be shown.
+     *
+     * @param tasksFound The tasks and occurrences in the period, in time order.
+     * @param limit      The largest number of tasks to print.
+     */
+    public void printAgendaList(ArrayList<Task> tasksFound, int limit) {
+        assert tasksFound != null : "Tasks found list should not be null";
+
+        this.out.println("Here are the tasks in that period:");
+        for (int i = 0; i < Math.min(limit, tasksFound.size()); i++) {
+            int serial = i + 1;
+            Task task = tasksFound.get(i);
+            this.out.println(serial + "." + render(task, tasksFound.size()));
+        }
+        if (tasksFound.size() > limit) {
+            this.out.println("Only the first " + limit + " tasks are shown. " +
+                    "Please choose a shorter period to see the rest.");
+        }
+    }
+
+    /**
+     * Prints the tasks matched by a query.
+     *
+     * @param result the result of the query
+     */
+    public void printQueryResult(QueryResult result) {
+        assert result != null : "Query result should not be null";
+
+        ArrayList<Task> tasksFound = result.getTasks();
+        this.out.println("Here are the tasks matching your query:");
+        for (int i = 0; i < tasksFound.size(); i++) {
+            int serial = i + 1;
+            Task task = tasksFound.get(i);
+            this.out.println(serial + "." + render(task, tasksFound.size()));
+        }
+    }
+
+    /**
+     * Prints how a query was answered: the access path chosen and how many tasks were examined.
+     *
+     * @param query  the query that was run
+     * @param result the result of the query
+     */
+    public void printQueryPlan(Query query, QueryResult result) {
+        assert query != null : "Query should not be null";
+        assert result != null : "Query result should not be null";
+
+        this.out.println("Query: " + query);
+        this.out.println("Access path: " + result.getAccessPath());
+        this.out.println("Examined " + result.getExamined() + " of " + result.getTaskCount() + " tasks");
+        this.out.println("Matched: " + result.getTasks().size());
+    }
+
 }
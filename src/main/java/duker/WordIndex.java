@@ -0,0 +1,532 @@
+package duker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * The WordIndex class is an inverted index over the words of task descriptions. It finds tasks whose
+ * descriptions contain words close to the words of a query, so that a search still finds a task when
+ * either is misspelt, and ranks the tasks that contain the words of a query by relevance.
+ * The distinct words of all descriptions are kept in a WordTrie, and each word has a posting of the
+ * sequence numbers of the tasks that contain it. Postings hold no tasks, so the index works with stores
+ * that do not keep task identity without keeping a task object per word; the tasks found are read
+ * from the list by their sequence numbers, which grow in list order, only when they are returned.
+ * <p>
+ * The index is only built the first time it is searched, and is then kept up to date as a TaskListener.
+ * Its methods lock the index, so that searches may run while the list is being changed; see isBuilt.
+ * Short query words must match more closely: words of up to 2 characters exactly, of up to 5
+ * characters within one edit, and longer words within two.
+ */
+public class WordIndex implements TaskListener {
+
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+    private static final double HIGH_PRIORITY_BOOST = 1.2;
+    private static final double UNDONE_BOOST = 1.1;
+    private static final int DENSE_ACCUMULATOR_RATIO = 8;
+    // the worst of the best hits so far is at the head of the heap, to be replaced by any better hit
+    private static final Comparator<Hit> WORST_FIRST = Comparator.<Hit>comparingDouble(hit -> hit.score)
+            .thenComparing(Comparator.<Hit>comparingLong(hit -> hit.sequence).reversed());
+
+    private WordTrie words;
+    private HashMap<String, Posting> postings;
+    private boolean isBuilt;
+    private int documentCount;
+    private long totalLength;
+    private long sequenceLimit;
+
+    /**
+     * Constructs a WordIndex that is not built yet.
+     */
+    public WordIndex() {
+        this.words = new WordTrie();
+        this.postings = new HashMap<>();
+        this.isBuilt = false;
+    }
+
+    @Override
+    public synchronized void taskAdded(Task task) {
+        if (!this.isBuilt) {
+            return;
+        }
+        ArrayList<String> tokens = tokenize(task.getDescription());
+        this.sequenceLimit = Math.max(this.sequenceLimit, task.getSequence() + 1);
+        this.documentCount += 1;
+        this.totalLength += tokens.size();
+        for (Map.Entry<String, Integer> count : countWords(tokens).entrySet()) {
+            Posting posting = this.postings.get(count.getKey());
+            if (posting == null) {
+                posting = new Posting();
+                this.postings.put(count.getKey(), posting);
+                this.words.add(count.getKey());
+            }
+            posting.add(task.getSequence(), count.getValue(), tokens.size());
+        }
+    }
+
+    @Override
+    public synchronized void taskRemoved(Task task) {
+        if (!this.isBuilt) {
+            return;
+        }
+        ArrayList<String> tokens = tokenize(task.getDescription());
+        this.documentCount -= 1;
+        this.totalLength -= tokens.size();
+        for (String word : countWords(tokens).keySet()) {
+            Posting posting = this.postings.get(word);
+            if (posting == null) {
+                continue;
+            }
+            posting.remove(task.getSequence());
+            if (posting.size == 0) {
+                this.postings.remove(word);
+                this.words.remove(word);
+            }
+        }
+    }
+
+    /**
+     * Returns the tasks that contain a word close to every word of the query, closest first.
+     * A task's distance is the sum over the query words of the distance to its closest word;
+     * tasks at the same distance are in list order.
+     *
+     * @param query the words to search for
+     * @param tasks the tasks in list order, used to build the index on first use
+     * @return the matching tasks, ranked by distance
+     */
+    public synchronized ArrayList<Task> search(String query, List<Task> tasks) {
+        assert query != null : "Query should not be null";
+        assert tasks != null : "Tasks should not be null";
+
+        ensureBuilt(tasks);
+        Map<Long, Integer> distances = null;
+        for (String queryWord : getWords(query)) {
+            HashMap<Long, Integer> wordDistances = new HashMap<>();
+            Map<String, Integer> matches = this.words.search(queryWord, getMaxDistance(queryWord));
+            for (Map.Entry<String, Integer> match : matches.entrySet()) {
+                Posting posting = this.postings.get(match.getKey());
+                for (int i = 0; i < posting.size; i++) {
+                    Long sequence = posting.sequences[i];
+                    if (distances != null && !distances.containsKey(sequence)) {
+                        continue;
+                    }
+                    // words come closest first, so the first distance seen for a task is its best
+                    wordDistances.putIfAbsent(sequence, match.getValue());
+                }
+            }
+            if (distances != null) {
+                for (Map.Entry<Long, Integer> entry : wordDistances.entrySet()) {
+                    entry.setValue(entry.getValue() + distances.get(entry.getKey()));
+                }
+            }
+            distances = wordDistances;
+        }
+        if (distances == null) {
+            return new ArrayList<>();
+        }
+
+        ArrayList<Long> ranked = new ArrayList<>(distances.keySet());
+        Map<Long, Integer> totals = distances;
+        ranked.sort((first, second) -> {
+            int byDistance = Integer.compare(totals.get(first), totals.get(second));
+            return byDistance != 0 ? byDistance : Long.compare(first, second);
+        });
+        ArrayList<Task> tasksFound = new ArrayList<>(ranked.size());
+        for (Long sequence : ranked) {
+            Task task = getTask(tasks, sequence);
+            if (task != null) {
+                tasksFound.add(task);
+            }
+        }
+        return tasksFound;
+    }
+
+    /**
+     * Returns the tasks that best match the words of the query, most relevant first, scored by BM25.
+     * A word adds more to the score the more often it appears in a task, the rarer it is among all
+     * tasks and the shorter the task is. Undone and high-priority tasks get a small boost, and tasks
+     * with the same score are in list order. Only the best tasks are kept in a bounded heap while
+     * scoring, so the matches are never sorted as a whole.
+     *
+     * @param query the words to search for
+     * @param limit the largest number of tasks to return
+     * @param tasks the tasks in list order, used to build the index on first use
+     * @return the best matching tasks, most relevant first
+     */
+    public synchronized ArrayList<Task> rank(String query, int limit, List<Task> tasks) {
+        assert query != null : "Query should not be null";
+        assert limit > 0 : "Limit should be positive";
+        assert tasks != null : "Tasks should not be null";
+
+        ensureBuilt(tasks);
+        ArrayList<Posting> matched = new ArrayList<>();
+        int candidateCount = 0;
+        for (String word : getWords(query)) {
+            Posting posting = this.postings.get(word);
+            if (posting != null) {
+                matched.add(posting);
+                candidateCount += posting.size;
+            }
+        }
+
+        double averageLength = Math.max(1.0, (double) this.totalLength / Math.max(1, this.documentCount));
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, Math.max(1, candidateCount)), WORST_FIRST);
+        if (matched.size() == 1) {
+            // with one word every posting is a distinct task, so its score is final as it is read
+            Posting posting = matched.get(0);
+            double idf = getIdf(posting);
+            for (int i = 0; i < posting.size; i++) {
+                double score = getScore(idf, posting.frequencies[i], posting.lengths[i], averageLength);
+                offer(best, limit, tasks, posting.sequences[i], score);
+            }
+            return drain(best);
+        }
+
+        if ((long) candidateCount * DENSE_ACCUMULATOR_RATIO >= this.sequenceLimit) {
+            // so many tasks match that scores are summed in arrays indexed by sequence number, which
+            // are mostly written in order since postings grow in list order
+            double[] scores = new double[(int) this.sequenceLimit];
+            boolean[] found = new boolean[(int) this.sequenceLimit];
+            for (Posting posting : matched) {
+                double idf = getIdf(posting);
+                for (int i = 0; i < posting.size; i++) {
+                    int sequence = (int) posting.sequences[i];
+                    found[sequence] = true;
+                    scores[sequence] += getScore(idf, posting.frequencies[i], posting.lengths[i], averageLength);
+                }
+            }
+            for (int sequence = 0; sequence < found.length; sequence++) {
+                if (found[sequence]) {
+                    offer(best, limit, tasks, sequence, scores[sequence]);
+                }
+            }
+            return drain(best);
+        }
+
+        // otherwise scores are summed in an open-addressing table of sequence numbers, which unlike
+        // a map of boxed keys costs no allocation per matching task
+        int capacity = Integer.highestOneBit(Math.max(1, candidateCount) * 2 - 1) * 2;
+        long[] sequences = new long[capacity];
+        Arrays.fill(sequences, -1);
+        double[] scores = new double[capacity];
+        for (Posting posting : matched) {
+            double idf = getIdf(posting);
+            for (int i = 0; i < posting.size; i++) {
+                int slot = (int) (posting.sequences[i] * 0x9E3779B97F4A7C15L >>> 32) & (capacity - 1);
+                while (sequences[slot] >= 0 && sequences[slot] != posting.sequences[i]) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                sequences[slot] = posting.sequences[i];
+                scores[slot] += getScore(idf, posting.frequencies[i], posting.lengths[i], averageLength);
+            }
+        }
+        for (int slot = 0; slot < capacity; slot++) {
+            if (sequences[slot] >= 0) {
+                offer(best, limit, tasks, sequences[slot], scores[slot]);
+            }
+        }
+        return drain(best);
+    }
+
+    private double getIdf(Posting posting) {
+        return Math.log(1 + (this.documentCount - posting.size + 0.5) / (posting.size + 0.5));
+    }
+
+    private static double getScore(double idf, int frequency, int length, double averageLength) {
+        double norm = BM25_K1 * (1 - BM25_B + BM25_B * length / averageLength);
+        return idf * frequency * (BM25_K1 + 1) / (frequency + norm);
+    }
+
+    /**
+     * Adds a task to the best hits if it scores above the worst of them once boosted. The task itself
+     * is only read from the list if even the largest boost could lift it above the worst hit, which saves
+     * reading most tasks of a common word once the heap is full.
+     */
+    private static void offer(PriorityQueue<Hit> best, int limit, List<Task> tasks, long sequence, double score) {
+        Hit worst = best.peek();
+        boolean isFull = best.size() >= limit;
+        if (isFull && score * HIGH_PRIORITY_BOOST * UNDONE_BOOST < worst.score) {
+            return;
+        }
+        Task task = getTask(tasks, sequence);
+        if (task == null) {
+            return;
+        }
+        if (task.getPriority() == 1) {
+            score *= HIGH_PRIORITY_BOOST;
+        }
+        if (!task.isDone()) {
+            score *= UNDONE_BOOST;
+        }
+        if (!isFull) {
+            best.add(new Hit(task, sequence, score));
+        } else if (score > worst.score || score == worst.score && sequence < worst.sequence) {
+            best.poll();
+            best.add(new Hit(task, sequence, score));
+        }
+    }
+
+    /**
+     * Returns the task with the given sequence number from the tasks in list order, or null if it is not
+     * among them.
+     */
+    private static Task getTask(List<Task> tasks, long sequence) {
+        int index = TaskList.findSequence(tasks, sequence);
+        if (index < 0) {
+            return null;
+        }
+        return tasks.get(index);
+    }
+
+    private static ArrayList<Task> drain(PriorityQueue<Hit> best) {
+        Task[] ranked = new Task[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = best.poll().task;
+        }
+        return new ArrayList<>(Arrays.asList(ranked));
+    }
+
+    /**
+     * A task and its score while a query is ranked.
+     */
+    private static class Hit {
+        private final Task task;
+        private final long sequence;
+        private final double score;
+
+        private Hit(Task task, long sequence, double score) {
+            this.task = task;
+            this.sequence = sequence;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Returns the number of distinct words in the index, or 0 if it is not built yet.
+     *
+     * @return the number of distinct words
+     */
+    public synchronized int getWordCount() {
+        return this.words.size();
+    }
+
+    /**
+     * Returns whether the index has been built. Until it is, a search builds it from the tasks it is given,
+     * so the list must not change between reading those tasks and the end of the search, or the change is
+     * missed; once it is, searches only need to be given the tasks the index refers to.
+     *
+     * @return true if the index has been built, false otherwise
+     */
+    public synchronized boolean isBuilt() {
+        return this.isBuilt;
+    }
+
+    private void ensureBuilt(List<Task> tasks) {
+        if (this.isBuilt) {
+            return;
+        }
+        IndexRebuildEvent event = new IndexRebuildEvent();
+        event.begin();
+        this.isBuilt = true;
+        for (Task task : tasks) {
+            taskAdded(task);
+        }
+        Metrics.increment("query.index.builds");
+        event.end();
+        if (event.shouldCommit()) {
+            event.index = "words";
+            event.taskCount = tasks.size();
+            event.commit();
+        }
+    }
+
+    /**
+     * The tasks that contain one word, in no particular order, in parallel arrays of sequence numbers,
+     * the number of times the word appears in each task and the number of words in each task,
+     * which take far less memory than a map. Once a posting holds more than SCAN_LIMIT tasks, the position
+     * of each sequence number is also kept in an open-addressing table, so that removing a task from a
+     * common word does not scan its posting, and clearing or reloading the list stays linear.
+     */
+    private static class Posting {
+        private static final int SCAN_LIMIT = 16;
+
+        private long[] sequences = new long[1];
+        private int[] frequencies = new int[1];
+        private int[] lengths = new int[1];
+        private int size;
+        private long[] tableSequences;
+        private int[] tablePositions;
+
+        private void add(long sequence, int frequency, int length) {
+            if (this.size == this.sequences.length) {
+                this.sequences = Arrays.copyOf(this.sequences, this.size * 2);
+                this.frequencies = Arrays.copyOf(this.frequencies, this.size * 2);
+                this.lengths = Arrays.copyOf(this.lengths, this.size * 2);
+            }
+            this.sequences[this.size] = sequence;
+            this.frequencies[this.size] = frequency;
+            this.lengths[this.size] = length;
+            this.size += 1;
+            if (this.size > SCAN_LIMIT) {
+                putPosition(sequence, this.size - 1);
+            }
+        }
+
+        /**
+         * Removes the task with the given sequence number by moving the last task into its place.
+         */
+        private void remove(long sequence) {
+            int position = findPosition(sequence);
+            if (position < 0) {
+                return;
+            }
+            this.size -= 1;
+            this.sequences[position] = this.sequences[this.size];
+            this.frequencies[position] = this.frequencies[this.size];
+            this.lengths[position] = this.lengths[this.size];
+            if (this.tablePositions != null) {
+                removePosition(sequence);
+                if (position < this.size) {
+                    putPosition(this.sequences[position], position);
+                }
+            }
+        }
+
+        private int findPosition(long sequence) {
+            if (this.tablePositions == null) {
+                for (int i = 0; i < this.size; i++) {
+                    if (this.sequences[i] == sequence) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+            int mask = this.tablePositions.length - 1;
+            for (int slot = getSlot(sequence, mask); this.tablePositions[slot] != 0; slot = (slot + 1) & mask) {
+                if (this.tableSequences[slot] == sequence) {
+                    return this.tablePositions[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Records the position of a sequence number in the table, building or growing the table first
+         * if it would be more than two thirds full. Positions are stored one higher, so that 0 marks a
+         * free slot.
+         */
+        private void putPosition(long sequence, int position) {
+            if (this.tablePositions == null || this.size * 3 > this.tablePositions.length * 2) {
+                int capacity = Integer.highestOneBit(this.size * 2) * 2;
+                this.tableSequences = new long[capacity];
+                this.tablePositions = new int[capacity];
+                for (int i = 0; i < this.size; i++) {
+                    insertPosition(this.sequences[i], i);
+                }
+                return;
+            }
+            insertPosition(sequence, position);
+        }
+
+        private void insertPosition(long sequence, int position) {
+            int mask = this.tablePositions.length - 1;
+            int slot = getSlot(sequence, mask);
+            while (this.tablePositions[slot] != 0 && this.tableSequences[slot] != sequence) {
+                slot = (slot + 1) & mask;
+            }
+            this.tableSequences[slot] = sequence;
+            this.tablePositions[slot] = position + 1;
+        }
+
+        /**
+         * Removes a sequence number from the table, moving back the entries after it that would
+         * otherwise no longer be found from their home slots.
+         */
+        private void removePosition(long sequence) {
+            int mask = this.tablePositions.length - 1;
+            int slot = getSlot(sequence, mask);
+            while (this.tableSequences[slot] != sequence) {
+                slot = (slot + 1) & mask;
+            }
+            for (int next = (slot + 1) & mask; this.tablePositions[next] != 0; next = (next + 1) & mask) {
+                int home = getSlot(this.tableSequences[next], mask);
+                boolean isHomeBetween;
+                if (slot <= next) {
+                    isHomeBetween = slot < home && home <= next;
+                } else {
+                    isHomeBetween = slot < home || home <= next;
+                }
+                if (!isHomeBetween) {
+                    this.tableSequences[slot] = this.tableSequences[next];
+                    this.tablePositions[slot] = this.tablePositions[next];
+                    slot = next;
+                }
+            }
+            this.tablePositions[slot] = 0;
+        }
+
+        private static int getSlot(long sequence, int mask) {
+            return (int) (sequence * 0x9E3779B97F4A7C15L >>> 32) & mask;
+        }
+    }
+
+    /**
+     * Returns the largest edit distance at which a word of the query still matches.
+     *
+     * @param word the query word
+     * @return the largest distance to accept
+     */
+    static int getMaxDistance(String word) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        if (word.length() <= 5) {
+            return 1;
+        }
+        return 2;
+    }
+
+    /**
+     * Splits text into its distinct lower-case words, which are the runs of letters and digits.
+     *
+     * @param text the text to split
+     * @return the words in order of first appearance
+     */
+    static Set<String> getWords(String text) {
+        return new LinkedHashSet<>(tokenize(text));
+    }
+
+    /**
+     * Splits text into its lower-case words, which are the runs of letters and digits, keeping repeats.
+     */
+    private static ArrayList<String> tokenize(String text) {
+        ArrayList<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static HashMap<String, Integer> countWords(ArrayList<String> tokens) {
+        HashMap<String, Integer> counts = new HashMap<>();
+        for (String token : tokens) {
+            counts.merge(token, 1, Integer::sum);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,220 @@
+package duker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The WordTrie class holds a set of words in a trie and finds every word within an edit distance
+ * of a query word. A search walks the trie depth first while computing one row of the Levenshtein
+ * table per character of the path, which acts as a Levenshtein automaton for the query: a branch is
+ * left as soon as every entry of its row exceeds the distance, so only the prefixes that could still
+ * lead to a match are visited, however many words there are.
+ * <p>
+ * The children of a node are kept in arrays sorted by character, and removing a word also removes
+ * the nodes no other word passes through.
+ */
+public class WordTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final char[] NO_KEYS = new char[0];
+
+    private Node root;
+    private int size;
+
+    private static class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private String word;
+
+        private Node getChild(char key) {
+            int position = Arrays.binarySearch(this.keys, key);
+            return position >= 0 ? this.children[position] : null;
+        }
+
+        private Node addChild(char key) {
+            int position = Arrays.binarySearch(this.keys, key);
+            if (position >= 0) {
+                return this.children[position];
+            }
+            int insertAt = -position - 1;
+            char[] keys = new char[this.keys.length + 1];
+            Node[] children = new Node[this.children.length + 1];
+            System.arraycopy(this.keys, 0, keys, 0, insertAt);
+            System.arraycopy(this.children, 0, children, 0, insertAt);
+            System.arraycopy(this.keys, insertAt, keys, insertAt + 1, this.keys.length - insertAt);
+            System.arraycopy(this.children, insertAt, children, insertAt + 1, this.children.length - insertAt);
+            Node child = new Node();
+            keys[insertAt] = key;
+            children[insertAt] = child;
+            this.keys = keys;
+            this.children = children;
+            return child;
+        }
+
+        private void removeChild(char key) {
+            int position = Arrays.binarySearch(this.keys, key);
+            if (position < 0) {
+                return;
+            }
+            char[] keys = new char[this.keys.length - 1];
+            Node[] children = new Node[this.children.length - 1];
+            System.arraycopy(this.keys, 0, keys, 0, position);
+            System.arraycopy(this.children, 0, children, 0, position);
+            System.arraycopy(this.keys, position + 1, keys, position, keys.length - position);
+            System.arraycopy(this.children, position + 1, children, position, children.length - position);
+            this.keys = keys;
+            this.children = children;
+        }
+
+        private boolean isEmpty() {
+            return this.word == null && this.keys.length == 0;
+        }
+    }
+
+    /**
+     * Constructs an empty WordTrie.
+     */
+    public WordTrie() {
+        this.root = new Node();
+        this.size = 0;
+    }
+
+    /**
+     * Adds a word to the trie, if it is not already in it.
+     *
+     * @param word the word to add
+     */
+    public void add(String word) {
+        assert word != null : "Word should not be null";
+
+        Node node = this.root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.addChild(word.charAt(i));
+        }
+        if (node.word == null) {
+            node.word = word;
+            this.size += 1;
+        }
+    }
+
+    /**
+     * Removes a word from the trie, if it is in it.
+     *
+     * @param word the word to remove
+     */
+    public void remove(String word) {
+        assert word != null : "Word should not be null";
+
+        Node[] path = new Node[word.length() + 1];
+        path[0] = this.root;
+        for (int i = 0; i < word.length(); i++) {
+            path[i + 1] = path[i].getChild(word.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        if (path[word.length()].word == null) {
+            return;
+        }
+        path[word.length()].word = null;
+        this.size -= 1;
+        for (int i = word.length(); i > 0 && path[i].isEmpty(); i--) {
+            path[i - 1].removeChild(word.charAt(i - 1));
+        }
+    }
+
+    /**
+     * Returns the number of words in the trie.
+     *
+     * @return the number of words
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns every word within the given edit distance of the query, closest first.
+     *
+     * @param query       the word to search for
+     * @param maxDistance the largest edit distance to accept
+     * @return the words found, each with its distance to the query, in order of distance
+     */
+    public Map<String, Integer> search(String query, int maxDistance) {
+        assert query != null : "Query should not be null";
+        assert maxDistance >= 0 : "Distance should not be negative";
+
+        ArrayList<ArrayList<String>> byDistance = new ArrayList<>();
+        for (int i = 0; i <= maxDistance; i++) {
+            byDistance.add(new ArrayList<>());
+        }
+        // a path can only match if it is at most maxDistance longer than the query
+        int[][] rows = new int[query.length() + maxDistance + 1][query.length() + 1];
+        for (int j = 0; j <= query.length(); j++) {
+            rows[0][j] = j;
+        }
+        collect(this.root, 0, query, maxDistance, rows, byDistance);
+
+        LinkedHashMap<String, Integer> found = new LinkedHashMap<>();
+        for (int distance = 0; distance <= maxDistance; distance++) {
+            for (String word : byDistance.get(distance)) {
+                found.put(word, distance);
+            }
+        }
+        return found;
+    }
+
+    private static void collect(Node node, int depth, String query, int maxDistance, int[][] rows,
+            ArrayList<ArrayList<String>> byDistance) {
+        int[] row = rows[depth];
+        if (node.word != null && row[query.length()] <= maxDistance) {
+            byDistance.get(row[query.length()]).add(node.word);
+        }
+        if (depth + 1 >= rows.length) {
+            return;
+        }
+        int[] next = rows[depth + 1];
+        for (int k = 0; k < node.keys.length; k++) {
+            char c = node.keys[k];
+            next[0] = depth + 1;
+            int rowMin = next[0];
+            for (int j = 1; j <= query.length(); j++) {
+                int substitution = row[j - 1] + (query.charAt(j - 1) == c ? 0 : 1);
+                next[j] = Math.min(substitution, Math.min(row[j], next[j - 1]) + 1);
+                rowMin = Math.min(rowMin, next[j]);
+            }
+            if (rowMin <= maxDistance) {
+                collect(node.children[k], depth + 1, query, maxDistance, rows, byDistance);
+            }
+        }
+    }
+
+    /**
+     * Returns the Levenshtein distance between two words: the fewest insertions, deletions and
+     * substitutions of single characters that turn one into the other.
+     *
+     * @param first  the first word
+     * @param second the second word
+     * @return the edit distance between the words
+     */
+    public static int getDistance(String first, String second) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            char c = first.charAt(i - 1);
+            for (int j = 1; j <= second.length(); j++) {
+                int substitution = previous[j - 1] + (c == second.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[second.length()];
+    }
+}
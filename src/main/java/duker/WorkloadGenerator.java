@@ -0,0 +1,323 @@
+package duker;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The WorkloadGenerator class creates synthetic data files and command traces for load tests.
+ * It is configured with "--name value" options:
+ * <ul>
+ *   <li>--tasks: the number of tasks in the data file (10000)</li>
+ *   <li>--todo, --deadline: the shares of to-dos and deadlines; the rest are events (0.4, 0.3)</li>
+ *   <li>--done, --priority: the shares of done and high-priority tasks (0.3, 0.1)</li>
+ *   <li>--length: the mean description length in characters, drawn from an exponential distribution (30)</li>
+ *   <li>--commands: the number of commands in the trace (10000)</li>
+ *   <li>--writes: the share of commands that change the list (0.2)</li>
+ *   <li>--seed: the seed of the random generator (42)</li>
+ *   <li>--data, --trace: the files to write (data/duker.txt, data/trace.txt)</li>
+ * </ul>
+ * Dates are spread from a week before to two months after now. If Duker archives old done tasks when it
+ * starts, the trace only refers to the tasks that remain after that.
+ */
+public class WorkloadGenerator {
+
+    private static final DateTimeFormatter COMMAND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String[] WORDS = {
+        "pay", "invoice", "read", "book", "call", "team", "review", "draft", "report", "plan", "trip",
+        "buy", "milk", "meeting", "project", "lecture", "assignment", "submit", "email", "update", "client",
+        "budget", "gym", "dentist", "groceries", "laundry", "backup", "deploy", "release", "notes",
+    };
+    private static final int MIN_DESCRIPTION_LENGTH = 3;
+    private static final int MAX_DESCRIPTION_LENGTH = 200;
+    private static final int ADD_CHOICES = 3;
+    private static final int WRITE_CHOICES = 8;
+
+    private int taskCount = 10_000;
+    private double todoRatio = 0.4;
+    private double deadlineRatio = 0.3;
+    private double doneRatio = 0.3;
+    private double priorityRatio = 0.1;
+    private int meanDescriptionLength = 30;
+    private int commandCount = 10_000;
+    private double writeRatio = 0.2;
+    private long seed = 42;
+    private String dataPath = "data/duker.txt";
+    private String tracePath = "data/trace.txt";
+
+    private Random random;
+    private LocalDateTime now;
+
+    /**
+     * Constructs a WorkloadGenerator configured by the given options.
+     *
+     * @param args the options, as pairs of "--name" and value
+     * @throws DukerException if an option is unknown or has an invalid value
+     */
+    public WorkloadGenerator(String[] args) throws DukerException {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new DukerException("Option " + args[i] + " needs a value");
+            }
+            setOption(args[i], args[i + 1]);
+        }
+        if (this.todoRatio + this.deadlineRatio > 1) {
+            throw new DukerException("The shares of to-dos and deadlines should add up to at most 1");
+        }
+        this.random = new Random(this.seed);
+        this.now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    /**
+     * Writes a data file and a command trace as configured by the command-line options.
+     *
+     * @param args the options, as pairs of "--name" and value
+     * @throws DukerException if an option is unknown or has an invalid value
+     * @throws IOException    if the trace cannot be written
+     */
+    public static void main(String[] args) throws DukerException, IOException {
+        WorkloadGenerator generator = new WorkloadGenerator(args);
+        ArrayList<Task> tasks = generator.generateTasks();
+        generator.writeData(tasks);
+        int liveTaskCount = countLiveTasks(tasks);
+        generator.writeTrace(generator.generateCommands(liveTaskCount));
+        System.out.println("Wrote " + tasks.size() + " tasks to " + generator.dataPath + " and " +
+                generator.commandCount + " commands to " + generator.tracePath);
+    }
+
+    private void setOption(String name, String value) throws DukerException {
+        try {
+            switch (name) {
+            case "--tasks":
+                this.taskCount = Integer.parseInt(value);
+                break;
+            case "--todo":
+                this.todoRatio = parseRatio(value);
+                break;
+            case "--deadline":
+                this.deadlineRatio = parseRatio(value);
+                break;
+            case "--done":
+                this.doneRatio = parseRatio(value);
+                break;
+            case "--priority":
+                this.priorityRatio = parseRatio(value);
+                break;
+            case "--length":
+                this.meanDescriptionLength = Integer.parseInt(value);
+                break;
+            case "--commands":
+                this.commandCount = Integer.parseInt(value);
+                break;
+            case "--writes":
+                this.writeRatio = parseRatio(value);
+                break;
+            case "--seed":
+                this.seed = Long.parseLong(value);
+                break;
+            case "--data":
+                this.dataPath = value;
+                break;
+            case "--trace":
+                this.tracePath = value;
+                break;
+            default:
+                throw new DukerException("Unknown option " + name);
+            }
+        } catch (NumberFormatException e) {
+            throw new DukerException("Option " + name + " should be a number, not " + value);
+        }
+    }
+
+    private static double parseRatio(String value) throws DukerException {
+        double ratio = Double.parseDouble(value);
+        if (ratio < 0 || ratio > 1) {
+            throw new DukerException("Shares should be between 0 and 1, not " + value);
+        }
+        return ratio;
+    }
+
+    /**
+     * Generates the tasks of the data file.
+     *
+     * @return the generated tasks
+     */
+    public ArrayList<Task> generateTasks() {
+        ArrayList<Task> tasks = new ArrayList<>(this.taskCount);
+        for (int i = 0; i < this.taskCount; i++) {
+            Task task = generateTask();
+            if (this.random.nextDouble() < this.doneRatio) {
+                task.markAsDone();
+            }
+            if (this.random.nextDouble() < this.priorityRatio) {
+                task.markAsHighPriority();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private Task generateTask() {
+        String description = generateDescription();
+        double type = this.random.nextDouble();
+        if (type < this.todoRatio) {
+            return new Todo(description);
+        }
+        LocalDateTime start = generateTime();
+        if (type < this.todoRatio + this.deadlineRatio) {
+            return new Deadline(description, start);
+        }
+        return new Event(description, start, start.plusMinutes(30 + 30 * this.random.nextInt(8)));
+    }
+
+    private String generateDescription() {
+        double drawn = -Math.log(1 - this.random.nextDouble()) * this.meanDescriptionLength;
+        int length = (int) Math.max(MIN_DESCRIPTION_LENGTH, Math.min(MAX_DESCRIPTION_LENGTH, drawn));
+        StringBuilder description = new StringBuilder(WORDS[this.random.nextInt(WORDS.length)]);
+        while (description.length() < length) {
+            description.append(' ').append(WORDS[this.random.nextInt(WORDS.length)]);
+        }
+        return description.toString();
+    }
+
+    private LocalDateTime generateTime() {
+        return this.now.minusDays(7).plusMinutes(15L * this.random.nextInt(67 * 24 * 4));
+    }
+
+    /**
+     * Returns the number of tasks that remain after old done tasks are archived when Duker starts,
+     * which is all of them unless archiving on start is turned on.
+     *
+     * @param tasks the generated tasks
+     * @return the number of tasks Duker keeps in its list
+     */
+    public static int countLiveTasks(List<Task> tasks) {
+        if (!TaskList.isArchivedOnStart()) {
+            return tasks.size();
+        }
+        LocalDateTime cutoff = TaskList.getArchiveCutoff();
+        int count = 0;
+        for (Task task : tasks) {
+            if (!TaskList.isArchivable(task, cutoff)) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Generates a trace of commands with the configured share of writes.
+     * Indexes in the trace stay within the list as it grows and shrinks while the trace is replayed.
+     *
+     * @param liveTaskCount the number of tasks in the list when the trace starts
+     * @return the commands, one per element
+     */
+    public ArrayList<String> generateCommands(int liveTaskCount) {
+        ArrayList<String> commands = new ArrayList<>(this.commandCount);
+        int size = liveTaskCount;
+        for (int i = 0; i < this.commandCount; i++) {
+            if (this.random.nextDouble() < this.writeRatio) {
+                int choice = this.random.nextInt(size == 0 ? ADD_CHOICES : WRITE_CHOICES);
+                commands.add(generateWrite(choice, size));
+                if (choice < ADD_CHOICES) {
+                    size += 1;
+                } else if (choice == WRITE_CHOICES - 1) {
+                    size -= 1;
+                }
+            } else {
+                commands.add(generateRead());
+            }
+        }
+        return commands;
+    }
+
+    /**
+     * Returns a command that adds a task if the choice is below ADD_CHOICES, that deletes one if it is
+     * the last choice, and that changes one otherwise.
+     */
+    private String generateWrite(int choice, int size) {
+        int index = size == 0 ? 0 : 1 + this.random.nextInt(size);
+        switch (choice) {
+        case 0:
+            return "todo " + generateDescription();
+        case 1:
+            return "deadline " + generateDescription() + " /by " + generateTime().format(COMMAND_FORMAT);
+        case 2:
+            LocalDateTime start = generateTime();
+            return "event " + generateDescription() + " /from " + start.format(COMMAND_FORMAT) +
+                    " /to " + start.plusHours(1).format(COMMAND_FORMAT);
+        case 3:
+        case 4:
+            return "mark " + index;
+        case 5:
+            return "unmark " + index;
+        case 6:
+            return "prioritise " + index;
+        default:
+            return "delete " + index;
+        }
+    }
+
+    private String generateRead() {
+        String word = WORDS[this.random.nextInt(WORDS.length)];
+        switch (this.random.nextInt(6)) {
+        case 0:
+            return "list";
+        case 1:
+            return "find " + word;
+        case 2:
+            return "search " + word;
+        case 3:
+            return "priority";
+        case 4:
+            LocalDateTime from = generateTime().truncatedTo(ChronoUnit.DAYS);
+            return "agenda " + from.format(COMMAND_FORMAT) + " /to " + from.plusDays(7).format(COMMAND_FORMAT);
+        default:
+            return "query done:false text:" + word + " sort:due limit:20";
+        }
+    }
+
+    /**
+     * Writes the tasks to the configured data file in the text format of Storage.
+     *
+     * @param tasks the tasks to write
+     * @throws IOException if the directory of the data file cannot be created
+     */
+    public void writeData(List<Task> tasks) throws IOException {
+        Path path = Path.of(this.dataPath).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        Storage storage = new Storage(path.getParent().toString() + "/", path.getFileName().toString());
+        TaskList taskList = new TaskList();
+        for (Task task : tasks) {
+            taskList.load(task);
+        }
+        storage.rewriteFile(taskList);
+    }
+
+    /**
+     * Writes the commands to the configured trace file, one per line.
+     *
+     * @param commands the commands to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTrace(List<String> commands) throws IOException {
+        Path path = Path.of(this.tracePath);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (String command : commands) {
+                writer.write(command);
+                writer.newLine();
+            }
+        }
+    }
+}
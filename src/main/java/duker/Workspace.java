@@ -0,0 +1,146 @@
+package duker;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * The Workspace class is one named task list together with the data file it is kept in, the watcher
+ * that picks up changes made to the file by other programs and the reminders of its tasks.
+ * The tasks are loaded from the data file when the workspace is opened, and done tasks older than the
+ * archive cutoff are moved to its archive if "duker.archive.onStart" is set to true. Every change is
+ * written to the data file as it is made, so closing a workspace only stops its threads and saves a
+ * snapshot for the next time it is opened.
+ */
+public class Workspace implements AutoCloseable {
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final String FILE_EXTENSION = ".txt";
+    private static final long DEFAULT_REMINDER_MINUTES = 15;
+
+    private final String name;
+    private final Storage storage;
+    private final TaskList taskList;
+    private final ReminderScheduler reminders;
+    private StorageWatcher watcher;
+
+    /**
+     * Opens the workspace kept in the given data file and loads its tasks.
+     * The in-memory layout of the task list is chosen by the "duker.store" system property and the
+     * file format by "duker.storage" ("text" or "compressed"). Changes made to the data file by other
+     * programs are picked up in the background unless "duker.watch" is set to false. Reminders are sent
+     * "duker.reminder.minutes" minutes before a task is due, unless "duker.reminders" is set to false.
+     *
+     * @param name     the name of the workspace
+     * @param dataDir  the directory where the data file is stored
+     * @param filePath the name of the data file
+     * @param parser   the parser that reads the data file
+     * @param delivery the action that shows a reminder to the user, called on the reminder thread
+     */
+    public Workspace(String name, String dataDir, String filePath, Parser parser, Consumer<String> delivery) {
+        assert name != null && dataDir != null && filePath != null : "Name and file should not be null";
+        assert parser != null && delivery != null : "Parser and delivery should not be null";
+
+        this.name = name;
+        this.storage = createStorage(dataDir, filePath);
+        this.taskList = new TaskList(TaskStore.create(System.getProperty("duker.store", "array")));
+        this.reminders = new ReminderScheduler(Long.getLong("duker.reminder.minutes", DEFAULT_REMINDER_MINUTES),
+                Clock.systemDefaultZone());
+        this.reminders.setDelivery(delivery);
+        this.taskList.addListener(this.reminders);
+        this.storage.loadFile(this.taskList, parser);
+        if (TaskList.isArchivedOnStart()) {
+            this.taskList.archive(this.storage, TaskList.getArchiveCutoff());
+        }
+        if (Boolean.parseBoolean(System.getProperty("duker.watch", "true"))) {
+            startWatching(parser);
+        }
+        if (Boolean.parseBoolean(System.getProperty("duker.reminders", "true"))) {
+            this.reminders.start();
+        }
+        Metrics.increment("workspace.opened");
+    }
+
+    /**
+     * Returns whether a name can be used for a workspace: 1 to 64 letters, digits, dashes or underscores,
+     * so that it is always a plain file name.
+     *
+     * @param name the name to check
+     * @return true if the name can be used, false otherwise
+     */
+    public static boolean isValidName(String name) {
+        return name != null && NAME_PATTERN.matcher(name).matches();
+    }
+
+    /**
+     * Returns the name of the data file of a workspace, which is its name followed by ".txt".
+     *
+     * @param name the name of the workspace
+     * @return the name of its data file
+     */
+    public static String getFileName(String name) {
+        return name + FILE_EXTENSION;
+    }
+
+    private static Storage createStorage(String dataDir, String filePath) {
+        if (System.getProperty("duker.storage", "text").equals("compressed")) {
+            return new CompressedStorage(dataDir, filePath);
+        }
+        return new Storage(dataDir, filePath);
+    }
+
+    private void startWatching(Parser parser) {
+        try {
+            this.watcher = new StorageWatcher(this.storage, this.taskList, parser);
+            this.watcher.start();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the name of the workspace.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the storage of the data file of the workspace.
+     *
+     * @return the storage
+     */
+    public Storage getStorage() {
+        return this.storage;
+    }
+
+    /**
+     * Returns the tasks of the workspace.
+     *
+     * @return the task list
+     */
+    public TaskList getTaskList() {
+        return this.taskList;
+    }
+
+    /**
+     * Stops picking up changes made to the data file by other programs and sending reminders,
+     * then saves a snapshot of the task list for the next time it is loaded if snapshots are turned on.
+     */
+    @Override
+    public void close() {
+        this.reminders.close();
+        if (this.watcher != null) {
+            try {
+                this.watcher.close();
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        this.taskList.runWrite(() -> this.storage.writeSnapshot(this.taskList));
+        Metrics.increment("workspace.closed");
+    }
+}
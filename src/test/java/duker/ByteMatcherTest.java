@@ -0,0 +1,86 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ByteMatcherTest {
+
+    private static int indexOf(String haystack, String needle) {
+        byte[] bytes = haystack.getBytes(StandardCharsets.US_ASCII);
+        return new ByteMatcher(needle.getBytes(StandardCharsets.US_ASCII)).indexOf(bytes, 0, bytes.length);
+    }
+
+    @Test
+    public void testIndexOf_randomText_sameAsString() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder haystack = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                haystack.append((char) ('a' + random.nextInt(3)));
+            }
+            StringBuilder needle = new StringBuilder();
+            int needleLength = 1 + random.nextInt(5);
+            for (int j = 0; j < needleLength; j++) {
+                needle.append((char) ('a' + random.nextInt(3)));
+            }
+            assertEquals(haystack.indexOf(needle.toString()), indexOf(haystack.toString(), needle.toString()),
+                    haystack + " / " + needle);
+        }
+    }
+
+    @Test
+    public void testIndexOf_range_matchesOnlyInside() {
+        byte[] bytes = "invoice|pay rent|invoice".getBytes(StandardCharsets.US_ASCII);
+        ByteMatcher matcher = new ByteMatcher("invoice".getBytes(StandardCharsets.US_ASCII));
+
+        assertEquals(-1, matcher.indexOf(bytes, 1, 16));
+        assertEquals(17, matcher.indexOf(bytes, 1, bytes.length));
+        assertEquals(-1, matcher.indexOf(bytes, 17, bytes.length - 1));
+    }
+
+    @Test
+    public void testFindTasks_columnarStore_sameAsArrayStore() {
+        TaskList columnar = new TaskList(new ColumnarTaskStore());
+        TaskList array = new TaskList(new ArrayTaskStore());
+        String[] descriptions = {"r\u00e9union caf\u00e9", "caf\u00e9 au lait", "pay invoice", "buy cafe beans"};
+        for (String description : descriptions) {
+            columnar.load(new Todo(description));
+            array.load(new Todo(description));
+        }
+
+        for (String keyword : new String[] {"caf\u00e9", "cafe", "in", "\u00e9", "x"}) {
+            ArrayList<String> expected = new ArrayList<>();
+            for (Task task : array.findTasks(keyword)) {
+                expected.add(task.getDescription());
+            }
+            ArrayList<String> found = new ArrayList<>();
+            for (Task task : columnar.findTasks(keyword)) {
+                found.add(task.getDescription());
+            }
+            assertEquals(expected, found, keyword);
+        }
+    }
+
+    @Test
+    public void testFindContaining_gapsAndMovedDescriptions_rowsMatched() {
+        ColumnarTaskStore store = new ColumnarTaskStore();
+        for (String description : new String[] {"ab", "cd", "abcd", "xx", "cdab"}) {
+            store.add(new Todo(description));
+        }
+        assertEquals(2, store.findContaining("bc").size() + store.findContaining("da").size());
+
+        store.remove(3);
+        assertEquals(3, store.findContaining("cd").size());
+        store.set(0, new Todo("bcd"));
+        ArrayList<Task> found = store.findContaining("bc");
+        assertEquals(2, found.size());
+        assertEquals("bcd", found.get(0).getDescription());
+        assertEquals("abcd", found.get(1).getDescription());
+    }
+}
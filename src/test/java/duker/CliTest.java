@@ -0,0 +1,46 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CliTest {
+
+    private final File TEST_FILE = new File("data", "clitest.txt");
+
+    @BeforeEach
+    public void setUp() {
+        TEST_FILE.delete();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TEST_FILE.delete();
+    }
+
+    @Test
+    public void testRun_pipedCommands_stopsAtByeAndRestoresOut() throws Exception {
+        PrintStream originalOut = System.out;
+        String commands = "todo read book\nlist\nbye\ntodo never added\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (Duker duker = new Duker("data/", "clitest.txt")) {
+            new Cli(duker, new ByteArrayInputStream(commands.getBytes(StandardCharsets.UTF_8)), output).run();
+        }
+
+        String expected = "Hello! I'm Duker\nWhat can I do for you?\n" +
+                "Got it. I've added this task: \n[T][ ] read book\nNow you have 1 tasks in the list.\n" +
+                "Here are the tasks in your list:\n1.[T][ ] read book\n" +
+                "Bye. Hope to see you again soon!\n";
+        assertEquals(expected, output.toString(StandardCharsets.UTF_8).replace(System.lineSeparator(), "\n"));
+        assertEquals(originalOut, System.out);
+    }
+}
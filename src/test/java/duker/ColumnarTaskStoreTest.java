@@ -0,0 +1,68 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+public class ColumnarTaskStoreTest {
+
+    @Test
+    public void testGet_allTaskTypes_roundTrip() {
+        ColumnarTaskStore store = new ColumnarTaskStore();
+        Todo todo = new Todo("read book");
+        todo.markAsDone();
+        Deadline deadline = new Deadline("pay invoice", LocalDateTime.parse("2026-10-20T09:00"));
+        deadline.markAsHighPriority();
+        Event event = new Event("caf\u00e9 meetup", LocalDateTime.parse("2026-10-21T14:00"),
+                LocalDateTime.parse("2026-10-21T16:30"));
+        store.add(todo);
+        store.add(deadline);
+        store.add(event);
+
+        assertEquals(3, store.size());
+        assertEquals(todo.toString(), store.get(0).toString());
+        assertEquals(deadline.toString(), store.get(1).toString());
+        assertEquals(event.toString(), store.get(2).toString());
+    }
+
+    @Test
+    public void testSet_markedView_flagsWrittenBack() {
+        ColumnarTaskStore store = new ColumnarTaskStore();
+        store.add(new Todo("read book"));
+        Task view = store.get(0);
+        view.markAsDone();
+        assertFalse(store.get(0).isDone());
+
+        store.set(0, view);
+        assertTrue(store.get(0).isDone());
+        assertEquals("read book", store.get(0).getDescription());
+    }
+
+    @Test
+    public void testRemove_manyTasks_orderKept() {
+        ColumnarTaskStore store = new ColumnarTaskStore();
+        for (int i = 0; i < 100; i++) {
+            store.add(new Todo("task " + i));
+        }
+        for (int i = 0; i < 60; i++) {
+            store.remove(0);
+        }
+        assertEquals(40, store.size());
+        assertEquals("task 60", store.get(0).getDescription());
+        assertEquals("task 99", store.get(39).getDescription());
+    }
+
+    @Test
+    public void testTaskList_columnarStore_sameMessages() {
+        TaskList taskList = new TaskList(new ColumnarTaskStore());
+        taskList.load(new Todo("Test Task 1"));
+        taskList.load(new Todo("Dummy Task"));
+        taskList.load(new Todo("Test Task 2"));
+        assertEquals(2, taskList.findTasks("Test").size());
+        assertEquals(3, taskList.getTaskList().size());
+    }
+}
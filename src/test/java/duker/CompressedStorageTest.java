@@ -0,0 +1,87 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CompressedStorageTest {
+
+    private final PrintStream ORIGINAL_OUT = System.out;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.createDirectories(Paths.get("data"));
+        deleteTestFiles();
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setOut(ORIGINAL_OUT);
+        deleteTestFiles();
+    }
+
+    @Test
+    public void testLoadFile_textFileOnly_tasksImported() throws IOException {
+        Files.writeString(Paths.get("data", "compressedtest.txt"),
+                "1 | T | 0 | read book\n0 | D | 1 | return book | 2026-10-20T09:00\n");
+        TaskList taskList = new TaskList();
+        new CompressedStorage("data/", "compressedtest.txt").loadFile(taskList, new Parser());
+
+        TaskList reloaded = reload();
+        assertEquals(2, reloaded.getSize());
+        assertEquals(1, reloaded.getTask(0).getPriority());
+        assertTrue(reloaded.getTask(1).isDone());
+        assertEquals(taskList.getTask(1).toString(), reloaded.getTask(1).toString());
+    }
+
+    @Test
+    public void testChanges_manyBlocks_sameAfterReload() {
+        CompressedStorage storage = new CompressedStorage("data/", "compressedtest.txt");
+        TaskList taskList = new TaskList();
+        storage.loadFile(taskList, new Parser());
+        for (int i = 0; i < 1000; i++) {
+            taskList.add(new Todo("task " + i), storage);
+        }
+        for (int i = 0; i < 300; i++) {
+            taskList.delete(1 + (i * 7) % taskList.getSize(), storage);
+        }
+        for (int i = 1; i <= taskList.getSize(); i += 5) {
+            taskList.mark(i, storage);
+        }
+
+        TaskList reloaded = reload();
+        assertEquals(taskList.getSize(), reloaded.getSize());
+        for (int i = 0; i < taskList.getSize(); i++) {
+            assertEquals(taskList.getTask(i).toString(), reloaded.getTask(i).toString());
+        }
+        assertFalse(new File("data", "compressedtest.txt.0.blocks").exists());
+    }
+
+    private TaskList reload() {
+        TaskList taskList = new TaskList();
+        new CompressedStorage("data/", "compressedtest.txt").loadFile(taskList, new Parser());
+        return taskList;
+    }
+
+    private void deleteTestFiles() {
+        File[] files = new File("data").listFiles((dir, name) -> name.startsWith("compressedtest.txt"));
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            file.delete();
+        }
+    }
+}
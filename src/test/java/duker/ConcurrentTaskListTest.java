@@ -0,0 +1,182 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentTaskListTest {
+
+    private static final int READERS = 4;
+    private static final int WRITES = 400;
+    private static final int WINDOW = 10;
+
+    private final File TEST_FILE = new File("data", "concurrenttest.txt");
+    private final PrintStream ORIGINAL_OUT = System.out;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.createDirectories(Paths.get("data"));
+        TEST_FILE.createNewFile();
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setOut(ORIGINAL_OUT);
+        TEST_FILE.delete();
+    }
+
+    @Test
+    public void testSnapshot_laterChanges_snapshotUnchanged() {
+        TaskList taskList = new TaskList(new PersistentTaskStore());
+        Storage storage = new Storage("data/", "concurrenttest.txt");
+        taskList.add(new Todo("read book"), storage);
+        taskList.add(new Todo("return book"), storage);
+        List<Task> snapshot = taskList.snapshot();
+
+        taskList.mark(1, storage);
+        taskList.delete(2, storage);
+        taskList.add(new Todo("buy milk"), storage);
+
+        assertEquals(2, snapshot.size());
+        assertFalse(snapshot.get(0).isDone());
+        assertEquals("return book", snapshot.get(1).getDescription());
+        assertTrue(taskList.getTask(0).isDone());
+        assertEquals("buy milk", taskList.getTask(1).getDescription());
+    }
+
+    @Test
+    public void testSnapshot_concurrentAddAndDelete_neverHalfApplied() throws Exception {
+        TaskList taskList = new TaskList(new SnapshotTaskStore());
+        Storage storage = new Storage("data/", "concurrenttest.txt");
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        AtomicLong snapshotsChecked = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+
+        Future<?>[] readers = new Future<?>[READERS];
+        for (int r = 0; r < READERS; r++) {
+            readers[r] = executor.submit(() -> {
+                while (isWriting.get()) {
+                    assertContiguous(taskList.snapshot());
+                    snapshotsChecked.incrementAndGet();
+                }
+            });
+        }
+
+        for (int i = 0; i < WRITES; i++) {
+            taskList.add(new Todo(String.valueOf(i)), storage);
+            if (taskList.getSize() > WINDOW) {
+                taskList.delete(1, storage);
+            }
+        }
+        isWriting.set(false);
+        for (Future<?> reader : readers) {
+            reader.get();
+        }
+        executor.shutdown();
+
+        assertTrue(snapshotsChecked.get() > 0);
+        assertEquals(WINDOW, taskList.getSize());
+        assertEquals(String.valueOf(WRITES - WINDOW), taskList.getTask(0).getDescription());
+        assertEquals(WINDOW, Files.readAllLines(TEST_FILE.toPath()).size());
+    }
+
+    @Test
+    public void testSnapshot_heldSnapshot_unchangedByLaterWrites() {
+        TaskList taskList = new TaskList(new SnapshotTaskStore());
+        taskList.load(new Todo("0"));
+        taskList.load(new Todo("1"));
+        List<Task> snapshot = taskList.snapshot();
+        taskList.load(new Todo("2"));
+        assertEquals(2, snapshot.size());
+        assertEquals(3, taskList.snapshot().size());
+
+        List<Task> laterSnapshot = taskList.snapshot();
+        taskList.delete(3, new Storage("data/", "concurrenttest.txt"));
+        taskList.load(new Todo("3"));
+        for (int i = 4; i < 100; i++) {
+            taskList.load(new Todo(String.valueOf(i)));
+        }
+        assertEquals(3, laterSnapshot.size());
+        assertEquals("2", laterSnapshot.get(2).getDescription());
+        assertEquals(List.of("0", "1"), snapshot.stream().map(Task::getDescription).toList());
+        assertEquals("99", taskList.getTask(98).getDescription());
+    }
+
+    @Test
+    public void testExecute_readWhileWriterHoldsLock_readerFinishes() throws Exception {
+        System.setProperty("duker.store", "snapshot");
+        System.setProperty("duker.watch", "false");
+        System.setProperty("duker.reminders", "false");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (Duker duker = new Duker("data/", "concurrenttest.txt")) {
+            duker.getResponse("todo write team report");
+            duker.getResponse("deadline submit report /by 2026-10-20 18:00");
+            String[] reads = {"list", "search report", "find ~reprot", "list --sort due", "query text:report"};
+            for (String read : reads) {
+                duker.getResponse(read);
+            }
+
+            TaskList taskList = duker.getCurrentWorkspace().getTaskList();
+            CountDownLatch isLocked = new CountDownLatch(1);
+            CountDownLatch isReleased = new CountDownLatch(1);
+            try {
+                Future<?> writer = executor.submit(() -> taskList.runWrite(() -> {
+                    isLocked.countDown();
+                    try {
+                        isReleased.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+                isLocked.await();
+                Future<String> reader = executor.submit(() -> {
+                    StringBuilder responses = new StringBuilder();
+                    for (String read : reads) {
+                        responses.append(duker.getResponse(read));
+                    }
+                    return responses.toString();
+                });
+                String responses = reader.get(10, TimeUnit.SECONDS);
+                assertFalse(writer.isDone());
+                assertEquals(5, responses.split("submit report", -1).length - 1);
+                assertEquals(5, responses.split("write team report", -1).length - 1);
+            } finally {
+                isReleased.countDown();
+            }
+        } finally {
+            executor.shutdownNow();
+            System.clearProperty("duker.store");
+            System.clearProperty("duker.watch");
+            System.clearProperty("duker.reminders");
+        }
+    }
+
+    private static void assertContiguous(List<Task> tasks) {
+        for (int i = 1; i < tasks.size(); i++) {
+            int previous = Integer.parseInt(tasks.get(i - 1).getDescription());
+            int current = Integer.parseInt(tasks.get(i).getDescription());
+            assertEquals(previous + 1, current, "Snapshot saw a half-applied change");
+        }
+        assertTrue(tasks.size() <= WINDOW + 1, "Snapshot saw a half-applied delete");
+    }
+}
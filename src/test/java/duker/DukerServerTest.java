@@ -0,0 +1,124 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DukerServerTest {
+
+    private static final int CLIENTS = 100;
+
+    private final File TEST_FILE = new File("data", "servertest.txt");
+    private Duker duker;
+    private DukerServer server;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        TEST_FILE.delete();
+        duker = new Duker("data/", "servertest.txt");
+        server = new DukerServer(duker, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        server.close();
+        duker.close();
+        TEST_FILE.delete();
+    }
+
+    @Test
+    public void testSend_singleClient_sameResponseAsGetResponse() throws Exception {
+        try (DukerClient client = new DukerClient(server.getAddress())) {
+            String response = client.send("todo read book");
+            assertEquals("Got it. I've added this task: \n[T][ ] read book\nNow you have 1 tasks in the list.\n",
+                    response);
+            assertEquals("Here are the tasks in your list:\n1.[T][ ] read book\n", client.send("list"));
+            assertEquals("Bye. Hope to see you again soon!\n", client.send("bye"));
+        }
+    }
+
+    @Test
+    public void testSend_concurrentClients_allCommandsApplied() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        ArrayList<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            String description = "client " + i;
+            results.add(executor.submit(() -> {
+                try (DukerClient client = new DukerClient(server.getAddress())) {
+                    client.send("todo " + description);
+                    return client.send("find " + description);
+                }
+            }));
+        }
+        for (int i = 0; i < CLIENTS; i++) {
+            assertTrue(results.get(i).get().contains("client " + i));
+        }
+        executor.shutdown();
+
+        try (DukerClient client = new DukerClient(server.getAddress())) {
+            String list = client.send("list");
+            assertEquals(CLIENTS + 1, list.split("\n").length);
+        }
+    }
+
+    @Test
+    public void testSend_byeFromOneClient_othersStillServed() throws Exception {
+        try (DukerClient leaving = new DukerClient(server.getAddress());
+                DukerClient staying = new DukerClient(server.getAddress())) {
+            staying.send("todo read book");
+            assertEquals("Bye. Hope to see you again soon!\n", leaving.send("bye"));
+
+            assertTrue(duker.isOnline());
+            assertEquals("Here are the tasks in your list:\n1.[T][ ] read book\n", staying.send("list"));
+        }
+    }
+
+    @Test
+    public void testSend_commandWaitingForLock_otherClientsStillAnswered() throws Exception {
+        TaskList taskList = duker.getCurrentWorkspace().getTaskList();
+        CountDownLatch isLocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread writer = new Thread(() -> taskList.runWrite(() -> {
+            isLocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        writer.start();
+        isLocked.await();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (DukerClient waiting = new DukerClient(server.getAddress());
+                DukerClient other = new DukerClient(server.getAddress())) {
+            Future<String> added = executor.submit(() -> waiting.send("todo read book"));
+            Future<String> bye = executor.submit(() -> other.send("bye"));
+
+            assertEquals("Bye. Hope to see you again soon!\n", bye.get(5, TimeUnit.SECONDS));
+            assertFalse(added.isDone());
+            release.countDown();
+            assertTrue(added.get(5, TimeUnit.SECONDS).contains("read book"));
+        } finally {
+            release.countDown();
+            writer.join();
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package duker;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * A clock in UTC that only moves when a test moves it.
+ */
+public class MutableClock extends Clock {
+
+    private Instant instant;
+
+    public MutableClock(LocalDateTime start) {
+        this.instant = start.toInstant(ZoneOffset.UTC);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+
+    @Override
+    public Instant instant() {
+        return this.instant;
+    }
+
+    public void advanceMinutes(long minutes) {
+        this.instant = this.instant.plusSeconds(60 * minutes);
+    }
+}
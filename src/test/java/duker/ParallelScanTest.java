@@ -0,0 +1,82 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ParallelScanTest {
+
+    @BeforeEach
+    public void setUp() {
+        System.setProperty("duker.parallel.threshold", "1000");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty("duker.parallel.threshold");
+    }
+
+    private static TaskList createTaskList(TaskStore store, int size) {
+        TaskList taskList = new TaskList(store);
+        for (int i = 0; i < size; i++) {
+            taskList.load(new Todo((i % 7 == 0 ? "report " : "task ") + i));
+        }
+        return taskList;
+    }
+
+    @Test
+    public void testIsParallel_threshold_respected() {
+        assertFalse(ParallelScan.isParallel(999));
+        assertTrue(ParallelScan.isParallel(1000));
+        System.setProperty("duker.parallel.threshold", "0");
+        assertFalse(ParallelScan.isParallel(1_000_000));
+    }
+
+    @Test
+    public void testFindTasks_aboveThreshold_listOrderKept() {
+        for (TaskStore store : List.of(new ArrayTaskStore(), new PersistentTaskStore(), new ColumnarTaskStore())) {
+            TaskList taskList = createTaskList(store, 5000);
+            ArrayList<Task> tasksFound = taskList.findTasks("report");
+
+            assertEquals(715, tasksFound.size());
+            for (int i = 0; i < tasksFound.size(); i++) {
+                assertEquals("report " + (i * 7), tasksFound.get(i).getDescription());
+            }
+        }
+    }
+
+    @Test
+    public void testSpliterator_persistentSnapshot_splitsInOrder() {
+        PersistentTaskStore store = new PersistentTaskStore();
+        for (int i = 0; i < 3000; i++) {
+            store.add(new Todo("task " + i));
+        }
+
+        List<String> descriptions = store.snapshot().parallelStream()
+                .map(Task::getDescription)
+                .collect(Collectors.toList());
+
+        assertEquals(3000, descriptions.size());
+        for (int i = 0; i < descriptions.size(); i++) {
+            assertEquals("task " + i, descriptions.get(i));
+        }
+    }
+
+    @Test
+    public void testQuery_aboveThreshold_scannedInParallel() throws DukerException {
+        TaskList taskList = createTaskList(new ArrayTaskStore(), 5000);
+
+        QueryResult result = taskList.query(Query.parse("done:false sort:text"));
+
+        assertTrue(result.getAccessPath().endsWith("in parallel"));
+        assertEquals(5000, result.getTasks().size());
+    }
+}
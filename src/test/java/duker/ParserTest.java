@@ -1,6 +1,7 @@
 package duker;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -84,4 +85,25 @@ public class ParserTest {
         });
     }
 
+    @Test
+    public void testConvertStringToTask_repeatedDescription_sharedInstance() {
+        Parser parser = new Parser();
+        Task first = parser.convertStringToTask("0 | T | 0 | standup");
+        Task second = parser.convertStringToTask("0 | D | 1 | standup | 2026-10-20T09:00");
+        assertSame(first.getDescription(), second.getDescription());
+        assertEquals(1, parser.getDescriptionPool().getSize());
+    }
+
+    @Test
+    public void testConvertStringToTask_recurringDeadline_doneStateRestored() {
+        Parser parser = new Parser();
+        Task task = parser.convertStringToTask("0 | D | 0 | standup | 2026-10-20T09:00 | 1d | 2;4");
+        RecurringDeadline standup = (RecurringDeadline) task;
+        assertEquals("1d", standup.getRecurrence().getPeriod());
+        assertEquals(2, standup.getRecurrence().getFirstUndone());
+        assertEquals(3, standup.getOccurrencesBetween(LocalDateTime.parse("2026-10-21T00:00"),
+                LocalDateTime.parse("2026-10-24T00:00"), 10).size());
+        assertEquals("2;4", standup.getRecurrence().encodeDoneState());
+    }
+
 }
@@ -0,0 +1,36 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class PersistentTaskStoreTest {
+
+    @Test
+    public void testRandomChanges_sameAsArrayList() {
+        PersistentTaskStore store = new PersistentTaskStore();
+        ArrayList<Task> expected = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            int choice = random.nextInt(3);
+            if (choice == 0 || expected.isEmpty()) {
+                Task task = new Todo("task " + i);
+                store.add(task);
+                expected.add(task);
+            } else if (choice == 1) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), store.remove(index));
+            } else {
+                int index = random.nextInt(expected.size());
+                Task task = new Todo("changed " + i);
+                store.set(index, task);
+                expected.set(index, task);
+            }
+        }
+        assertEquals(expected, store.snapshot());
+        assertEquals(expected, store.toArrayList());
+    }
+}
@@ -0,0 +1,120 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class QueryTest {
+
+    private final Path DATA_DIRECTORY = Paths.get("data");
+    private final File TEST_FILE = new File(DATA_DIRECTORY.toFile(), "query.txt");
+    private final PrintStream ORIGINAL_OUT = System.out;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        if (!Files.exists(DATA_DIRECTORY)) {
+            Files.createDirectories(DATA_DIRECTORY);
+        }
+        Files.deleteIfExists(TEST_FILE.toPath());
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setOut(ORIGINAL_OUT);
+        TEST_FILE.delete();
+    }
+
+    private static TaskList createTaskList(TaskStore store) {
+        TaskList taskList = new TaskList(store);
+        for (int i = 0; i < 300; i++) {
+            LocalDateTime time = LocalDateTime.parse("2026-10-01T09:00").plusDays(i % 60);
+            if (i % 3 == 0) {
+                taskList.load(new Todo("read chapter " + i));
+            } else if (i % 3 == 1) {
+                taskList.load(new Deadline("pay invoice " + i, time));
+            } else {
+                taskList.load(new Event("meeting " + i, time, time.plusHours(1)));
+            }
+        }
+        return taskList;
+    }
+
+    private static ArrayList<String> getDescriptions(QueryResult result) {
+        ArrayList<String> descriptions = new ArrayList<>();
+        for (Task task : result.getTasks()) {
+            descriptions.add(task.getDescription());
+        }
+        return descriptions;
+    }
+
+    @Test
+    public void testParse_unknownTerm_exceptionThrown() {
+        DukerException exception = assertThrows(DukerException.class, () -> Query.parse("colour:red"));
+        assertEquals("I don't understand the query term 'colour:red'", exception.getMessage());
+        assertThrows(DukerException.class, () -> Query.parse("due<tomorrow"));
+        assertThrows(DukerException.class, () -> Query.parse("limit:0"));
+    }
+
+    @Test
+    public void testQuery_indexedAndScanned_sameTasks() throws DukerException {
+        TaskList indexed = createTaskList(new ArrayTaskStore());
+        TaskList scanned = createTaskList(new ColumnarTaskStore());
+        Query query = Query.parse("type:D done:false due<2026-10-11 text:invoice sort:due limit:5");
+
+        QueryResult indexedResult = indexed.query(query);
+        QueryResult scannedResult = scanned.query(query);
+
+        assertTrue(indexedResult.getAccessPath().startsWith("index on time in range"));
+        assertTrue(scannedResult.getAccessPath().startsWith("full scan"));
+        assertEquals(getDescriptions(scannedResult), getDescriptions(indexedResult));
+        assertEquals(5, indexedResult.getTasks().size());
+        assertEquals("pay invoice 1", indexedResult.getTasks().get(0).getDescription());
+    }
+
+    @Test
+    public void testQuery_unselectiveTerm_fullScanStopsAtLimit() throws DukerException {
+        TaskList taskList = createTaskList(new ArrayTaskStore());
+
+        QueryResult result = taskList.query(Query.parse("done:false limit:3"));
+
+        assertTrue(result.getAccessPath().startsWith("full scan"));
+        assertEquals(3, result.getExamined());
+        assertEquals("read chapter 0", result.getTasks().get(0).getDescription());
+    }
+
+    @Test
+    public void testQuery_afterMarkAndDelete_indexUpToDate() throws DukerException {
+        Storage storage = new Storage("data/", "query.txt");
+        TaskList taskList = new TaskList(new PersistentTaskStore());
+        storage.loadFile(taskList, new Parser());
+        taskList.add(new Todo("water plants"), storage);
+        taskList.add(new Todo("water lawn"), storage);
+        taskList.add(new Todo("buy milk"), storage);
+        Query query = Query.parse("done:true text:water");
+        assertEquals(0, taskList.query(query).getTasks().size());
+
+        taskList.mark(1, storage);
+        taskList.mark(2, storage);
+        taskList.delete(1, storage);
+
+        QueryResult result = taskList.query(query);
+        assertTrue(result.getAccessPath().startsWith("index on"));
+        assertEquals(1, result.getTasks().size());
+        assertEquals("water lawn", result.getTasks().get(0).getDescription());
+    }
+}
@@ -0,0 +1,53 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class RecurrenceTest {
+
+    @Test
+    public void testSetDone_earlyOccurrenceUnmarked_doneStateStaysSparse() {
+        Recurrence recurrence = Recurrence.parse("1d");
+        for (int i = 0; i < 2000; i++) {
+            recurrence.markNextDone();
+        }
+        recurrence.setDone(5, false);
+
+        assertEquals("2000;;5", recurrence.encodeDoneState());
+        assertFalse(recurrence.isDone(5));
+        assertTrue(recurrence.isDone(6));
+        assertTrue(recurrence.isDone(1999));
+        assertFalse(recurrence.isDone(2000));
+        assertEquals(5, recurrence.getFirstUndone());
+
+        Recurrence decoded = Recurrence.parse("1d");
+        decoded.decodeDoneState(recurrence.encodeDoneState());
+        assertFalse(decoded.isDone(5));
+        assertEquals(recurrence.encodeDoneState(), decoded.encodeDoneState());
+
+        recurrence.markNextDone();
+        assertEquals("2000", recurrence.encodeDoneState());
+    }
+
+    @Test
+    public void testUnmarkLastDone_exceptionsBelowWatermark_watermarkMovesPastThem() {
+        Recurrence recurrence = Recurrence.parse("1w");
+        recurrence.decodeDoneState("4;6");
+        recurrence.setDone(2, false);
+        recurrence.unmarkLastDone();
+        assertEquals("4;;2", recurrence.encodeDoneState());
+
+        recurrence.setDone(3, false);
+        assertEquals("2", recurrence.encodeDoneState());
+        recurrence.unmarkLastDone();
+        assertEquals("1", recurrence.encodeDoneState());
+
+        recurrence.decodeDoneState("3;5,7");
+        assertTrue(recurrence.isDone(2));
+        assertTrue(recurrence.isDone(5));
+        assertFalse(recurrence.isDone(6));
+    }
+}
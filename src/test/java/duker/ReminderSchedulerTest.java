@@ -0,0 +1,108 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ReminderSchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 9, 0);
+    private final PrintStream ORIGINAL_OUT = System.out;
+
+    private MutableClock clock;
+    private ReminderScheduler scheduler;
+    private ArrayList<String> reminders;
+    private TaskList taskList;
+
+    @BeforeEach
+    public void setUp() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        this.clock = new MutableClock(NOW);
+        this.scheduler = new ReminderScheduler(15, this.clock);
+        this.reminders = new ArrayList<>();
+        this.scheduler.setDelivery(this.reminders::add);
+        this.taskList = new TaskList();
+        this.taskList.addListener(this.scheduler);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setOut(ORIGINAL_OUT);
+        new File("data", "remindertest.txt").delete();
+    }
+
+    @Test
+    public void testSendDueReminders_loadedTasks_remindedFifteenMinutesAhead() {
+        this.taskList.load(new Deadline("submit report", NOW.plusMinutes(60)));
+        this.taskList.load(new Event("standup", NOW.plusMinutes(20), NOW.plusMinutes(35)));
+        this.taskList.load(new Todo("read book"));
+        this.taskList.load(new Deadline("already late", NOW.minusMinutes(5)));
+        assertEquals(2, this.scheduler.getPendingCount());
+
+        this.clock.advanceMinutes(4);
+        assertEquals(0, this.scheduler.sendDueReminders());
+        this.clock.advanceMinutes(1);
+        assertEquals(1, this.scheduler.sendDueReminders());
+        assertTrue(this.reminders.get(0).startsWith("Reminder: standup starts at"));
+        this.clock.advanceMinutes(40);
+        assertEquals(1, this.scheduler.sendDueReminders());
+        assertTrue(this.reminders.get(1).startsWith("Reminder: submit report is due at"));
+        assertEquals(0, this.scheduler.getPendingCount());
+    }
+
+    @Test
+    public void testSendDueReminders_markedAndDeletedTasks_notReminded() {
+        Storage storage = new Storage("data/", "remindertest.txt");
+        this.taskList.load(new Deadline("pay rent", NOW.plusMinutes(30)));
+        this.taskList.load(new Deadline("call team", NOW.plusMinutes(30)));
+        this.taskList.load(new Deadline("buy milk", NOW.plusMinutes(30)));
+
+        this.taskList.mark(1, storage);
+        this.taskList.delete(1, storage);
+        this.taskList.mark(1, storage);
+        this.taskList.unmark(1, storage);
+        this.clock.advanceMinutes(15);
+
+        assertEquals(2, this.scheduler.sendDueReminders());
+        assertTrue(this.reminders.get(0).contains("call team") || this.reminders.get(1).contains("call team"));
+        assertTrue(this.reminders.get(0).contains("buy milk") || this.reminders.get(1).contains("buy milk"));
+    }
+
+    @Test
+    public void testSendDueReminders_recurringTask_nextOccurrenceScheduled() {
+        this.taskList.load(new RecurringDeadline("standup", NOW.minusDays(3).plusMinutes(30),
+                Recurrence.parse("1d")));
+
+        this.clock.advanceMinutes(15);
+        assertEquals(1, this.scheduler.sendDueReminders());
+        assertEquals(1, this.scheduler.getPendingCount());
+        this.clock.advanceMinutes(24 * 60);
+        assertEquals(1, this.scheduler.sendDueReminders());
+    }
+
+    @Test
+    public void testSendDueReminders_markedOccurrence_skippedFromCopyOfTask() throws DukerException {
+        Storage storage = new Storage("data/", "remindertest.txt");
+        RecurringDeadline standup = new RecurringDeadline("standup", NOW.plusMinutes(30), Recurrence.parse("1d"));
+        this.taskList.load(standup);
+        this.taskList.markOccurrence(1, NOW.plusDays(1).plusMinutes(30), true, storage);
+
+        this.clock.advanceMinutes(15);
+        assertEquals(1, this.scheduler.sendDueReminders());
+        standup.markOccurrence(NOW.plusDays(2).plusMinutes(30), true);
+        this.clock.advanceMinutes(24 * 60);
+        assertEquals(0, this.scheduler.sendDueReminders());
+        this.clock.advanceMinutes(24 * 60);
+        assertEquals(1, this.scheduler.sendDueReminders());
+        assertTrue(this.reminders.get(1).contains("21 Oct 2026"));
+    }
+}
@@ -0,0 +1,94 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+public class RenderCacheTest {
+
+    @Test
+    public void testRender_unchangedTask_hit() {
+        RenderCache cache = new RenderCache();
+        Deadline deadline = new Deadline("pay invoice", LocalDateTime.parse("2026-10-20T09:00"));
+
+        assertEquals(deadline.toString(), cache.render(deadline));
+        assertEquals(deadline.toString(), cache.render(deadline));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testRender_changedTask_renderedAgain() {
+        RenderCache cache = new RenderCache();
+        Todo todo = new Todo("read book");
+        cache.render(todo);
+
+        todo.markAsDone();
+        assertEquals(todo.toString(), cache.render(todo));
+        todo.markAsHighPriority();
+        assertEquals(todo.toString(), cache.render(todo));
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testRender_overCapacity_leastRecentlyUsedEvicted() {
+        RenderCache cache = new RenderCache(2);
+        Todo first = new Todo("first");
+        Todo second = new Todo("second");
+        cache.render(first);
+        cache.render(second);
+        cache.render(first);
+        cache.render(new Todo("third"));
+
+        assertEquals(2, cache.getSize());
+        cache.render(first);
+        assertEquals(2, cache.getHits());
+        cache.render(second);
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void testRender_taskListTasks_removedTasksDroppedAndOthersNotCached() {
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            TaskList taskList = new TaskList();
+            Storage storage = new Storage("data/", "rendercachetest.txt");
+            taskList.load(new Todo("read book"));
+            taskList.load(new Todo("return book"));
+            RenderCache cache = taskList.getRenderCache();
+            for (Task task : taskList.snapshot()) {
+                taskList.render(task);
+            }
+            assertEquals(2, cache.getSize());
+
+            taskList.delete(1, storage);
+            assertEquals(1, cache.getSize());
+            assertEquals("[T][ ] buy milk", taskList.render(new Todo("buy milk")));
+            assertEquals(1, cache.getSize());
+            assertNull(new TaskList(new ColumnarTaskStore()).getRenderCache());
+        } finally {
+            System.setOut(originalOut);
+            new File("data", "rendercachetest.txt").delete();
+        }
+    }
+
+    @Test
+    public void testIsRenderCached_runLongerThanCache_notCached() {
+        TaskList taskList = new TaskList();
+        int capacity = taskList.getRenderCache().getCapacity();
+
+        assertTrue(taskList.isRenderCached(capacity));
+        assertFalse(taskList.isRenderCached(capacity + 1));
+        assertFalse(new TaskList(new ColumnarTaskStore()).isRenderCached(1));
+    }
+
+}
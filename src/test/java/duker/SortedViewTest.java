@@ -0,0 +1,138 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SortedViewTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 9, 0);
+    private final PrintStream ORIGINAL_OUT = System.out;
+
+    private TaskList taskList;
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        this.taskList = new TaskList();
+        this.storage = new Storage("data/", "sortedviewtest.txt");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setOut(ORIGINAL_OUT);
+        new File("data", "sortedviewtest.txt").delete();
+    }
+
+    @Test
+    public void testGetPage_randomChanges_matchesFullSort() {
+        Random random = new Random(49);
+        SortedView view = new SortedView("due", Query.getComparator("due"));
+        this.taskList.addListener(view);
+        for (int i = 0; i < 3000; i++) {
+            this.taskList.load(generateTask(random, i));
+        }
+        view.getPage(0, 1, this.taskList.snapshot());
+
+        for (int i = 0; i < 3000; i++) {
+            int index = 1 + random.nextInt(this.taskList.getSize());
+            switch (random.nextInt(4)) {
+            case 0:
+                this.taskList.load(generateTask(random, i));
+                break;
+            case 1:
+                this.taskList.delete(index, this.storage);
+                break;
+            default:
+                this.taskList.prioritise(index, this.storage);
+            }
+        }
+
+        ArrayList<Task> expected = new ArrayList<>(this.taskList.snapshot());
+        expected.sort(Query.getComparator("due"));
+        assertEquals(expected.size(), view.size());
+        assertEquals(expected, view.getPage(0, expected.size(), this.taskList.snapshot()));
+        assertEquals(expected.subList(1000, 1020), view.getPage(1000, 20, this.taskList.snapshot()));
+        assertEquals(expected.subList(expected.size() - 5, expected.size()),
+                view.getPage(expected.size() - 5, 20, this.taskList.snapshot()));
+    }
+
+    @Test
+    public void testGetSortedPage_byPriorityAndName_indexesInList() throws DukerException {
+        this.taskList.load(new Todo("walk dog"));
+        this.taskList.load(new Deadline("Pay rent", NOW.plusDays(3)));
+        this.taskList.load(new Todo("buy milk"));
+        this.taskList.load(new Event("standup", NOW.plusDays(1), NOW.plusDays(1).plusHours(1)));
+        this.taskList.prioritise(3, this.storage);
+
+        List<Task> byName = this.taskList.getSortedPage("text", 0, 10);
+        assertEquals("buy milk", byName.get(0).getDescription());
+        assertEquals("Pay rent", byName.get(1).getDescription());
+        assertEquals(3, this.taskList.getIndexOf(byName.get(0)));
+        assertEquals(2, this.taskList.getIndexOf(byName.get(1)));
+
+        List<Task> byPriority = this.taskList.getSortedPage("priority", 0, 2);
+        assertEquals(2, byPriority.size());
+        assertEquals("buy milk", byPriority.get(0).getDescription());
+        assertEquals("walk dog", byPriority.get(1).getDescription());
+
+        this.taskList.delete(2, this.storage);
+        List<Task> byDue = this.taskList.getSortedPage("due", 0, 10);
+        assertEquals("standup", byDue.get(0).getDescription());
+        assertEquals(2, this.taskList.getIndexOf(byDue.get(2)));
+        assertEquals(3, byDue.size());
+        assertThrows(DukerException.class, () -> this.taskList.getSortedPage("size", 0, 10));
+    }
+
+    @Test
+    public void testGetSortedPage_columnarStore_matchesFullSort() throws DukerException {
+        Random random = new Random(26);
+        TaskList columnar = new TaskList(new ColumnarTaskStore());
+        for (int i = 0; i < 500; i++) {
+            columnar.load(generateTask(random, i));
+        }
+        columnar.prioritise(7, this.storage);
+        columnar.delete(3, this.storage);
+
+        for (String sort : new String[] {"due", "priority", "text"}) {
+            ArrayList<Task> expected = new ArrayList<>(columnar.snapshot());
+            expected.sort(Query.getComparator(sort));
+            assertEquals(toStrings(expected.subList(0, 20)), toStrings(columnar.getSortedPage(sort, 0, 20)));
+            assertEquals(toStrings(expected.subList(240, 260)), toStrings(columnar.getSortedPage(sort, 240, 20)));
+            assertEquals(toStrings(expected.subList(490, 499)), toStrings(columnar.getSortedPage(sort, 490, 20)));
+            assertEquals(0, columnar.getSortedPage(sort, 600, 20).size());
+        }
+    }
+
+    private static List<String> toStrings(List<Task> tasks) {
+        ArrayList<String> strings = new ArrayList<>();
+        for (Task task : tasks) {
+            strings.add(task.getSequence() + " " + task);
+        }
+        return strings;
+    }
+
+    private static Task generateTask(Random random, int i) {
+        LocalDateTime time = NOW.plusHours(random.nextInt(100));
+        switch (random.nextInt(3)) {
+        case 0:
+            return new Todo("todo " + i);
+        case 1:
+            return new Deadline("deadline " + i, time);
+        default:
+            return new Event("event " + i, time, time.plusHours(1));
+        }
+    }
+}
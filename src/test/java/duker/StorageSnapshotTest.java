@@ -0,0 +1,135 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class StorageSnapshotTest {
+
+    private final File TEST_FILE = new File("data", "snapshottest.txt");
+    private final File SNAPSHOT_FILE = new File("data", "snapshottest.txt.snapshot");
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        System.setProperty("duker.snapshot", "true");
+        Files.createDirectories(Paths.get("data"));
+        Files.writeString(TEST_FILE.toPath(), "0 | T | 0 | read book\n" +
+                "1 | D | 0 | return book | 2024-09-30T18:00\n" +
+                "0 | E | 1 | standup | 2026-10-20T09:00 | 2026-10-20T09:15 | 1d | 2;4\n");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty("duker.snapshot");
+        TEST_FILE.delete();
+        SNAPSHOT_FILE.delete();
+    }
+
+    @Test
+    public void testLoadFile_snapshotOfUnchangedFile_tasksTakenFromSnapshot() {
+        Storage storage = new Storage("data/", "snapshottest.txt");
+        TaskList taskList = new TaskList();
+        storage.loadFile(taskList, new Parser());
+        // only changed in memory, so the list can only come back marked from the snapshot
+        taskList.getTask(0).markAsDone();
+        storage.writeSnapshot(taskList);
+        assertTrue(SNAPSHOT_FILE.exists());
+
+        TaskList loaded = new TaskList();
+        new Storage("data/", "snapshottest.txt").loadFile(loaded, new Parser());
+
+        assertEquals(3, loaded.getSize());
+        assertTrue(loaded.getTask(0).isDone());
+        assertEquals(1, loaded.getTask(1).getPriority());
+        assertEquals(LocalDateTime.of(2024, 9, 30, 18, 0), ((Deadline) loaded.getTask(1)).getBy());
+        RecurringEvent standup = (RecurringEvent) loaded.getTask(2);
+        assertEquals(LocalDateTime.of(2026, 10, 20, 9, 15), standup.getEnd());
+        assertEquals("1d", standup.getRecurrence().getPeriod());
+        assertEquals("2;4", standup.getRecurrence().encodeDoneState());
+    }
+
+    @Test
+    public void testLoadFile_fileChangedAfterSnapshot_fileParsed() throws IOException {
+        Storage storage = new Storage("data/", "snapshottest.txt");
+        TaskList taskList = new TaskList();
+        storage.loadFile(taskList, new Parser());
+        taskList.getTask(0).markAsDone();
+        storage.writeSnapshot(taskList);
+        Files.writeString(TEST_FILE.toPath(), "0 | T | 0 | buy milk\n", StandardOpenOption.APPEND);
+
+        TaskList loaded = new TaskList();
+        new Storage("data/", "snapshottest.txt").loadFile(loaded, new Parser());
+
+        assertEquals(4, loaded.getSize());
+        assertFalse(loaded.getTask(0).isDone());
+        assertEquals("buy milk", loaded.getTask(3).getDescription());
+    }
+
+    @Test
+    public void testLoadFile_sameLengthAndTimeButEdited_fileParsed() throws IOException {
+        Storage storage = new Storage("data/", "snapshottest.txt");
+        TaskList taskList = new TaskList();
+        storage.loadFile(taskList, new Parser());
+        storage.writeSnapshot(taskList);
+        FileTime modified = Files.getLastModifiedTime(TEST_FILE.toPath());
+        String edited = Files.readString(TEST_FILE.toPath()).replace("read book", "read bool");
+        Files.writeString(TEST_FILE.toPath(), edited);
+        Files.setLastModifiedTime(TEST_FILE.toPath(), modified);
+
+        TaskList loaded = new TaskList();
+        new Storage("data/", "snapshottest.txt").loadFile(loaded, new Parser());
+
+        assertEquals("read bool", loaded.getTask(0).getDescription());
+    }
+
+    @Test
+    public void testLoadFile_damagedSnapshot_fileParsed() throws IOException {
+        Storage storage = new Storage("data/", "snapshottest.txt");
+        TaskList taskList = new TaskList();
+        storage.loadFile(taskList, new Parser());
+        taskList.getTask(0).markAsDone();
+        storage.writeSnapshot(taskList);
+        byte[] bytes = Files.readAllBytes(SNAPSHOT_FILE.toPath());
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(SNAPSHOT_FILE.toPath(), bytes);
+
+        TaskList loaded = new TaskList();
+        new Storage("data/", "snapshottest.txt").loadFile(loaded, new Parser());
+
+        assertEquals(3, loaded.getSize());
+        assertFalse(loaded.getTask(0).isDone());
+    }
+
+    @Test
+    public void testLoadAppended_unchangedAfterEitherLoad_notReloaded() {
+        Storage storage = new Storage("data/", "snapshottest.txt");
+        TaskList parsed = new TaskList();
+        storage.loadFile(parsed, new Parser());
+        storage.writeSnapshot(parsed);
+        Storage snapshotStorage = new Storage("data/", "snapshottest.txt");
+        TaskList loaded = new TaskList();
+        snapshotStorage.loadFile(loaded, new Parser());
+        // only changed in memory, so a reload from the file would undo it
+        parsed.getTask(0).markAsDone();
+        loaded.getTask(0).markAsDone();
+
+        storage.loadAppended(parsed, new Parser());
+        snapshotStorage.loadAppended(loaded, new Parser());
+
+        assertTrue(parsed.getTask(0).isDone());
+        assertTrue(loaded.getTask(0).isDone());
+    }
+
+}
@@ -0,0 +1,173 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class StorageWatcherTest {
+
+    private final File TEST_FILE = new File("data", "watchertest.txt");
+    private final PrintStream ORIGINAL_OUT = System.out;
+
+    private Storage storage;
+    private Parser parser;
+    private TaskList taskList;
+    private StorageWatcher watcher;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.createDirectories(Paths.get("data"));
+        Files.writeString(TEST_FILE.toPath(), "0 | T | 0 | read book\n0 | T | 1 | return book\n");
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        this.storage = new Storage("data/", "watchertest.txt");
+        this.parser = new Parser();
+        this.taskList = new TaskList();
+        this.storage.loadFile(this.taskList, this.parser);
+        this.watcher = new StorageWatcher(this.storage, this.taskList, this.parser);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        this.watcher.close();
+        System.setOut(ORIGINAL_OUT);
+        TEST_FILE.delete();
+    }
+
+    @Test
+    public void testCheck_linesAppended_onlyNewLinesLoaded() throws IOException {
+        append("0 | T | 0 | buy milk\n1 | T | 0 | pay rent\n");
+        this.watcher.check();
+
+        assertEquals(4, this.taskList.getSize());
+        assertEquals("read book", this.taskList.getTask(0).getDescription());
+        assertEquals("pay rent", this.taskList.getTask(3).getDescription());
+        assertEquals(1, this.taskList.getTask(3).getPriority());
+    }
+
+    @Test
+    public void testCheck_partialLine_loadedOnceComplete() throws IOException {
+        append("0 | T | 0 | buy");
+        this.watcher.check();
+        assertEquals(2, this.taskList.getSize());
+
+        append(" milk\n");
+        this.watcher.check();
+        assertEquals(3, this.taskList.getSize());
+        assertEquals("buy milk", this.taskList.getTask(2).getDescription());
+    }
+
+    @Test
+    public void testCheck_existingLineChanged_fullReload() throws IOException {
+        Files.writeString(TEST_FILE.toPath(), "0 | T | 1 | read book\n0 | T | 1 | return book\n");
+        this.watcher.check();
+
+        assertEquals(2, this.taskList.getSize());
+        assertTrue(this.taskList.getTask(0).isDone());
+    }
+
+    @Test
+    public void testCheck_sameLengthEditInMiddle_fullReload() throws IOException {
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            contents.append("0 | T | 0 | task ").append(1000 + i).append('\n');
+        }
+        Files.writeString(TEST_FILE.toPath(), contents);
+        this.watcher.check();
+        assertEquals(1000, this.taskList.getSize());
+
+        long modified = TEST_FILE.lastModified();
+        int middle = contents.indexOf("0 | T | 0 | task 1500");
+        contents.replace(middle, middle + 9, "0 | T | 1");
+        Files.writeString(TEST_FILE.toPath(), contents);
+        TEST_FILE.setLastModified(modified);
+        this.watcher.check();
+
+        assertEquals(1000, this.taskList.getSize());
+        assertTrue(this.taskList.getTask(500).isDone());
+    }
+
+    @Test
+    public void testCheck_ownChanges_notLoadedAgain() {
+        this.taskList.add(new Todo("buy milk"), this.storage);
+        this.taskList.mark(3, this.storage);
+        this.taskList.delete(1, this.storage);
+        this.watcher.check();
+
+        assertEquals(2, this.taskList.getSize());
+        assertEquals("return book", this.taskList.getTask(0).getDescription());
+        assertTrue(this.taskList.getTask(1).isDone());
+    }
+
+    @Test
+    public void testMarkAndDelete_blankLinesInFile_sameTasksChanged() throws IOException {
+        Files.writeString(TEST_FILE.toPath(), "0 | T | 0 | alpha\n\n  \r\n0 | T | 0 | beta\n0 | T | 0 | gamma\n");
+        TaskList loaded = new TaskList();
+        this.storage.loadFile(loaded, this.parser);
+        loaded.mark(2, this.storage);
+        loaded.delete(1, this.storage);
+
+        assertEquals("0 | T | 1 | beta\n0 | T | 0 | gamma\n",
+                Files.readString(TEST_FILE.toPath()).replace(System.lineSeparator(), "\n"));
+    }
+
+    @Test
+    public void testStart_lineAppended_loadedWithinASecond() throws Exception {
+        this.watcher.start();
+        append("0 | T | 0 | buy milk\n");
+
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        while (this.taskList.getSize() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, this.taskList.getSize());
+    }
+
+    @Test
+    public void testCheck_fileUnchangedWhileListLocked_returnsWithoutWaiting() throws Exception {
+        TEST_FILE.setLastModified(System.currentTimeMillis() - 60_000);
+        Storage oldFileStorage = new Storage("data/", "watchertest.txt");
+        TaskList loaded = new TaskList();
+        oldFileStorage.loadFile(loaded, this.parser);
+        CountDownLatch isLocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread writer = new Thread(() -> loaded.runWrite(() -> {
+            isLocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        writer.start();
+        isLocked.await();
+
+        try (StorageWatcher oldFileWatcher = new StorageWatcher(oldFileStorage, loaded, this.parser)) {
+            Thread checker = new Thread(oldFileWatcher::check);
+            checker.start();
+            checker.join(5000);
+            boolean isFinished = !checker.isAlive();
+            release.countDown();
+            writer.join();
+            assertTrue(isFinished);
+        }
+    }
+
+    private void append(String text) throws IOException {
+        Path path = TEST_FILE.toPath();
+        Files.writeString(path, text, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+}
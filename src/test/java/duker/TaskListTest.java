@@ -12,6 +12,7 @@ import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 
 import org.junit.jupiter.api.AfterEach;
@@ -42,6 +43,7 @@ public class TaskListTest {
         if (TEST_FILE.exists()) {
             TEST_FILE.delete();
         }
+        new File(DATA_DIRECTORY.toFile(), "test.txt.archive").delete();
     }
 
     @Test
@@ -114,5 +116,83 @@ public class TaskListTest {
         });
         assertEquals("Keyword should not be null or empty", exception.getMessage());
     }
-}
 
+    @Test
+    public void testFindTasksBetween_recurringDeadline_occurrencesInRange() {
+        TaskList taskList = new TaskList();
+        taskList.load(new RecurringDeadline("standup", LocalDateTime.parse("2026-10-20T09:00"),
+                Recurrence.parse("1d")));
+        taskList.load(new Deadline("pay invoice", LocalDateTime.parse("2026-10-21T12:00")));
+        ArrayList<Task> tasksFound = taskList.findTasksBetween(LocalDateTime.parse("2026-10-21T00:00"),
+                LocalDateTime.parse("2026-10-23T00:00"), 10);
+        assertEquals(3, tasksFound.size());
+        assertEquals("standup", tasksFound.get(0).getDescription());
+        assertEquals("pay invoice", tasksFound.get(1).getDescription());
+        assertEquals(LocalDateTime.parse("2026-10-22T09:00"), ((Deadline) tasksFound.get(2)).getBy());
+    }
+
+    @Test
+    public void testFindTasksBetween_moreThanLimit_earliestKept() {
+        TaskList taskList = new TaskList();
+        taskList.load(new RecurringDeadline("check logs", LocalDateTime.parse("2000-01-01T00:00"),
+                Recurrence.parse("1d")));
+        taskList.load(new Deadline("pay invoice", LocalDateTime.parse("2026-10-21T12:00")));
+        taskList.load(new RecurringEvent("standup", LocalDateTime.parse("2026-10-20T09:00"),
+                LocalDateTime.parse("2026-10-20T09:15"), Recurrence.parse("1d")));
+
+        ArrayList<Task> tasksFound = taskList.findTasksBetween(LocalDateTime.parse("2026-10-20T00:00"),
+                LocalDateTime.parse("9999-01-01T00:00"), 5);
+
+        assertEquals(5, tasksFound.size());
+        assertEquals(LocalDateTime.parse("2026-10-20T00:00"), ((Deadline) tasksFound.get(0)).getBy());
+        assertEquals("standup", tasksFound.get(1).getDescription());
+        assertEquals("check logs", tasksFound.get(2).getDescription());
+        assertEquals("standup", tasksFound.get(3).getDescription());
+        assertEquals("pay invoice", tasksFound.get(4).getDescription());
+    }
+
+    @Test
+    public void testAdd_nonAsciiDescription_bytesWrittenAndFsyncCounted() throws IOException {
+        Storage storage = new Storage("data/", "test.txt");
+        TaskList taskList = new TaskList();
+        Metrics.reset();
+        Metrics.setEnabled(true);
+        try {
+            taskList.add(new Todo("caf\u00e9 \u4f1a\u8bae"), storage);
+
+            long fileLength = Files.size(TEST_FILE.toPath());
+            assertEquals(fileLength, (long) Metrics.getCounters().get("storage.bytes.written"));
+            assertEquals(1L, (long) Metrics.getCounters().get("storage.fsyncs"));
+        } finally {
+            Metrics.setEnabled(false);
+            Metrics.reset();
+        }
+    }
+
+    @Test
+    public void testArchive_oldDoneTasks_movedOutAndSearchable() {
+        Storage storage = new Storage("data/", "test.txt");
+        Parser parser = new Parser();
+        TaskList taskList = new TaskList();
+        storage.loadFile(taskList, parser);
+        taskList.add(new Deadline("old report", LocalDateTime.parse("2020-01-01T09:00")), storage);
+        taskList.add(new Deadline("new report", LocalDateTime.parse("2099-01-01T09:00")), storage);
+        taskList.add(new Todo("open report"), storage);
+        taskList.mark(1, storage);
+        taskList.mark(2, storage);
+        taskList.mark(3, storage);
+
+        int archived = taskList.archive(storage, LocalDateTime.parse("2026-01-01T00:00"));
+
+        assertEquals(1, archived);
+        assertEquals(2, taskList.getSize());
+        assertEquals("new report", taskList.getTask(0).getDescription());
+        TaskList reloaded = new TaskList();
+        new Storage("data/", "test.txt").loadFile(reloaded, parser);
+        assertEquals(2, reloaded.getSize());
+        ArrayList<Task> found = storage.findArchivedTasks("report", parser);
+        assertEquals(1, found.size());
+        assertEquals("old report", found.get(0).getDescription());
+        assertTrue(found.get(0).isDone());
+    }
+}
@@ -0,0 +1,85 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TaskStatisticsTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 9, 0);
+    private final PrintStream ORIGINAL_OUT = System.out;
+
+    private MutableClock clock;
+    private TaskStatistics statistics;
+    private TaskList taskList;
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        this.clock = new MutableClock(NOW);
+        this.statistics = new TaskStatistics(this.clock);
+        this.taskList = new TaskList();
+        this.taskList.addListener(this.statistics);
+        this.storage = new Storage("data/", "statisticstest.txt");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setOut(ORIGINAL_OUT);
+        new File("data", "statisticstest.txt").delete();
+    }
+
+    @Test
+    public void testCounts_everyChange_matchesList() {
+        this.taskList.load(new Todo("read book"));
+        this.taskList.load(new Deadline("pay rent", NOW.minusDays(1)));
+        this.taskList.load(new Event("standup", NOW.plusHours(1), NOW.plusHours(2)));
+        this.taskList.add(new Deadline("submit report", NOW.plusMinutes(30)), this.storage);
+        this.taskList.mark(1, this.storage);
+        this.taskList.prioritise(3, this.storage);
+        this.taskList.prioritise(4, this.storage);
+        this.taskList.deprioritise(4, this.storage);
+        this.taskList.delete(2, this.storage);
+
+        Map<String, Long> counts = this.statistics.toMap();
+        assertEquals(3, (long) counts.get("total"));
+        assertEquals(1, (long) counts.get("done"));
+        assertEquals(2, (long) counts.get("undone"));
+        assertEquals(1, (long) counts.get("highPriority"));
+        assertEquals(1, (long) counts.get("todo"));
+        assertEquals(1, (long) counts.get("deadline"));
+        assertEquals(1, (long) counts.get("event"));
+        assertEquals(0, (long) counts.get("overdue"));
+    }
+
+    @Test
+    public void testGetOverdue_timePassesAndTasksChange_countsUndonePastDeadlines() {
+        this.taskList.load(new Deadline("pay rent", NOW.minusDays(1)));
+        this.taskList.load(new Deadline("submit report", NOW.plusMinutes(30)));
+        this.taskList.load(new Deadline("book flight", NOW.plusDays(90)));
+        assertEquals(1, this.statistics.getOverdue());
+
+        this.clock.advanceMinutes(30);
+        assertEquals(1, this.statistics.getOverdue());
+        this.clock.advanceMinutes(1);
+        assertEquals(2, this.statistics.getOverdue());
+
+        this.taskList.mark(1, this.storage);
+        assertEquals(1, this.statistics.getOverdue());
+        this.taskList.unmark(1, this.storage);
+        this.taskList.delete(2, this.storage);
+        assertEquals(1, this.statistics.getOverdue());
+
+        this.clock.advanceMinutes(91 * 24 * 60);
+        assertEquals(2, this.statistics.getOverdue());
+    }
+}
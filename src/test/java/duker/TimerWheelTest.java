@@ -0,0 +1,57 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TimerWheelTest {
+
+    @Test
+    public void testAdvanceTo_randomTimers_expireExactlyWhenDue() {
+        Random random = new Random(7);
+        TimerWheel<Long> wheel = new TimerWheel<>(1000);
+        ArrayList<TimerWheel.Timer<Long>> timers = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            long delay = random.nextInt(4) == 0 ? random.nextInt(300_000) : random.nextInt(5000);
+            long dueTick = 1000 + delay;
+            timers.add(wheel.schedule(dueTick, dueTick));
+        }
+        int cancelled = 0;
+        for (int i = 0; i < timers.size(); i += 3) {
+            wheel.cancel(timers.get(i));
+            wheel.cancel(timers.get(i));
+            cancelled += 1;
+        }
+
+        int[] expired = {0};
+        for (long tick = 1000; tick <= 301_000; tick += 1 + random.nextInt(200)) {
+            long last = tick;
+            wheel.advanceTo(tick, dueTick -> {
+                assertEquals(true, dueTick <= last && dueTick > last - 200);
+                expired[0] += 1;
+            });
+        }
+        wheel.advanceTo(301_200, dueTick -> expired[0] += 1);
+
+        assertEquals(timers.size() - cancelled, expired[0]);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testSchedule_pastAndFarTimers_expireOnNextTickAndWhenDue() {
+        TimerWheel<String> wheel = new TimerWheel<>(100);
+        wheel.schedule("past", 5);
+        wheel.schedule("far", 100 + (1L << 26));
+        ArrayList<String> expired = new ArrayList<>();
+
+        wheel.advanceTo(100, expired::add);
+        assertEquals(1, expired.size());
+        wheel.advanceTo(100 + (1L << 26) - 1, expired::add);
+        assertEquals(1, expired.size());
+        wheel.advanceTo(100 + (1L << 26), expired::add);
+        assertEquals("far", expired.get(1));
+    }
+}
@@ -0,0 +1,143 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class WordIndexTest {
+
+    private final PrintStream ORIGINAL_OUT = System.out;
+
+    private TaskList taskList;
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        this.taskList = new TaskList();
+        this.storage = new Storage("data/", "wordindextest.txt");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setOut(ORIGINAL_OUT);
+        new File("data", "wordindextest.txt").delete();
+    }
+
+    @Test
+    public void testSearchTasks_rareAndRepeatedWords_rankedFirst() {
+        this.taskList.load(new Todo("call team about report"));
+        this.taskList.load(new Todo("report report report"));
+        this.taskList.load(new Todo("write the quarterly budget report for the whole team"));
+        this.taskList.load(new Todo("call team"));
+        this.taskList.load(new Todo("buy milk"));
+
+        ArrayList<Task> found = this.taskList.searchTasks("report", 10);
+        assertEquals(3, found.size());
+        assertEquals("report report report", found.get(0).getDescription());
+        assertEquals("call team about report", found.get(1).getDescription());
+
+        found = this.taskList.searchTasks("budget team", 10);
+        assertEquals(3, found.size());
+        assertEquals("write the quarterly budget report for the whole team", found.get(0).getDescription());
+        assertEquals(0, this.taskList.searchTasks("dentist", 10).size());
+    }
+
+    @Test
+    public void testSearchTasks_limit_keepsBestInListOrderOnTies() {
+        for (int i = 0; i < 50; i++) {
+            this.taskList.load(new Todo("pay invoice " + i));
+        }
+        ArrayList<Task> found = this.taskList.searchTasks("invoice", 3);
+        assertEquals(3, found.size());
+        assertEquals("pay invoice 0", found.get(0).getDescription());
+        assertEquals("pay invoice 1", found.get(1).getDescription());
+        assertEquals("pay invoice 2", found.get(2).getDescription());
+    }
+
+    @Test
+    public void testSearchTasks_priorityAndDone_boostUndoneHighPriority() {
+        this.taskList.load(new Todo("review draft"));
+        this.taskList.load(new Todo("review draft"));
+        this.taskList.load(new Todo("review draft"));
+        this.taskList.add(new Todo("plan trip"), this.storage);
+        this.taskList.mark(1, this.storage);
+        this.taskList.prioritise(3, this.storage);
+
+        ArrayList<Task> found = this.taskList.searchTasks("draft", 10);
+        assertEquals(3, found.size());
+        assertEquals(1, found.get(0).getPriority());
+        assertEquals(false, found.get(1).isDone());
+        assertEquals(true, found.get(2).isDone());
+    }
+
+    @Test
+    public void testSearchTasks_columnarStore_tasksReadFromList() {
+        TaskList columnar = new TaskList(new ColumnarTaskStore());
+        columnar.load(new Todo("call team about report"));
+        columnar.load(new Todo("buy milk"));
+        columnar.load(new Todo("report report report"));
+        columnar.load(new Todo("reprot typo"));
+        columnar.delete(2, this.storage);
+        columnar.mark(2, this.storage);
+
+        ArrayList<Task> ranked = columnar.searchTasks("report", 10);
+        assertEquals(2, ranked.size());
+        assertEquals("report report report", ranked.get(0).getDescription());
+        assertEquals(true, ranked.get(0).isDone());
+        assertEquals(1, columnar.getIndexOf(ranked.get(1)));
+        ArrayList<Task> similar = columnar.findSimilarTasks("report");
+        assertEquals(3, similar.size());
+        assertEquals("reprot typo", similar.get(2).getDescription());
+    }
+
+    @Test
+    public void testSearchTasks_fewMatchesInLongList_sameRankingAsDense() {
+        for (int i = 0; i < 200; i++) {
+            this.taskList.load(new Todo("buy groceries " + i));
+        }
+        this.taskList.load(new Todo("deploy release"));
+        this.taskList.load(new Todo("deploy backup"));
+        this.taskList.load(new Todo("release notes release"));
+
+        ArrayList<Task> found = this.taskList.searchTasks("release deploy", 10);
+        assertEquals(3, found.size());
+        assertEquals("deploy release", found.get(0).getDescription());
+        assertEquals("release notes release", found.get(1).getDescription());
+        assertEquals("deploy backup", found.get(2).getDescription());
+    }
+
+    @Test
+    public void testSearchTasks_manyRemovalsFromCommonWords_matchesScan() {
+        String[] words = {"team", "report", "budget", "gym", "notes"};
+        Random random = new Random(48);
+        for (int i = 0; i < 2000; i++) {
+            this.taskList.load(new Todo(words[random.nextInt(words.length)] + " " +
+                    words[random.nextInt(words.length)]));
+        }
+        this.taskList.searchTasks("team", 1);
+
+        for (int i = 0; i < 1500; i++) {
+            if (random.nextInt(3) == 0) {
+                this.taskList.load(new Todo(words[random.nextInt(words.length)] + " task"));
+            } else {
+                this.taskList.delete(1 + random.nextInt(this.taskList.getSize()), this.storage);
+            }
+        }
+
+        for (String word : words) {
+            long expected = this.taskList.snapshot().stream()
+                    .filter(task -> task.getDescription().contains(word))
+                    .count();
+            assertEquals(expected, this.taskList.searchTasks(word, 5000).size(), word);
+        }
+    }
+}
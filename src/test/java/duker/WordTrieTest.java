@@ -0,0 +1,112 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class WordTrieTest {
+
+    private final PrintStream ORIGINAL_OUT = System.out;
+
+    @BeforeEach
+    public void setUp() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setOut(ORIGINAL_OUT);
+        new File("data", "bktreetest.txt").delete();
+    }
+
+    @Test
+    public void testGetDistance_knownPairs_correctDistance() {
+        assertEquals(0, WordTrie.getDistance("book", "book"));
+        assertEquals(3, WordTrie.getDistance("kitten", "sitting"));
+        assertEquals(4, WordTrie.getDistance("", "book"));
+        assertEquals(1, WordTrie.getDistance("asignment", "assignment"));
+    }
+
+    @Test
+    public void testSearch_randomWords_matchesBruteForce() {
+        Random random = new Random(47);
+        WordTrie trie = new WordTrie();
+        ArrayList<String> words = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 2 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(6)));
+            }
+            words.add(word.toString());
+            trie.add(word.toString());
+        }
+        HashSet<String> live = new HashSet<>(words);
+        for (int i = 0; i < 500; i++) {
+            trie.remove(words.get(i));
+            live.remove(words.get(i));
+        }
+        assertEquals(live.size(), trie.size());
+
+        for (String query : List.of("abc", "fedcba", "aaaa", "bd")) {
+            Map<String, Integer> found = trie.search(query, 2);
+            long expected = live.stream().filter(w -> WordTrie.getDistance(query, w) <= 2).count();
+            assertEquals(expected, found.size());
+            int previous = 0;
+            for (Map.Entry<String, Integer> entry : found.entrySet()) {
+                assertEquals(WordTrie.getDistance(query, entry.getKey()), (int) entry.getValue());
+                assertTrue(entry.getValue() >= previous);
+                previous = entry.getValue();
+            }
+        }
+    }
+
+    @Test
+    public void testFindSimilarTasks_typos_rankedByDistance() {
+        TaskList taskList = new TaskList();
+        taskList.load(new Todo("finish assignment"));
+        taskList.load(new Todo("read book"));
+        taskList.load(new Todo("return books to library"));
+        taskList.load(new Todo("submit asignment"));
+
+        ArrayList<Task> found = taskList.findSimilarTasks("asignment");
+        assertEquals(2, found.size());
+        assertEquals("submit asignment", found.get(0).getDescription());
+        assertEquals("finish assignment", found.get(1).getDescription());
+
+        assertEquals(1, taskList.findSimilarTasks("Bok").size());
+        assertEquals(2, taskList.findSimilarTasks("bookz").size());
+        assertEquals(1, taskList.findSimilarTasks("reed boook").size());
+        assertEquals(0, taskList.findSimilarTasks("zebra").size());
+    }
+
+    @Test
+    public void testFindSimilarTasks_changesAfterFirstSearch_indexKeptUpToDate() {
+        TaskList taskList = new TaskList();
+        Storage storage = new Storage("data/", "bktreetest.txt");
+        taskList.load(new Todo("read book"));
+        assertEquals(1, taskList.findSimilarTasks("book").size());
+
+        taskList.add(new Todo("buy cookbook"), storage);
+        taskList.add(new Todo("look up books"), storage);
+        taskList.delete(1, storage);
+        taskList.mark(1, storage);
+
+        ArrayList<Task> found = taskList.findSimilarTasks("book");
+        assertEquals(1, found.size());
+        assertEquals("look up books", found.get(0).getDescription());
+        assertEquals(1, taskList.findSimilarTasks("cookbok").size());
+    }
+}
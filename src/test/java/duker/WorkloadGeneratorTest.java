@@ -0,0 +1,70 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class WorkloadGeneratorTest {
+
+    private final File TEST_FILE = new File("data", "workloadtest.txt");
+
+    @AfterEach
+    public void tearDown() {
+        TEST_FILE.delete();
+        new File("data", "workloadtest.txt.archive").delete();
+    }
+
+    @Test
+    public void testGenerateTasks_ratios_roughlyRespected() throws DukerException {
+        WorkloadGenerator generator = new WorkloadGenerator(new String[] {
+            "--tasks", "10000", "--todo", "0.5", "--deadline", "0.5", "--done", "0.2", "--priority", "0.1"});
+        ArrayList<Task> tasks = generator.generateTasks();
+
+        int todos = 0;
+        int done = 0;
+        int highPriority = 0;
+        for (Task task : tasks) {
+            todos += task instanceof Todo ? 1 : 0;
+            done += task.isDone() ? 1 : 0;
+            highPriority += task.getPriority();
+            assertFalse(task instanceof Event);
+        }
+        assertEquals(10000, tasks.size());
+        assertTrue(Math.abs(todos - 5000) < 300);
+        assertTrue(Math.abs(done - 2000) < 300);
+        assertTrue(Math.abs(highPriority - 1000) < 300);
+    }
+
+    @Test
+    public void testConstructor_invalidOption_exceptionThrown() {
+        assertThrows(DukerException.class, () -> new WorkloadGenerator(new String[] {"--done", "2"}));
+        assertThrows(DukerException.class, () -> new WorkloadGenerator(new String[] {"--colour", "red"}));
+    }
+
+    @Test
+    public void testReplay_generatedTrace_everyIndexValid() throws Exception {
+        WorkloadGenerator generator = new WorkloadGenerator(new String[] {
+            "--tasks", "200", "--commands", "500", "--writes", "0.5", "--data", TEST_FILE.getPath()});
+        ArrayList<Task> tasks = generator.generateTasks();
+        generator.writeData(tasks);
+        ArrayList<String> commands = generator.generateCommands(WorkloadGenerator.countLiveTasks(tasks));
+
+        try (Duker duker = new Duker("data/", "workloadtest.txt")) {
+            for (String command : commands) {
+                String response = duker.getResponse(command);
+                assertFalse(response.contains("InvalidIndexException") || response.contains("OOPS"),
+                        command + ": " + response);
+            }
+            ReplayHarness harness = new ReplayHarness(duker);
+            harness.replay(commands.subList(0, 50), true);
+            assertTrue(harness.getReport().contains("total 50 commands"));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package duker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class WorkspaceTest {
+
+    private static final String[] NAMES = {"wstest-a", "wstest-b", "wstest-c"};
+
+    @BeforeEach
+    public void setUp() {
+        deleteFiles();
+        System.setProperty("duker.workspaces.max", "2");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty("duker.workspaces.max");
+        deleteFiles();
+    }
+
+    private static void deleteFiles() {
+        for (String name : NAMES) {
+            new File("data", Workspace.getFileName(name)).delete();
+        }
+    }
+
+    @Test
+    public void testUse_moreThanMax_leastRecentlyUsedEvictedAndReloaded() {
+        try (Duker duker = new Duker("data/", "wstest-a.txt")) {
+            duker.execute("todo team a task");
+            assertEquals("Now using the workspace 'wstest-b', which has 0 tasks.\n", respond(duker, "use wstest-b"));
+            duker.execute("todo team b task");
+            duker.execute("todo another team b task");
+            assertEquals("Here are the tasks in your list:\n1.[T][ ] team b task\n2.[T][ ] another team b task\n",
+                    respond(duker, "list"));
+
+            duker.execute("use wstest-c");
+            assertEquals(List.of("wstest-b", "wstest-c"), duker.getLoadedWorkspaces());
+
+            assertEquals("Now using the workspace 'wstest-a', which has 1 tasks.\n", respond(duker, "use wstest-a"));
+            assertEquals(List.of("wstest-c", "wstest-a"), duker.getLoadedWorkspaces());
+            assertEquals("Now using the workspace 'wstest-b', which has 2 tasks.\n", respond(duker, "use wstest-b"));
+            assertEquals(List.of("wstest-a", "wstest-b"), duker.getLoadedWorkspaces());
+        }
+    }
+
+    @Test
+    public void testUse_oneWorkspaceAllowed_outgoingClosedOnceItsListIsUnlocked() throws DukerException {
+        System.setProperty("duker.workspaces.max", "1");
+        try (Duker duker = new Duker("data/", "wstest-a.txt")) {
+            duker.execute("todo team a task");
+            duker.execute("use wstest-b");
+            assertEquals(List.of("wstest-b"), duker.getLoadedWorkspaces());
+
+            TaskList taskList = duker.getCurrentWorkspace().getTaskList();
+            ArrayList<Workspace> used = new ArrayList<>();
+            taskList.runWrite(() -> {
+                try {
+                    used.add(duker.useWorkspace("wstest-c"));
+                } catch (DukerException e) {
+                    throw new AssertionError(e);
+                }
+            });
+            assertEquals("wstest-c", used.get(0).getName());
+            assertEquals(List.of("wstest-b", "wstest-c"), duker.getLoadedWorkspaces());
+
+            assertEquals("Now using the workspace 'wstest-a', which has 1 tasks.\n", respond(duker, "use wstest-a"));
+            assertEquals(List.of("wstest-a"), duker.getLoadedWorkspaces());
+        }
+    }
+
+    @Test
+    public void testOpen_doneTasks_keptUnlessArchivedOnStart() {
+        try (Duker duker = new Duker("data/", "wstest-a.txt")) {
+            duker.execute("todo done team task");
+            duker.execute("deadline old team report /by 2020-01-01 09:00");
+            duker.execute("mark 1");
+            duker.execute("mark 2");
+        }
+        try (Duker duker = new Duker("data/", "wstest-a.txt")) {
+            assertEquals(2, duker.getCurrentWorkspace().getTaskList().getSize());
+        }
+
+        System.setProperty("duker.archive.onStart", "true");
+        try (Duker duker = new Duker("data/", "wstest-a.txt")) {
+            assertEquals("Here are the tasks in your list:\n1.[T][X] done team task\n", respond(duker, "list"));
+        } finally {
+            System.clearProperty("duker.archive.onStart");
+            new File("data", Workspace.getFileName("wstest-a") + ".archive").delete();
+        }
+    }
+
+    @Test
+    public void testUse_invalidName_staysInCurrentWorkspace() {
+        try (Duker duker = new Duker("data/", "wstest-a.txt")) {
+            assertEquals("A workspace name should be 1 to 64 letters, digits, '-' or '_'.\n",
+                    respond(duker, "use ../secret"));
+            assertEquals("wstest-a", duker.getCurrentWorkspace().getName());
+            assertTrue(respond(duker, "use").startsWith("You are using the workspace 'wstest-a'."));
+        }
+        assertFalse(Workspace.isValidName("a b"));
+        assertTrue(Workspace.isValidName("team_1-notes"));
+    }
+
+    @Test
+    public void testGetResponse_otherOutputWhileRunning_notInResponse() {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream processOutput = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(processOutput));
+        try (Duker duker = new Duker("data/", "wstest-a.txt")) {
+            duker.getCurrentWorkspace().getTaskList().addListener(new TaskListener() {
+                @Override
+                public void taskAdded(Task task) {
+                    System.out.println("background output");
+                }
+
+                @Override
+                public void taskRemoved(Task task) {
+                }
+            });
+            assertEquals("Got it. I've added this task: \n[T][ ] team a task\nNow you have 1 tasks in the list.\n",
+                    respond(duker, "todo team a task"));
+            assertTrue(processOutput.toString().contains("background output"));
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    private static String respond(Duker duker, String command) {
+        return duker.getResponse(command).replace(System.lineSeparator(), "\n");
+    }
+}
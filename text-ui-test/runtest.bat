@@ -3,19 +3,22 @@
 REM create bin directory if it doesn't exist
 if not exist ..\bin mkdir ..\bin
 
-REM delete output from previous run
+REM delete output and data from previous run
 if exist ACTUAL.TXT del ACTUAL.TXT
+if exist data rmdir /s /q data
 
-REM compile the code into the bin folder
-javac  -cp ..\src\main\java -Xlint:none -d ..\bin ..\src\main\java\*.java
+REM compile the code except the JavaFX classes into the bin folder
+dir /s /b ..\src\main\java\*.java | findstr /v /e "Launcher.java Main.java MainWindow.java DialogBox.java" > sources.txt
+javac -encoding UTF-8 -cp ..\src\main\java -Xlint:none -d ..\bin @sources.txt
 IF ERRORLEVEL 1 (
     echo ********** BUILD FAILURE **********
     exit /b 1
 )
 REM no error here, errorlevel == 0
+del sources.txt
 
-REM run the program, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
-java -classpath ..\bin Duke < input.txt > ACTUAL.TXT
+REM run the console, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
+java -Dduker.watch=false -classpath ..\bin duker.Cli < input.txt > ACTUAL.TXT
 
 REM compare the output to the expected output
 FC /W ACTUAL.TXT EXPECTED.TXT
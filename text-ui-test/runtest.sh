@@ -6,21 +6,23 @@ then
     mkdir ../bin
 fi
 
-# delete output from previous run
+# delete output and data from previous run
 if [ -e "./ACTUAL.TXT" ]
 then
     rm ACTUAL.TXT
 fi
+rm -rf ./data
 
-# compile the code into the bin folder, terminates if error occurred
-if ! javac -cp ../src/main/java -Xlint:none -d ../bin ../src/main/java/*.java
+# compile the code except the JavaFX classes into the bin folder, terminates if error occurred
+SOURCES=$(find ../src/main/java -name "*.java" | grep -v -e Launcher.java -e Main.java -e MainWindow.java -e DialogBox.java)
+if ! javac -encoding UTF-8 -cp ../src/main/java -Xlint:none -d ../bin $SOURCES
 then
     echo "********** BUILD FAILURE **********"
     exit 1
 fi
 
-# run the program, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
-java -classpath ../bin Duke < input.txt > ACTUAL.TXT
+# run the console, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
+java -Dduker.watch=false -classpath ../bin duker.Cli < input.txt > ACTUAL.TXT
 
 # convert to UNIX format
 cp EXPECTED.TXT EXPECTED-UNIX.TXT
@@ -35,4 +37,4 @@ then
 else
     echo "Test result: FAILED"
     exit 1
-fi
\ No newline at end of file
+fi